@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.NativeBinaryLoader;
+import electrostatic4j.snaploader.library.ArenaLoadingBackend;
+import electrostatic4j.snaploader.library.LibraryHandle;
+
+/**
+ * Tests loading a library by the arena loading backend on Java 22+, looking up its symbols, then unloading
+ * and reloading it without restarting the JVM.
+ *
+ * @author pavl_g
+ */
+public final class TestArenaLoading {
+
+    private static final String SYMBOL = "Java_com_jme3_alloc_util_NativeErrno_getErrno";
+
+    public static void main(String[] args) throws Exception {
+        if (!ArenaLoadingBackend.INSTANCE.isSupported()) {
+            System.out.println("Arena loading backend isn't supported by Java " + System.getProperty("java.version"));
+            return;
+        }
+        final NativeBinaryLoader loader = new NativeBinaryLoader(TestBasicFeatures.libraryInfo);
+        loader.registerNativeLibraries(TestBasicFeatures.libraries).initPlatformLibrary();
+        loader.setLoadingBackend(ArenaLoadingBackend.INSTANCE);
+
+        for (int generation = 0; generation < 2; generation++) {
+            loader.loadLibrary(LoadingCriterion.CLEAN_EXTRACTION);
+            final LibraryHandle handle = loader.getLibraryHandle();
+            if (handle == null) {
+                throw new IllegalStateException("Library hasn't been loaded!");
+            }
+            for (int i = 0; i < 1000; i++) {
+                if (handle.findSymbol(SYMBOL) == 0) {
+                    throw new IllegalStateException("Symbol isn't found: " + SYMBOL);
+                }
+            }
+            System.out.println("Generation " + generation + ": " + handle);
+            if (!loader.unloadLibrary() || handle.isOpen()) {
+                throw new IllegalStateException("Library hasn't been unloaded!");
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.LoadingResult;
+import electrostatic4j.snaploader.NativeBinaryLoader;
+
+/**
+ * Tests loading a library asynchronously, while the main thread proceeds with other initialization work;
+ * the extraction runs on an I/O executor, and the loading result is delivered on a callback executor.
+ *
+ * @author pavl_g
+ */
+public final class TestAsyncLoading {
+
+    public static void main(String[] args) throws Exception {
+        final ExecutorService ioExecutor = Executors.newFixedThreadPool(2);
+        final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor();
+        try {
+            final NativeBinaryLoader loader = new NativeBinaryLoader(TestBasicFeatures.libraryInfo);
+            loader.registerNativeLibraries(TestBasicFeatures.libraries).initPlatformLibrary();
+
+            final long start = System.nanoTime();
+            final CompletableFuture<LoadingResult> load = loader.loadLibraryAsync(LoadingCriterion.CLEAN_EXTRACTION,
+                    ioExecutor, callbackExecutor);
+            load.thenAccept(result -> System.out.println(Thread.currentThread().getName() + ": " + result));
+            System.out.println("Load submitted in " + ((System.nanoTime() - start) / 1000) + " us, "
+                    + "the main thread proceeds with the application initialization...");
+
+            final LoadingResult result = load.get();
+            System.out.println("Load completed in " + ((System.nanoTime() - start) / 1000000) + " ms, loaded: " + result.isLoaded());
+        } finally {
+            ioExecutor.shutdown();
+            callbackExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import electrostatic4j.snaploader.platform.binary.BinarySource;
+import electrostatic4j.snaploader.platform.binary.ElfFile;
+import electrostatic4j.snaploader.platform.binary.ElfValidator;
+import electrostatic4j.snaploader.platform.util.HostLibc;
+import electrostatic4j.snaploader.platform.util.HostPlatform;
+import electrostatic4j.snaploader.platform.util.NativeVariant;
+import electrostatic4j.snaploader.platform.util.SystemLibraries;
+
+/**
+ * Tests the binary parsers against the host binaries; the host C library is detected, the libraries
+ * needed by the running executable (<code>/proc/self/exe</code>) are validated against the host, and the
+ * dynamic linker cache (<code>/etc/ld.so.cache</code>) is parsed. Then, truncated and garbage copies of
+ * the C library and the linker cache are parsed, they must be either parsed or rejected with an {@link IOException}.
+ * <p>
+ * Notice: the test runs on Linux hosts only.
+ *
+ * @author pavl_g
+ */
+public final class TestBinaryParsing {
+
+    private static final Path PROCESS_EXECUTABLE = Paths.get("/proc/self/exe");
+    private static final Path PROCESS_MAPS = Paths.get("/proc/self/maps");
+
+    public static void main(String[] args) throws Exception {
+        if (!NativeVariant.Os.isLinux() || NativeVariant.Os.isAndroid()) {
+            System.out.println("Skipping, the binary parsers are tested on Linux hosts only");
+            return;
+        }
+        final Map<String, Path> mappedLibraries = getMappedLibraries();
+
+        /* 1) the host C library */
+        System.out.println("--------------------------------------------------------------");
+        System.out.println("Host C library: " + (HostLibc.isMusl() ? "musl" : HostLibc.isGlibc()
+                ? "GLIBC " + HostLibc.decodeGlibcVersion(HostLibc.getGlibcVersion()) : "not detected"));
+        Path libc = null;
+        for (Map.Entry<String, Path> library : mappedLibraries.entrySet()) {
+            if (library.getKey().equals("libc.so.6") || library.getKey().startsWith("ld-musl-")) {
+                libc = library.getValue();
+                break;
+            }
+        }
+        if (libc == null) {
+            throw new IllegalStateException("The C library isn't mapped into the process");
+        }
+        final ElfFile libcFile = readElf(libc);
+        System.out.println("C library: " + libc + " (" + libcFile.getDefinedVersions().size() + " defined versions)");
+        requireCompatible(libc, libcFile);
+
+        /* 2) the libraries needed by the running executable */
+        final ElfFile executable = readElf(PROCESS_EXECUTABLE);
+        System.out.println("Executable: " + PROCESS_EXECUTABLE.toRealPath() + " needs " + executable.getNeededLibraries());
+        for (String neededLibrary : executable.getNeededLibraries()) {
+            Path library = mappedLibraries.get(neededLibrary);
+            if (library == null && SystemLibraries.getLinkerCache().containsKey(neededLibrary)) {
+                library = SystemLibraries.getLinkerCache().get(neededLibrary).get(0);
+            }
+            if (library == null) {
+                library = SystemLibraries.find(neededLibrary);
+            }
+            if (library == null) {
+                System.out.println("  " + neededLibrary + ": not located");
+                continue;
+            }
+            final ElfFile elfFile = readElf(library);
+            System.out.println("  " + neededLibrary + ": " + library + ", traits 0x"
+                    + Long.toHexString(ElfValidator.getPlatformTraits(elfFile)) + ", requires GLIBC "
+                    + HostLibc.decodeGlibcVersion(HostLibc.getRequiredGlibcVersion(elfFile)));
+            requireCompatible(library, elfFile);
+        }
+
+        /* 3) the dynamic linker cache */
+        final byte[] linkerCache = Files.isRegularFile(SystemLibraries.LINKER_CACHE)
+                ? Files.readAllBytes(SystemLibraries.LINKER_CACHE) : null;
+        if (linkerCache != null) {
+            final Map<String, List<Path>> entries = SystemLibraries.parseLinkerCache(wrap(linkerCache));
+            System.out.println("Linker cache: " + entries.size() + " libraries of the host ABI, libc.so.6 -> "
+                    + entries.get("libc.so.6"));
+            if (HostLibc.isGlibc() && !entries.containsKey("libc.so.6")) {
+                throw new IllegalStateException("The linker cache doesn't list the GNU C library");
+            }
+        } else {
+            System.out.println("Linker cache: not present");
+        }
+
+        /* 4) truncated and garbage input */
+        System.out.println("--------------------------------------------------------------");
+        final Random random = new Random(0x5eed);
+        final Path copy = Files.createTempFile("snaploader-binary", ".so");
+        try {
+            final byte[] libcBytes = Files.readAllBytes(libc);
+            int rejected = 0;
+            for (byte[] input : getMalformedInputs(libcBytes, random)) {
+                Files.write(copy, input);
+                try (BinarySource source = BinarySource.of(copy)) {
+                    final ElfFile elfFile = ElfFile.read(source, true);
+                    if (elfFile != null) {
+                        ElfValidator.getIncompatibility(elfFile, HostPlatform.getTraits());
+                        HostLibc.getIncompatibility(elfFile);
+                    }
+                } catch (IOException e) {
+                    rejected++;
+                }
+            }
+            System.out.println("Malformed ELF inputs: " + rejected + " rejected with an IOException");
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+        if (linkerCache != null) {
+            int rejected = 0;
+            for (byte[] input : getMalformedInputs(linkerCache, random)) {
+                try {
+                    SystemLibraries.parseLinkerCache(wrap(input));
+                } catch (IOException e) {
+                    rejected++;
+                }
+            }
+            System.out.println("Malformed linker cache inputs: " + rejected + " rejected with an IOException");
+        }
+    }
+
+    private static ElfFile readElf(Path binary) throws IOException {
+        try (BinarySource source = BinarySource.of(binary)) {
+            final ElfFile elfFile = ElfFile.read(source, true);
+            if (elfFile == null) {
+                throw new IllegalStateException(binary + " isn't an ELF binary");
+            }
+            return elfFile;
+        }
+    }
+
+    private static void requireCompatible(Path library, ElfFile elfFile) {
+        String incompatibility = ElfValidator.getIncompatibility(elfFile, HostPlatform.getTraits());
+        if (incompatibility == null) {
+            incompatibility = HostLibc.getIncompatibility(elfFile);
+        }
+        if (incompatibility != null) {
+            throw new IllegalStateException("The host library " + library + " is rejected: " + incompatibility);
+        }
+    }
+
+    /**
+     * Creates the truncated copies of a valid input, and the garbage inputs (random bytes, and random
+     * bytes following the valid header).
+     */
+    private static List<byte[]> getMalformedInputs(byte[] valid, Random random) {
+        final List<byte[]> inputs = new ArrayList<>();
+        for (int length : new int[] {0, 1, 4, 16, 20, 32, 48, 52, 63, 64, 100, 512, 4096,
+                valid.length / 4, valid.length / 2, valid.length - 1}) {
+            if (length < valid.length) {
+                inputs.add(Arrays.copyOf(valid, length));
+            }
+        }
+        for (int i = 0; i < 64; i++) {
+            final byte[] garbage = new byte[random.nextInt(8192) + 1];
+            random.nextBytes(garbage);
+            if (i % 2 == 0) {
+                // keep the header, so that the parsers follow the garbage offsets
+                System.arraycopy(valid, 0, garbage, 0, Math.min(Math.min(64, valid.length), garbage.length));
+            }
+            inputs.add(garbage);
+        }
+        for (int i = 0; i < 64; i++) {
+            // corrupt a few bytes of the valid input (e.g., offsets, counts, and sizes)
+            final byte[] corrupted = valid.clone();
+            for (int j = 0; j < 4; j++) {
+                final int position = random.nextInt(Math.min(valid.length, 4096));
+                corrupted[position] = (byte) random.nextInt();
+            }
+            inputs.add(corrupted);
+        }
+        return inputs;
+    }
+
+    private static ByteBuffer wrap(byte[] input) {
+        return ByteBuffer.wrap(input).order(ByteOrder.nativeOrder());
+    }
+
+    private static Map<String, Path> getMappedLibraries() throws IOException {
+        final Map<String, Path> libraries = new LinkedHashMap<>();
+        try (BufferedReader maps = Files.newBufferedReader(PROCESS_MAPS, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = maps.readLine()) != null) {
+                final int pathIndex = line.indexOf('/');
+                if (pathIndex >= 0 && line.contains(".so")) {
+                    final Path library = Paths.get(line.substring(pathIndex));
+                    libraries.putIfAbsent(library.getFileName().toString(), library);
+                }
+            }
+        }
+        return libraries;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import electrostatic4j.snaploader.ConcurrentNativeBinaryLoader;
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.NativeBinaryLoader;
+
+/**
+ * Benchmarks the latency of the {@link ConcurrentNativeBinaryLoader} under contention,
+ * the cold load races 16 threads on a single extraction, then the already-loaded fast path
+ * is measured for 1 to 16 threads.
+ *
+ * @author pavl_g
+ */
+public final class TestConcurrentLoadingLatency {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final int WARM_UP_ITERATIONS = 100000;
+    private static final int MEASURED_ITERATIONS = 1000000;
+
+    public static void main(String[] args) throws Exception {
+        final NativeBinaryLoader loader = new ConcurrentNativeBinaryLoader(Arrays.asList(TestBasicFeatures.libraries),
+                TestBasicFeatures.libraryInfo).initPlatformLibrary();
+        TestBasicFeatures.printDetails(loader);
+
+        /* cold load: a single thread extracts, the others wait for the load to settle */
+        final long coldLatency = race(loader, 16, 1);
+        System.out.println("Cold load (16 threads): " + (coldLatency / 1000) + " us");
+        System.out.println("Loading state: " + ((ConcurrentNativeBinaryLoader) loader).getLoadingState());
+
+        /* warm loads: the lock-free fast path */
+        race(loader, THREAD_COUNTS[THREAD_COUNTS.length - 1], WARM_UP_ITERATIONS);
+        for (int threads : THREAD_COUNTS) {
+            final long elapsed = race(loader, threads, MEASURED_ITERATIONS);
+            System.out.println("Warm load (" + threads + " threads): "
+                    + ((double) elapsed / MEASURED_ITERATIONS) + " ns/op");
+        }
+    }
+
+    /**
+     * Starts the threads at once, each calling the loader for a number of iterations.
+     *
+     * @return the maximum elapsed time of the threads in nanoseconds
+     */
+    private static long race(final NativeBinaryLoader loader, final int threads, final int iterations)
+            throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch end = new CountDownLatch(threads);
+        final AtomicLong maxElapsed = new AtomicLong();
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    final long begin = System.nanoTime();
+                    for (int j = 0; j < iterations; j++) {
+                        loader.loadLibrary(LoadingCriterion.CLEAN_EXTRACTION);
+                    }
+                    final long elapsed = System.nanoTime() - begin;
+                    maxElapsed.accumulateAndGet(elapsed, Math::max);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    end.countDown();
+                }
+            }, "Loader-" + i).start();
+        }
+        start.countDown();
+        end.await();
+        return maxElapsed.get();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.NativeBinaryLoader;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+import electrostatic4j.snaploader.platform.util.CpuFeature;
+import electrostatic4j.snaploader.platform.util.DefaultDynamicLibraries;
+import electrostatic4j.snaploader.platform.util.PlatformPredicate;
+
+/**
+ * Tests the CPU-feature-tiered variant selection; the host CPU features are printed, and
+ * the fastest variant is deliberately broken (a Windows binary registered for Linux),
+ * so that the loader falls back down the tier list to the baseline variant.
+ *
+ * @author pavl_g
+ */
+public final class TestCpuFeatures {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("--------------------------------------------------------------");
+        for (CpuFeature feature : CpuFeature.values()) {
+            System.out.println(feature + " (tier " + feature.getTier() + "): " + feature.isSupported());
+        }
+        System.out.println("--------------------------------------------------------------");
+
+        final NativeDynamicLibrary[] libraries = new NativeDynamicLibrary[] {
+                DefaultDynamicLibraries.LINUX_X86_64,
+                new NativeDynamicLibrary("lib/windows/x86-64", "libjmealloc.dll",
+                        PlatformPredicate.LINUX_X86_64, CpuFeature.SSE4_2),
+                DefaultDynamicLibraries.WIN_X86_64,
+                DefaultDynamicLibraries.MAC_X86_64,
+        };
+        final NativeBinaryLoader loader = new NativeBinaryLoader(TestBasicFeatures.libraryInfo)
+                .registerNativeLibraries(libraries)
+                .initPlatformLibrary();
+        loader.setLoggingEnabled(true);
+        for (NativeDynamicLibrary candidate : loader.getPlatformCandidates()) {
+            System.out.println("Candidate: " + candidate.getPlatformDirectory() + " (tier " + candidate.getTier() + ")");
+        }
+        loader.loadLibrary(LoadingCriterion.CLEAN_EXTRACTION);
+        System.out.println("Loaded variant: " + loader.getNativeDynamicLibrary().getCompressedLibrary());
+    }
+}
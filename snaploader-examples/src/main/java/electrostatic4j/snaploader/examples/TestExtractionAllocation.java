@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.zip.ZipFile;
+import electrostatic4j.snaploader.filesystem.FileExtractor;
+import electrostatic4j.snaploader.filesystem.FileLocator;
+import electrostatic4j.snaploader.filesystem.StreamTransfer;
+
+/**
+ * Benchmarks the heap allocation per extraction of the {@link FileExtractor} streaming engine,
+ * the steady-state allocation of the {@link StreamTransfer} engine is expected to be zero bytes
+ * per extraction after the warm-up phase.
+ * <p>
+ * Note: this benchmark requires a HotSpot-based JVM supporting the thread allocation counters.
+ *
+ * @author pavl_g
+ */
+public final class TestExtractionAllocation {
+
+    private static final int WARM_UP_ITERATIONS = 1000;
+    private static final int MEASURED_ITERATIONS = 10000;
+
+    private static final OutputStream NULL_SINK = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        /* a library-sized payload, 2 MiB */
+        final ByteArrayInputStream source = new ByteArrayInputStream(new byte[2 * 1024 * 1024]);
+
+        /* steady-state transfer engine allocation */
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            source.reset();
+            StreamTransfer.transfer(source, NULL_SINK);
+        }
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            source.reset();
+            StreamTransfer.transfer(source, NULL_SINK);
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+        System.out.println("--------------------------------------------------------------");
+        System.out.println("Transfer buffer size: " + StreamTransfer.getBufferSize() + " bytes");
+        System.out.println("Transfer engine allocation: " + (allocated / MEASURED_ITERATIONS) + " bytes/extraction");
+
+        /* end-to-end extraction allocation (includes the streams and the compression handles) */
+        for (int i = 0; i < WARM_UP_ITERATIONS / 10; i++) {
+            extract();
+        }
+        start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS / 10; i++) {
+            extract();
+        }
+        allocated = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+        System.out.println("End-to-end extraction allocation: " + (allocated / (MEASURED_ITERATIONS / 10)) + " bytes/extraction");
+        System.out.println("--------------------------------------------------------------");
+    }
+
+    private static void extract() throws Exception {
+        final FileLocator fileLocator = new FileLocator(new ZipFile(TestZipExtractor.getZipAbsolutePath()),
+                TestZipExtractor.getFilePath());
+        final FileExtractor fileExtractor = new FileExtractor(fileLocator, TestZipExtractor.getExtractionPath());
+        try {
+            fileLocator.initialize(0);
+            fileExtractor.initialize(0);
+            fileExtractor.extract();
+        } finally {
+            fileExtractor.close();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.NativeBinaryLoader;
+import electrostatic4j.snaploader.library.LibraryClassLoader;
+
+/**
+ * Tests loading the same library into multiple class loaders (i.e., tenants), and hot-swapping
+ * a tenant by discarding its class loader; the JNI native methods of each tenant are linked against
+ * the library bound to its own class loader.
+ *
+ * @author pavl_g
+ */
+public final class TestIsolatedLoading {
+
+    private static Path discardedCopy;
+
+    public static void main(String[] args) throws Exception {
+        // the library is held by the class loader of the application first
+        final NativeBinaryLoader applicationLoader = new NativeBinaryLoader(TestBasicFeatures.libraryInfo);
+        applicationLoader.registerNativeLibraries(TestBasicFeatures.libraries).initPlatformLibrary();
+        applicationLoader.loadLibrary(LoadingCriterion.INCREMENTAL_LOADING);
+
+        final WeakReference<LibraryClassLoader> discardedTenant = loadDiscardedTenant();
+        final LibraryClassLoader tenant = newTenant();
+        loadTenant(tenant);
+
+        // hot-swap the first tenant, its library is unloaded once its class loader is collected
+        for (int i = 0; i < 10 && discardedTenant.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        System.out.println("Discarded tenant collected: " + (discardedTenant.get() == null));
+        loadTenant(newTenant());
+        // the copy of the collected tenant is deleted by the next load
+        System.out.println("Discarded tenant copy deleted: " + !Files.exists(discardedCopy));
+    }
+
+    private static WeakReference<LibraryClassLoader> loadDiscardedTenant() throws Exception {
+        final LibraryClassLoader tenant = newTenant();
+        discardedCopy = Paths.get(loadTenant(tenant));
+        tenant.close();
+        return new WeakReference<>(tenant);
+    }
+
+    private static LibraryClassLoader newTenant() throws Exception {
+        final URL jar = new File(TestBasicFeatures.getJarFilePath().getPath()).toURI().toURL();
+        // the tenant classes must not be visible to the parent class loader
+        return new LibraryClassLoader(new URL[] {jar}, TestIsolatedLoading.class.getClassLoader().getParent());
+    }
+
+    private static String loadTenant(LibraryClassLoader tenant) throws Exception {
+        final NativeBinaryLoader loader = new NativeBinaryLoader(TestBasicFeatures.libraryInfo);
+        loader.registerNativeLibraries(TestBasicFeatures.libraries).initPlatformLibrary();
+        loader.setLoadingBackend(tenant.getLoadingBackend());
+        loader.loadLibrary(LoadingCriterion.INCREMENTAL_LOADING);
+        // the library is loaded by the snaploader, instead of the stock loader of the tenant
+        Class.forName("com.jme3.alloc.util.loader.NativeBinaryLoader", true, tenant)
+                .getMethod("setEnabled", boolean.class).invoke(null, false);
+        // invokes a JNI native method of a tenant class
+        final Object errorNoMemory = Class.forName("com.jme3.alloc.util.NativeErrno", true, tenant)
+                .getMethod("getErrorNoMemory").invoke(null);
+        System.out.println(tenant + ": " + loader.getLibraryHandle() + ", ENOMEM = " + errorNoMemory);
+        return loader.getLibraryHandle().getLibrary();
+    }
+}
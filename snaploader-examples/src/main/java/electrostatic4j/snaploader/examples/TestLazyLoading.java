@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.util.concurrent.CompletableFuture;
+import electrostatic4j.snaploader.LazyNativeLibrary;
+import electrostatic4j.snaploader.LoadingResult;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+
+/**
+ * Tests loading a library lazily on its first use; the library is prewarmed on a background thread while
+ * the main thread proceeds with the application startup, and the later uses cost a single volatile read.
+ *
+ * @author pavl_g
+ */
+public final class TestLazyLoading {
+
+    private static final int USES = 100_000_000;
+
+    public static void main(String[] args) throws Exception {
+        final NativeDynamicLibrary[] libraries = TestBasicFeatures.libraries;
+        long start = System.nanoTime();
+        final LazyNativeLibrary library = new LazyNativeLibrary(TestBasicFeatures.libraryInfo, libraries);
+        System.out.println("Lazy library created in " + ((System.nanoTime() - start) / 1000) + " us: " + library);
+
+        start = System.nanoTime();
+        final CompletableFuture<LoadingResult> prewarm = library.prewarm();
+        System.out.println("Prewarm submitted in " + ((System.nanoTime() - start) / 1000) + " us, "
+                + "the main thread proceeds with the application startup...");
+
+        start = System.nanoTime();
+        library.ensureLoaded();
+        System.out.println("First use completed in " + ((System.nanoTime() - start) / 1000) + " us: " + library
+                + ", prewarm: " + prewarm.get());
+
+        start = System.nanoTime();
+        for (int i = 0; i < USES; i++) {
+            library.ensureLoaded();
+        }
+        System.out.println("Later uses cost " + ((double) (System.nanoTime() - start) / USES) + " ns/use");
+    }
+}
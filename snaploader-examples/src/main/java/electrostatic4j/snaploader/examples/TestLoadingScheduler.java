@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import electrostatic4j.snaploader.BundleLoadingResult;
+import electrostatic4j.snaploader.LibraryInfo;
+import electrostatic4j.snaploader.LoadingPriority;
+import electrostatic4j.snaploader.NativeLoadingScheduler;
+import electrostatic4j.snaploader.filesystem.DirectoryPath;
+import electrostatic4j.snaploader.platform.util.DefaultDynamicLibraries;
+
+/**
+ * Tests scheduling the loads of a critical, a deferred, and an optional library (extracted into
+ * different directories); the critical library is loaded on start, and the others are drained in the background.
+ *
+ * @author pavl_g
+ */
+public final class TestLoadingScheduler {
+
+    public static void main(String[] args) throws Exception {
+        try (NativeLoadingScheduler scheduler = new NativeLoadingScheduler()) {
+            scheduler.setQuietPeriod(500);
+            scheduler.register(TestBasicFeatures.libraryInfo, TestBasicFeatures.libraries,
+                    LoadingPriority.CRITICAL, NativeLoadingScheduler.NO_DEADLINE);
+            scheduler.register(getLibraryInfo("deferred"), TestBasicFeatures.libraries,
+                    LoadingPriority.DEFERRED, NativeLoadingScheduler.NO_DEADLINE);
+            scheduler.register(getLibraryInfo("optional"), TestBasicFeatures.libraries,
+                    LoadingPriority.OPTIONAL, 2000);
+
+            final long start = System.nanoTime();
+            final BundleLoadingResult result = scheduler.start();
+            System.out.println("Critical libraries: " + result + ", ready: " + scheduler.isReady(LoadingPriority.CRITICAL)
+                    + ", optional ready: " + scheduler.isReady(LoadingPriority.OPTIONAL));
+            for (LoadingPriority priority : LoadingPriority.values()) {
+                final boolean loaded = scheduler.awaitPriority(priority, 10, TimeUnit.SECONDS);
+                System.out.println(priority + " libraries loaded: " + loaded + " after "
+                        + ((System.nanoTime() - start) / 1000000) + " ms");
+            }
+        }
+    }
+
+    private static LibraryInfo getLibraryInfo(String extractionDirectory) throws Exception {
+        final DirectoryPath directory = new DirectoryPath(TestBasicFeatures.getLibrariesAbsolutePath().getPath(),
+                extractionDirectory);
+        Files.createDirectories(Paths.get(directory.getPath()));
+        return new LibraryInfo(TestBasicFeatures.getJarFilePath(),
+                new DirectoryPath(DefaultDynamicLibraries.LINUX_X86.getPlatformDirectory()),
+                TestBasicFeatures.getLibraryBaseName(), directory);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.util.Collections;
+import electrostatic4j.snaploader.BundleLoadingResult;
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.NativeBundleLoader;
+import electrostatic4j.snaploader.filesystem.EntryInflater;
+import electrostatic4j.snaploader.util.LoaderExecutors;
+
+/**
+ * Tests the multi-release jar variants against the running Java runtime; the Java 11+ runtimes inflate
+ * the deflated libraries using direct buffers, and the Java 21+ runtimes extract them on virtual threads.
+ * <p>
+ * Notice: the variants are resolved only from the multi-release jar (i.e., the snaploader jar
+ * on the classpath, not its exploded classes).
+ *
+ * @author pavl_g
+ */
+public final class TestMultiReleaseJar {
+
+    public static void main(String[] args) throws Exception {
+        final int featureVersion = getFeatureVersion();
+        System.out.println("Java " + featureVersion + ": direct-buffer inflation = " + EntryInflater.isSupported()
+                + ", virtual threads = " + LoaderExecutors.isVirtual());
+        if (EntryInflater.isSupported() != (featureVersion >= 11) || LoaderExecutors.isVirtual() != (featureVersion >= 21)) {
+            throw new IllegalStateException("The multi-release variant mismatches the Java " + featureVersion + " runtime");
+        }
+        /* exercise the variant: extract the (deflated) library on the bundle executor, and load it */
+        final BundleLoadingResult result = NativeBundleLoader.of(Collections.singletonList(TestBasicFeatures.libraryInfo))
+                .loadLibraries(LoadingCriterion.CLEAN_EXTRACTION);
+        System.out.println(result);
+        if (!result.isLoaded()) {
+            throw new IllegalStateException("The library has not been loaded: " + result.getResults().get(0),
+                    result.getResults().get(0).getFailure());
+        }
+    }
+
+    private static int getFeatureVersion() {
+        final String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.util.Collections;
+import electrostatic4j.snaploader.BundleLoadingResult;
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.LoadingResult;
+import electrostatic4j.snaploader.NativeBundleLoader;
+
+/**
+ * Tests loading a bundle of libraries in a single pass, the libraries are extracted concurrently,
+ * and loaded in their declared order.
+ *
+ * @author pavl_g
+ */
+public final class TestNativeBundle {
+
+    public static void main(String[] args) throws Exception {
+        final NativeBundleLoader bundleLoader = NativeBundleLoader.of(Collections.singletonList(TestBasicFeatures.libraryInfo));
+        bundleLoader.setParallelism(4);
+        final BundleLoadingResult result = bundleLoader.loadLibraries(LoadingCriterion.CLEAN_EXTRACTION);
+        System.out.println(result);
+        for (LoadingResult libraryResult : result.getResults()) {
+            System.out.println(libraryResult);
+        }
+    }
+}
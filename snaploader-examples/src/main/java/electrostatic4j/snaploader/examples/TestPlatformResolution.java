@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.util.ArrayList;
+import java.util.List;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+import electrostatic4j.snaploader.platform.util.DefaultDynamicLibraries;
+import electrostatic4j.snaploader.platform.util.HostPlatform;
+import electrostatic4j.snaploader.platform.util.PlatformIndex;
+import electrostatic4j.snaploader.platform.util.PlatformPredicate;
+
+/**
+ * Tests the platform resolution of the {@link PlatformIndex} against simulated platforms, and
+ * benchmarks the resolution of a plugin-host-sized registration against a linear search.
+ *
+ * @author pavl_g
+ */
+public final class TestPlatformResolution {
+
+    private static final int VARIANTS = 1000;
+    private static final int ITERATIONS = 10000;
+
+    public static void main(String[] args) {
+        final List<NativeDynamicLibrary> defaults = new ArrayList<>();
+        defaults.add(DefaultDynamicLibraries.LINUX_X86);
+        defaults.add(DefaultDynamicLibraries.LINUX_X86_64);
+        defaults.add(DefaultDynamicLibraries.MAC_X86);
+        defaults.add(DefaultDynamicLibraries.MAC_X86_64);
+        defaults.add(DefaultDynamicLibraries.WIN_X86);
+        defaults.add(DefaultDynamicLibraries.WIN_X86_64);
+        defaults.add(new NativeDynamicLibrary("lib/linux/arm", PlatformPredicate.LINUX_ARM_32.or(PlatformPredicate.LINUX_ARM_64)));
+        final PlatformIndex defaultIndex = new PlatformIndex(defaults);
+
+        /* simulated platforms */
+        print(defaultIndex, "Linux", "amd64");
+        print(defaultIndex, "Linux", "i686");
+        print(defaultIndex, "Mac OS X", "x86_64");
+        print(defaultIndex, "Windows 11", "x86");
+        print(defaultIndex, "Linux", "aarch64");
+        print(defaultIndex, "Linux", "armv7l");
+        print(defaultIndex, "FreeBSD", "amd64");
+        System.out.println("Host: " + defaultIndex.resolve().getPlatformDirectory());
+
+        /* a plugin-host-sized registration, where the host variant is registered last */
+        final List<NativeDynamicLibrary> variants = new ArrayList<>();
+        for (int i = 0; i < VARIANTS - 1; i++) {
+            variants.add(new NativeDynamicLibrary("lib/variant-" + i,
+                    PlatformPredicate.of(HostPlatform.OS_WINDOWS | HostPlatform.CPU_ARM | HostPlatform.BITS_64)));
+        }
+        variants.add(new NativeDynamicLibrary("lib/host", PlatformPredicate.of(HostPlatform.getKey())));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            linearSearch(variants, HostPlatform.getTraits());
+        }
+        final long linear = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            new PlatformIndex(variants).resolve();
+        }
+        final long indexed = System.nanoTime() - start;
+
+        final PlatformIndex index = new PlatformIndex(variants);
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            index.resolve(HostPlatform.getTraits());
+        }
+        final long compiled = System.nanoTime() - start;
+
+        System.out.println("Linear search (" + VARIANTS + " variants): " + (linear / ITERATIONS) + " ns/op");
+        System.out.println("Index compilation + resolution: " + (indexed / ITERATIONS) + " ns/op");
+        System.out.println("Compiled index resolution: " + (compiled / ITERATIONS) + " ns/op");
+    }
+
+    private static void print(PlatformIndex index, String osName, String osArch) {
+        final NativeDynamicLibrary library = index.resolve(HostPlatform.detectTraits(osName, osArch, "OpenJDK"));
+        System.out.println(osName + " (" + osArch + "): " + (library == null ? "Unsupported" : library.getPlatformDirectory()));
+    }
+
+    private static NativeDynamicLibrary linearSearch(List<NativeDynamicLibrary> libraries, long traits) {
+        for (NativeDynamicLibrary library : libraries) {
+            if (library.getPlatformPredicate().evaluate(traits)) {
+                return library;
+            }
+        }
+        return null;
+    }
+}
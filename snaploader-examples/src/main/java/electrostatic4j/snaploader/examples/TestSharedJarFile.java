@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import electrostatic4j.snaploader.LibraryInfo;
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.NativeBinaryLoader;
+import electrostatic4j.snaploader.filesystem.DirectoryPath;
+import electrostatic4j.snaploader.filesystem.JarFileCache;
+
+/**
+ * Tests sharing the jar filesystem handle among the loaders; loading ten libraries from
+ * the same jar filesystem opens it once.
+ *
+ * @author pavl_g
+ */
+public final class TestSharedJarFile {
+
+    private static final int LOADERS = 10;
+
+    public static void main(String[] args) throws Exception {
+        final long start = System.nanoTime();
+        for (int i = 0; i < LOADERS; i++) {
+            // a distinct extraction directory per loader, so that every loader extracts its own library
+            final DirectoryPath extractionDirectory = new DirectoryPath(TestBasicFeatures.getLibrariesAbsolutePath().getPath(),
+                    "shared-jar", String.valueOf(i));
+            Files.createDirectories(Paths.get(extractionDirectory.getPath()));
+            final LibraryInfo libraryInfo = new LibraryInfo(TestBasicFeatures.getJarFilePath(),
+                    TestBasicFeatures.libraryInfo.getDirectory(), TestBasicFeatures.getLibraryBaseName(), extractionDirectory);
+            final NativeBinaryLoader loader = new NativeBinaryLoader(libraryInfo);
+            loader.registerNativeLibraries(TestBasicFeatures.libraries).initPlatformLibrary();
+            loader.loadLibrary(LoadingCriterion.CLEAN_EXTRACTION);
+        }
+        System.out.println("Loaded " + LOADERS + " libraries in " + ((System.nanoTime() - start) / 1000000) + " ms");
+        System.out.println("Opened jar filesystems: " + JarFileCache.getOpenCount());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.examples;
+
+import electrostatic4j.snaploader.LoadingCriterion;
+import electrostatic4j.snaploader.NativeBinaryLoader;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+import electrostatic4j.snaploader.platform.util.HostPlatform;
+import electrostatic4j.snaploader.platform.util.VariantDiscovery;
+
+/**
+ * Tests discovering the platform variants of a library by scanning the binary headers of the jar entries,
+ * instead of registering the variants manually; the first discovery classifies the binaries, while the
+ * subsequent discoveries of the same jar version are served from the variants cache.
+ *
+ * @author pavl_g
+ */
+public final class TestVariantDiscovery {
+
+    public static void main(String[] args) throws Exception {
+        final NativeBinaryLoader loader = new NativeBinaryLoader(TestBasicFeatures.libraryInfo);
+        loader.setLoggingEnabled(true);
+
+        long start = System.nanoTime();
+        loader.discoverNativeLibraries();
+        System.out.println("First discovery: " + ((System.nanoTime() - start) / 1000) + " us");
+
+        /* another loader of the same jar version */
+        start = System.nanoTime();
+        new NativeBinaryLoader(TestBasicFeatures.libraryInfo).discoverNativeLibraries(VariantDiscovery.DEFAULT_ROOT);
+        System.out.println("Cached discovery: " + ((System.nanoTime() - start) / 1000) + " us");
+
+        for (NativeDynamicLibrary library : loader.getRegisteredLibraries()) {
+            System.out.println("Discovered: " + library.getCompressedLibrary()
+                    + " -> traits 0x" + Long.toHexString(library.getPlatformPredicate().getTraits())
+                    + (library.getPlatformPredicate().evaluate(HostPlatform.getTraits()) ? " (host)" : ""));
+        }
+
+        loader.initPlatformLibrary();
+        TestBasicFeatures.printDetails(loader);
+        loader.loadLibrary(LoadingCriterion.INCREMENTAL_LOADING);
+    }
+}
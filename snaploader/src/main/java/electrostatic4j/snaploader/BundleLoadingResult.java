@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the aggregated outcome of loading the libraries of a {@link NativeBundleLoader}; the
+ * results are ordered as the libraries of the bundle.
+ *
+ * @author pavl_g
+ */
+public final class BundleLoadingResult {
+
+    private final List<LoadingResult> results;
+    private final long elapsedNanos;
+
+    BundleLoadingResult(List<LoadingResult> results, long elapsedNanos) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Tests whether all the libraries of the bundle have been loaded.
+     *
+     * @return true if all the libraries have been loaded, false otherwise
+     */
+    public boolean isLoaded() {
+        for (LoadingResult result : results) {
+            if (!result.isLoaded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the result of the first failed library, the libraries following it are skipped.
+     *
+     * @return the failed result, or null if none of the libraries has failed
+     */
+    public LoadingResult getFailedResult() {
+        for (LoadingResult result : results) {
+            if (result.getFailure() != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the results of the libraries in the order of the bundle.
+     *
+     * @return an unmodifiable list of the results
+     */
+    public List<LoadingResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Retrieves the wall-clock time of loading the bundle.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        final LoadingResult failedResult = getFailedResult();
+        return "Bundle of " + results.size() + " libraries " + (failedResult == null ? "loaded" : "failed at "
+                + failedResult.getLibraryIdentity()) + " in " + (elapsedNanos / 1000000) + " ms";
+    }
+}
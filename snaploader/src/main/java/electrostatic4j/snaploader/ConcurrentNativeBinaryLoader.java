@@ -33,11 +33,24 @@
 package electrostatic4j.snaploader;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import electrostatic4j.snaploader.library.LibraryLoadingBackend;
 import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
 
 /**
  * A thread-safe implementation for the NativeBinaryLoader.
+ * <p>
+ * The loader is driven by an atomic state machine (see {@link LoadingState}); a single thread claims
+ * the load by a CAS operation, and extracts and loads the library, while the threads arriving mid-extraction
+ * wait for the load to settle instead of extracting the library on their own. Once the library is loaded,
+ * the later calls to {@link ConcurrentNativeBinaryLoader#loadLibrary(LoadingCriterion)} return
+ * without any locking, allocation, or I/O; unloading the library, or switching the loading backend,
+ * resets the loader to {@link LoadingState#UNRESOLVED}, so that the next call reloads the library.
+ * <p>
+ * The waiting threads observe the failure of the load they have waited for as the thread owning the load
+ * did; the failure thrown to the owner is rethrown to them, otherwise the loading failure listener is dispatched.
  * 
  * @author pavl_g
  */
@@ -48,6 +61,22 @@ public class ConcurrentNativeBinaryLoader extends NativeBinaryLoader {
      */
     protected final ReentrantLock lock = new ReentrantLock();
 
+    /**
+     * The loading state of the library of this loader.
+     */
+    protected final AtomicReference<LoadingState> loadingState = new AtomicReference<>(LoadingState.UNRESOLVED);
+
+    /**
+     * Signals the waiting threads when the in-flight load has settled.
+     */
+    private final Condition loadSettled = lock.newCondition();
+
+    /**
+     * The failure thrown to the thread owning the last failed load, or null if the failure has
+     * been dispatched to the loading listener instead.
+     */
+    private volatile Throwable loadFailure;
+
     /**
      * Instantiates a thread-safe {@link NativeBinaryLoader} object.
      * 
@@ -56,16 +85,125 @@ public class ConcurrentNativeBinaryLoader extends NativeBinaryLoader {
     public ConcurrentNativeBinaryLoader(final List<NativeDynamicLibrary> registeredLibraries, final LibraryInfo libraryInfo) {
         super(registeredLibraries, libraryInfo);
     }
-    
+
+    @Override
+    public NativeBinaryLoader initPlatformLibrary() {
+        super.initPlatformLibrary();
+        loadingState.compareAndSet(LoadingState.FAILED, LoadingState.UNRESOLVED);
+        return this;
+    }
+
+    @Override
+    public NativeBinaryLoader loadLibrary(LoadingCriterion criterion) throws Exception {
+        boolean hasWaited = false;
+        for (;;) {
+            final LoadingState state = loadingState.get();
+            if (state == LoadingState.LOADED) {
+                // fast path: lock-free, allocation-free, and I/O-free
+                dispatchLoadingSuccess();
+                return this;
+            }
+            if (state.isInFlight()) {
+                awaitLoadSettlement();
+                hasWaited = true;
+                continue;
+            }
+            if (state == LoadingState.FAILED && hasWaited) {
+                // the in-flight load this thread has waited for has failed, don't trigger a retry storm
+                dispatchLoadFailure();
+                return this;
+            }
+            if (loadingState.compareAndSet(state, LoadingState.EXTRACTING)) {
+                break;
+            }
+        }
+        boolean isLoaded = false;
+        Throwable failure = null;
+        try {
+            super.loadLibrary(criterion);
+            isLoaded = NativeLibraryRegistry.isLoaded(getLibraryIdentity());
+        } catch (Exception | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            // published to the waiting threads by settling the load
+            loadFailure = failure;
+            settleLoad(isLoaded ? LoadingState.LOADED : LoadingState.FAILED);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean unloadLibrary() {
+        if (!super.unloadLibrary()) {
+            return false;
+        }
+        // the next load goes through the slow path to reload the library
+        loadingState.compareAndSet(LoadingState.LOADED, LoadingState.UNRESOLVED);
+        return true;
+    }
+
+    @Override
+    public void setLoadingBackend(LibraryLoadingBackend loadingBackend) {
+        super.setLoadingBackend(loadingBackend);
+        // the library hasn't been loaded by the new backend
+        loadingState.compareAndSet(LoadingState.LOADED, LoadingState.UNRESOLVED);
+        loadingState.compareAndSet(LoadingState.FAILED, LoadingState.UNRESOLVED);
+    }
+
+    /**
+     * Retrieves the current loading state of the library of this loader.
+     *
+     * @return the current loading state
+     */
+    public LoadingState getLoadingState() {
+        return loadingState.get();
+    }
+
     @Override
     protected void cleanExtractBinary(NativeDynamicLibrary library) throws Exception {
+        // re-extraction by the retry criterion
+        loadingState.compareAndSet(LoadingState.EXTRACTED, LoadingState.EXTRACTING);
+        super.cleanExtractBinary(library);
+    }
+
+    @Override
+    protected void loadBinary(NativeDynamicLibrary library) throws Exception {
+        loadingState.compareAndSet(LoadingState.EXTRACTING, LoadingState.EXTRACTED);
+        super.loadBinary(library);
+    }
+
+    private void awaitLoadSettlement() throws InterruptedException {
+        lock.lock();
+        try {
+            while (loadingState.get().isInFlight()) {
+                loadSettled.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoadFailure() throws Exception {
+        final Throwable failure = loadFailure;
+        if (failure instanceof Exception) {
+            throw (Exception) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (nativeBinaryLoadingListener != null) {
+            nativeBinaryLoadingListener.onLoadingFailure(this);
+        }
+    }
+
+    private void settleLoad(LoadingState state) {
+        loadingState.set(state);
+        lock.lock();
         try {
-            /* CRITICAL SECTION STARTS */
-            lock.lock();
-            super.cleanExtractBinary(library);
+            loadSettled.signalAll();
         } finally {
             lock.unlock();
-            /* CRITICAL SECTION ENDS */
         }
     }
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+
+/**
+ * A lazy handle of a native dynamic library, the library is extracted and loaded on its first use by
+ * {@link LazyNativeLibrary#ensureLoaded()} instead of a static initializer; thus the libraries that
+ * aren't used by a code path are kept off the application startup.
+ * <p>
+ * The library is extracted and loaded exactly once, the concurrent first uses wait for a single load; and once
+ * the library is loaded, {@link LazyNativeLibrary#ensureLoaded()} costs a single volatile read. The load could be
+ * started ahead of the first use on a background thread by {@link LazyNativeLibrary#prewarm()}.
+ * <p>
+ * Example:
+ * <pre>
+ * private static final LazyNativeLibrary JMEALLOC = new LazyNativeLibrary(libraryInfo, libraries);
+ *
+ * public static ByteBuffer allocate(int capacity) {
+ *     JMEALLOC.ensureLoaded();
+ *     return memoryAlloc(capacity);
+ * }
+ * </pre>
+ *
+ * @author pavl_g
+ */
+public final class LazyNativeLibrary {
+
+    private final NativeBinaryLoader loader;
+    private final LoadingCriterion criterion;
+    private volatile boolean loaded;
+    /* guarded by this, and published by the volatile write of the loaded flag */
+    private LoadingResult loadingResult;
+
+    /**
+     * Instantiates a lazy native library loaded by the {@link LoadingCriterion#VERIFIED_INCREMENTAL_LOADING}.
+     *
+     * @param libraryInfo the platform-independent library info
+     * @param registeredLibraries the platform-specific library registrations
+     */
+    public LazyNativeLibrary(LibraryInfo libraryInfo, NativeDynamicLibrary[] registeredLibraries) {
+        this(libraryInfo, registeredLibraries, LoadingCriterion.VERIFIED_INCREMENTAL_LOADING);
+    }
+
+    /**
+     * Instantiates a lazy native library, nothing is extracted, nor loaded until its first use.
+     *
+     * @param libraryInfo the platform-independent library info
+     * @param registeredLibraries the platform-specific library registrations
+     * @param criterion the loading criterion of the first use
+     */
+    public LazyNativeLibrary(LibraryInfo libraryInfo, NativeDynamicLibrary[] registeredLibraries,
+                             LoadingCriterion criterion) {
+        this.loader = new NativeBinaryLoader(Arrays.asList(registeredLibraries), libraryInfo);
+        this.criterion = criterion;
+    }
+
+    /**
+     * Ensures that the library is loaded, the first call extracts and loads the library, and the concurrent
+     * calls wait for it; the later calls return immediately.
+     * <p>
+     * A failed load is not retried, the later calls fail as well; unless the load has been interrupted.
+     *
+     * @throws UnsatisfiedLinkError if the library cannot be loaded
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        final LoadingResult result = load();
+        if (!result.isLoaded()) {
+            final UnsatisfiedLinkError error = new UnsatisfiedLinkError("Cannot load the dynamic library: "
+                    + loader.libraryInfo.getBaseName());
+            error.initCause(result.getFailure());
+            throw error;
+        }
+    }
+
+    /**
+     * Starts loading the library on a shared pool of daemon threads ahead of its first use,
+     * see {@link LazyNativeLibrary#prewarm(Executor)}.
+     *
+     * @return a new future of the loading result
+     */
+    public CompletableFuture<LoadingResult> prewarm() {
+        return prewarm(NativeBinaryLoader.AsyncLoading.EXECUTOR);
+    }
+
+    /**
+     * Starts loading the library on an executor ahead of its first use, the first use waits for
+     * the started load instead of loading the library again.
+     * <p>
+     * The returned future is never completed exceptionally by a failed load, the failure is carried by
+     * the {@link LoadingResult}; it's completed exceptionally only if the executor rejects the load.
+     *
+     * @param executor the executor of the extraction and the loading
+     * @return a new future of the loading result, or a completed future if the library is loaded
+     */
+    public CompletableFuture<LoadingResult> prewarm(Executor executor) {
+        final CompletableFuture<LoadingResult> result = new CompletableFuture<>();
+        if (loaded) {
+            result.complete(loadingResult);
+            return result;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    result.complete(load());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Extracts and loads the library once, on the calling thread (e.g., by the {@link NativeLoadingScheduler}).
+     *
+     * @return the loading result
+     */
+    synchronized LoadingResult load() {
+        if (loadingResult != null) {
+            return loadingResult;
+        }
+        Throwable failure = null;
+        try {
+            if (loader.getPlatformCandidates() == null) {
+                loader.initPlatformLibrary();
+            }
+            loader.loadLibrary(criterion);
+        } catch (Exception | LinkageError e) {
+            failure = e;
+        }
+        final LoadingResult result = LoadingResult.settle(loader, failure);
+        if (!result.isLoaded() && (failure instanceof InterruptedException || Thread.currentThread().isInterrupted())) {
+            // an interrupted load is retried by the next use
+            Thread.currentThread().interrupt();
+            return result;
+        }
+        loadingResult = result;
+        loaded = result.isLoaded();
+        return result;
+    }
+
+    /**
+     * Tests whether the library has been loaded by this handle.
+     *
+     * @return true if the library is loaded, false otherwise
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Retrieves the loading result of the first use.
+     *
+     * @return the loading result, or null if the library hasn't been used yet
+     */
+    public synchronized LoadingResult getLoadingResult() {
+        return loadingResult;
+    }
+
+    /**
+     * Retrieves the loader of the library, the loader could be configured (e.g., the listeners, or the loading
+     * backend) before the first use; it must not be used directly afterwards.
+     *
+     * @return the native binary loader of the library
+     */
+    public NativeBinaryLoader getLoader() {
+        return loader;
+    }
+
+    /**
+     * Retrieves the loading criterion of the first use.
+     *
+     * @return the loading criterion
+     */
+    public LoadingCriterion getCriterion() {
+        return criterion;
+    }
+
+    @Override
+    public String toString() {
+        final LoadingResult result = getLoadingResult();
+        return result == null ? "Unused " + loader.libraryInfo.getBaseName() : result.toString();
+    }
+}
@@ -47,5 +47,30 @@ public enum LoadingCriterion {
     /**
      * Extracts the native binary only if the current binary isn't present on the extraction directory.
      */
-    INCREMENTAL_LOADING;
+    INCREMENTAL_LOADING,
+
+    /**
+     * Extracts the native binary only if the current binary isn't present on the extraction directory, or
+     * if its recorded fingerprint (size + CRC-32) doesn't match the compressed binary (e.g., a stale binary
+     * extracted from an older jar version).
+     *
+     * @see electrostatic4j.snaploader.filesystem.FileFingerprint
+     */
+    VERIFIED_INCREMENTAL_LOADING,
+
+    /**
+     * Extracts the native binary into a content-addressed directory inside the shared cache
+     * ([{@link electrostatic4j.snaploader.filesystem.DirectoryPath#SHARED_CACHE}]/[fingerprint]-[digest]/[library]),
+     * only if an identical binary hasn't been extracted there before by any process; thus the user applications
+     * on the same host, and the different versions of the same application, reuse a single extracted copy
+     * of identical binaries.
+     * <p>
+     * The digest of a binary is computed once at its first extraction, and memoized for its jar filesystem
+     * (see {@link electrostatic4j.snaploader.filesystem.FileDigestIndex}); a reused cached copy is verified
+     * against the digest of its directory.
+     * <p>
+     * Binaries that cannot be fingerprinted (i.e., not located inside a jar filesystem) fall back to
+     * the {@link LoadingCriterion#VERIFIED_INCREMENTAL_LOADING} on the library extraction directory.
+     */
+    SHARED_CACHE_LOADING;
 }
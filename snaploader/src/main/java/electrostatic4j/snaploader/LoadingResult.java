@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader;
+
+/**
+ * Represents the outcome of loading the library of a {@link NativeBinaryLoader}; a library is
+ * either loaded, failed, or skipped (i.e., its load hasn't been attempted).
+ *
+ * @author pavl_g
+ */
+public final class LoadingResult {
+
+    private final NativeBinaryLoader loader;
+    private final String libraryIdentity;
+    private final String loadedLibrary;
+    private final Throwable failure;
+
+    private LoadingResult(NativeBinaryLoader loader, String loadedLibrary, Throwable failure) {
+        this.loader = loader;
+        this.libraryIdentity = loader.getLibraryIdentity();
+        this.loadedLibrary = loadedLibrary;
+        this.failure = failure;
+    }
+
+    /**
+     * Settles the result of an attempted load from the state of the {@link NativeLibraryRegistry}.
+     *
+     * @param loader the loader that has attempted the load
+     * @param failure the failure thrown by the load, or null if the load has returned normally
+     * @return a new loading result object
+     */
+    static LoadingResult settle(NativeBinaryLoader loader, Throwable failure) {
+        final String loadedLibrary = loader.getLibraryIdentity() == null ? null
+                : NativeLibraryRegistry.getLoadedLibrary(loader.getLibraryIdentity());
+        if (loadedLibrary == null && failure == null) {
+            failure = new UnsatisfiedLinkError("Cannot load the dynamic library: " + loader.getLibraryIdentity());
+        }
+        return new LoadingResult(loader, loadedLibrary, loadedLibrary == null ? failure : null);
+    }
+
+    /**
+     * Creates the result of a load that hasn't been attempted.
+     *
+     * @param loader the loader of the library
+     * @return a new loading result object
+     */
+    static LoadingResult skip(NativeBinaryLoader loader) {
+        return new LoadingResult(loader, null, null);
+    }
+
+    /**
+     * Tests whether the library has been loaded.
+     *
+     * @return true if the library has been loaded in this process, false otherwise
+     */
+    public boolean isLoaded() {
+        return loadedLibrary != null;
+    }
+
+    /**
+     * Tests whether the load of the library hasn't been attempted (e.g., a preceding load has failed).
+     *
+     * @return true if the load has been skipped, false otherwise
+     */
+    public boolean isSkipped() {
+        return loadedLibrary == null && failure == null;
+    }
+
+    /**
+     * Retrieves the loader of the library.
+     *
+     * @return the loader object
+     */
+    public NativeBinaryLoader getLoader() {
+        return loader;
+    }
+
+    /**
+     * Retrieves the process-wide identity of the library.
+     *
+     * @return the library identity, or null if the platform library hasn't been initialized
+     */
+    public String getLibraryIdentity() {
+        return libraryIdentity;
+    }
+
+    /**
+     * Retrieves the absolute path of the loaded binary.
+     *
+     * @return the absolute path of the loaded binary, or null if the library hasn't been loaded
+     */
+    public String getLoadedLibrary() {
+        return loadedLibrary;
+    }
+
+    /**
+     * Retrieves the cause of the failed load.
+     *
+     * @return the failure, or null if the library has been loaded, or its load has been skipped
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        // the platform library of a skipped, or an unsupported library might not be initialized
+        final String library = libraryIdentity == null ? loader.libraryInfo.getBaseName() : libraryIdentity;
+        return isLoaded() ? "Loaded " + loadedLibrary : isSkipped() ? "Skipped " + library
+                : "Failed " + library + ": " + failure;
+    }
+}
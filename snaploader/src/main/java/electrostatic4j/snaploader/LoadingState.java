@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader;
+
+/**
+ * Represents the states of the loading lifecycle of a native dynamic library by a
+ * {@link ConcurrentNativeBinaryLoader}.
+ * <p>
+ * The states are transited in the following order:
+ * <ul>
+ * <li> {@link LoadingState#UNRESOLVED} to {@link LoadingState#EXTRACTING} by the single thread owning the load.
+ * <li> {@link LoadingState#EXTRACTING} to {@link LoadingState#EXTRACTED} once the binary is ready to be loaded.
+ * <li> {@link LoadingState#EXTRACTED} to either {@link LoadingState#LOADED} or {@link LoadingState#FAILED}.
+ * <li> {@link LoadingState#FAILED} to {@link LoadingState#EXTRACTING} by a later retrying thread.
+ * <li> {@link LoadingState#LOADED} to {@link LoadingState#UNRESOLVED} once the library is unloaded
+ *      (see {@link NativeBinaryLoader#unloadLibrary()}), or the loading backend is switched
+ *      (see {@link NativeBinaryLoader#setLoadingBackend(electrostatic4j.snaploader.library.LibraryLoadingBackend)}).
+ * <li> {@link LoadingState#FAILED} to {@link LoadingState#UNRESOLVED} once the platform library is re-initialized,
+ *      or the loading backend is switched.
+ * </ul>
+ *
+ * @author pavl_g
+ */
+public enum LoadingState {
+
+    /**
+     * The library hasn't been requested for loading yet.
+     */
+    UNRESOLVED,
+
+    /**
+     * The library is being located and extracted by the thread owning the load.
+     */
+    EXTRACTING,
+
+    /**
+     * The library binary is extracted, and it's being loaded by the thread owning the load.
+     */
+    EXTRACTED,
+
+    /**
+     * The library has been loaded; it stays loaded until it's unloaded, or the loading backend is switched.
+     */
+    LOADED,
+
+    /**
+     * The last load of the library has failed, the load could be retried.
+     */
+    FAILED;
+
+    /**
+     * Tests whether this state designates an in-flight load owned by another thread.
+     *
+     * @return true if the load is in-flight, false otherwise
+     */
+    public boolean isInFlight() {
+        return this == EXTRACTING || this == EXTRACTED;
+    }
+}
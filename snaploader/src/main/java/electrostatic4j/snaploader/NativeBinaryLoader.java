@@ -33,20 +33,61 @@
 package electrostatic4j.snaploader;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
 import java.util.logging.Level;
 import java.lang.UnsatisfiedLinkError;
+import electrostatic4j.snaploader.filesystem.DirectoryPath;
+import electrostatic4j.snaploader.filesystem.FileDigestIndex;
 import electrostatic4j.snaploader.filesystem.FileExtractionListener;
+import electrostatic4j.snaploader.filesystem.FileExtractionLock;
 import electrostatic4j.snaploader.filesystem.FileExtractor;
+import electrostatic4j.snaploader.filesystem.FileFingerprint;
 import electrostatic4j.snaploader.filesystem.FileLocalizingListener;
 import electrostatic4j.snaploader.filesystem.FileLocator;
+import electrostatic4j.snaploader.filesystem.JarFileCache;
+import electrostatic4j.snaploader.library.IsolatedLoadingBackend;
+import electrostatic4j.snaploader.library.LibraryClassLoader;
+import electrostatic4j.snaploader.library.LibraryDependencyResolver;
 import electrostatic4j.snaploader.library.LibraryExtractor;
+import electrostatic4j.snaploader.library.LibraryHandle;
+import electrostatic4j.snaploader.library.LibraryLoadingBackend;
 import electrostatic4j.snaploader.library.LibraryLocator;
+import electrostatic4j.snaploader.library.SystemLoadingBackend;
 import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+import electrostatic4j.snaploader.platform.ResolvedLibrary;
+import electrostatic4j.snaploader.platform.binary.BinarySource;
+import electrostatic4j.snaploader.platform.binary.ElfFile;
+import electrostatic4j.snaploader.platform.binary.ElfValidator;
+import electrostatic4j.snaploader.platform.util.HostLibc;
+import electrostatic4j.snaploader.platform.util.HostPlatform;
 import electrostatic4j.snaploader.platform.util.NativeVariant;
+import electrostatic4j.snaploader.platform.util.PlatformIndex;
+import electrostatic4j.snaploader.platform.util.SystemLibraries;
+import electrostatic4j.snaploader.platform.util.VariantDiscovery;
+import electrostatic4j.snaploader.throwable.IncompatibleBinaryError;
 import electrostatic4j.snaploader.throwable.UnSupportedSystemError;
+import electrostatic4j.snaploader.util.LoaderExecutors;
 import electrostatic4j.snaploader.util.SnapLoaderLogger;
 
 /**
@@ -61,6 +102,21 @@ public class NativeBinaryLoader {
 
     protected List<NativeDynamicLibrary> registeredLibraries;
 
+    /**
+     * The compiled platform index of the registered libraries.
+     */
+    protected PlatformIndex platformIndex;
+
+    /**
+     * The registered libraries compatible with the host ordered from the fastest to the slowest variant.
+     */
+    protected List<NativeDynamicLibrary> platformCandidates;
+
+    /**
+     * The position of the current platform library among the platform candidates.
+     */
+    protected int platformCandidate;
+
     protected NativeBinaryLoadingListener nativeBinaryLoadingListener;
 
     protected SystemDetectionListener systemDetectionListener;
@@ -75,15 +131,66 @@ public class NativeBinaryLoader {
     protected FileExtractor libraryExtractor;
 
     /**
-     * The native dynamic library object representing the library to extract and load.
+     * The native dynamic library object representing the library to extract and load, resolved
+     * once by {@link NativeBinaryLoader#initPlatformLibrary()}.
+     */
+    protected ResolvedLibrary nativeDynamicLibrary;
+
+    /**
+     * The process-wide identity of the library to extract and load.
      */
-    protected NativeDynamicLibrary nativeDynamicLibrary;
+    protected String libraryIdentity;
 
     /**
      * Flag for retry loading with clean extract if UnSatisfiedLinkError is thrown.
      */
     protected boolean retryWithCleanExtraction;
 
+    /**
+     * Flag for checking the C library compatibility of the library variants before extracting them.
+     */
+    protected boolean libcCompatibilityCheck = true;
+
+    /**
+     * Flag for validating the binary headers of the library variants before extracting them.
+     */
+    protected boolean binaryValidation = true;
+
+    /**
+     * Flag for extracting and loading the bundled dependencies (DT_NEEDED) of the library before loading it.
+     */
+    protected boolean dependencyResolution;
+
+    /**
+     * The dependencies of the last loaded library that are neither bundled nor provided by the system.
+     */
+    protected Set<String> unresolvedDependencies = Collections.emptySet();
+
+    /**
+     * Flag for loading a compatible library installed on the host system before extracting the library.
+     */
+    protected boolean systemLibraryPreference;
+
+    /**
+     * The required version of the installed system library, null to accept any version.
+     */
+    protected String systemLibraryVersion;
+
+    /**
+     * Flag for loading the libraries of exploded classpath directories in place, without extracting them.
+     */
+    protected boolean classPathInPlaceLoading;
+
+    /**
+     * The maximum time in milliseconds to wait for the cross-process extraction lock.
+     */
+    protected long extractionLockTimeout = FileExtractionLock.DEFAULT_TIMEOUT_MILLIS;
+
+    /**
+     * The backend loading the extracted binaries into the process.
+     */
+    protected LibraryLoadingBackend loadingBackend = SystemLoadingBackend.INSTANCE;
+
     /**
      * Instantiates a native dynamic library loader to extract and load a system-specific native dynamic library.
      */
@@ -101,6 +208,63 @@ public class NativeBinaryLoader {
 
     public NativeBinaryLoader registerNativeLibraries(NativeDynamicLibrary[] nativeDynamicLibraries) {
         this.registeredLibraries = Arrays.asList(nativeDynamicLibraries);
+        this.platformIndex = null;
+        return this;
+    }
+
+    /**
+     * Discovers the platform variants of the library inside the jar filesystem of the library info, or inside
+     * the classpath jars if the library info designates the classpath; the discovered variants are registered after
+     * the already registered libraries, so that the manual registrations take precedence.
+     *
+     * @return this instance for chained invocations
+     * @throws IOException if a jar filesystem cannot be read
+     * @see VariantDiscovery
+     */
+    public NativeBinaryLoader discoverNativeLibraries() throws IOException {
+        return discoverNativeLibraries(VariantDiscovery.DEFAULT_ROOT);
+    }
+
+    /**
+     * Discovers the platform variants of the library inside a root directory (e.g., "lib/**") of the jar
+     * filesystem of the library info, or of the classpath jars if the library info designates the classpath;
+     * the discovered variants are registered after the already registered libraries, so that the manual
+     * registrations take precedence.
+     * <p>
+     * Notice: the classpath jars are located by the entry of their root directory.
+     *
+     * @param root the root directory of the native libraries inside the jar filesystems
+     * @return this instance for chained invocations
+     * @throws IOException if a jar filesystem cannot be read
+     * @see VariantDiscovery
+     */
+    public NativeBinaryLoader discoverNativeLibraries(String root) throws IOException {
+        final List<NativeDynamicLibrary> libraries = new ArrayList<>();
+        if (registeredLibraries != null) {
+            libraries.addAll(registeredLibraries);
+        }
+        final int registered = libraries.size();
+        if (libraryInfo.getJarPath().getPath() != null) {
+            try (JarFileCache.Lease lease = JarFileCache.acquire(libraryInfo.getJarPath().getPath())) {
+                final JarFile compression = lease.getJarFile();
+                libraries.addAll(VariantDiscovery.discover(compression, root, libraryInfo.getBaseName()));
+            }
+        } else {
+            final Enumeration<URL> resources = NativeBinaryLoader.class.getClassLoader().getResources(root);
+            while (resources.hasMoreElements()) {
+                final URLConnection connection = JarFileCache.openConnection(resources.nextElement());
+                if (!(connection instanceof JarURLConnection)) {
+                    continue;
+                }
+                // the cached jar files are shared with the class loaders, they must not be closed
+                final JarFile compression = ((JarURLConnection) connection).getJarFile();
+                libraries.addAll(VariantDiscovery.discover(compression, root, libraryInfo.getBaseName()));
+            }
+        }
+        SnapLoaderLogger.log(Level.INFO, getClass().getName(), "discoverNativeLibraries",
+                "Discovered " + (libraries.size() - registered) + " variants of " + libraryInfo.getBaseName());
+        registeredLibraries = libraries;
+        platformIndex = null;
         return this;
     }
 
@@ -111,26 +275,17 @@ public class NativeBinaryLoader {
      * @throws UnSupportedSystemError if the OS is not supported by jSnapLoader
      */
     public NativeBinaryLoader initPlatformLibrary() throws UnSupportedSystemError {
-        final boolean[] isSystemFound = new boolean[] {false};
         // search for the compatible library using the predefined predicate
         // a predicate is a conditional statement composed of multiple propositions
         // representing the complete system variant (OS + ARCH + VM).
-        registeredLibraries.forEach(nativeDynamicLibrary -> {
-            if (isSystemFound[0]) {
-                return;
-            }
-            // re-evaluate the library info part
-            if (libraryInfo != null) {
-                nativeDynamicLibrary.initWithLibraryInfo(libraryInfo);
-            }
-            if (nativeDynamicLibrary.getPlatformPredicate().evaluatePredicate()) {
-                this.nativeDynamicLibrary = nativeDynamicLibrary;
-                isSystemFound[0] = true;
-            }
-        });
+        if (platformIndex == null || !platformIndex.isIndexing(registeredLibraries)) {
+            platformIndex = new PlatformIndex(registeredLibraries);
+        }
+        platformCandidates = platformIndex.resolveCandidates();
 
         // execute a system found listeners
-        if (isSystemFound[0]) {
+        if (!platformCandidates.isEmpty()) {
+            selectPlatformCandidate(0);
             if (systemDetectionListener != null) {
                 systemDetectionListener.onSystemFound(this, nativeDynamicLibrary);
             }
@@ -149,19 +304,674 @@ public class NativeBinaryLoader {
      * Extracts and load the system and the architecture-specific library from the output jar to the [user.dir]
      * according to a loading criterion (incremental-load or clean-extract).
      * 
-     * @param criterion the initial loading criterion, either {@link LoadingCriterion#INCREMENTAL_LOADING} or {@link LoadingCriterion#CLEAN_EXTRACTION}
+     * @param criterion the initial loading criterion, either {@link LoadingCriterion#INCREMENTAL_LOADING},
+     *                  {@link LoadingCriterion#VERIFIED_INCREMENTAL_LOADING} or {@link LoadingCriterion#CLEAN_EXTRACTION}
      * @return this instance for chained invocations
      * @throws IOException if the library to extract is not present in the jar filesystem
      */
     public NativeBinaryLoader loadLibrary(LoadingCriterion criterion) throws Exception {
+        // the installed library skips locating and extracting the library variants
+        if (systemLibraryPreference && loadSystemLibrary()) {
+            return this;
+        }
+        // fall back down the tier list of the CPU-feature-specific variants
+        for (;;) {
+            final String incompatibility = getIncompatibility(nativeDynamicLibrary, criterion);
+            if (incompatibility == null) {
+                if (loadPlatformCandidate(criterion)) {
+                    return this;
+                }
+            } else {
+                SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "loadLibrary",
+                        "Skipping incompatible library variant " + nativeDynamicLibrary.getCompressedLibrary()
+                                + ": " + incompatibility);
+            }
+            if (platformCandidate + 1 >= platformCandidates.size()) {
+                if (incompatibility != null) {
+                    if (nativeBinaryLoadingListener != null) {
+                        nativeBinaryLoadingListener.onLoadingFailure(this);
+                    }
+                    throw new IncompatibleBinaryError(nativeDynamicLibrary.getCompressedLibrary(), incompatibility);
+                }
+                return this;
+            }
+            selectPlatformCandidate(platformCandidate + 1);
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadLibrary",
+                    "Falling back to the next library variant: " + nativeDynamicLibrary.getCompressedLibrary());
+        }
+    }
+
+    /**
+     * Extracts and loads the library asynchronously on a shared pool of daemon threads, see
+     * {@link NativeBinaryLoader#loadLibraryAsync(LoadingCriterion, Executor, Executor)}.
+     *
+     * @param criterion the initial loading criterion
+     * @return a new future of the loading result
+     */
+    public CompletableFuture<LoadingResult> loadLibraryAsync(LoadingCriterion criterion) {
+        return loadLibraryAsync(criterion, AsyncLoading.EXECUTOR, null);
+    }
+
+    /**
+     * Extracts and loads the library asynchronously on an I/O executor, see
+     * {@link NativeBinaryLoader#loadLibraryAsync(LoadingCriterion, Executor, Executor)}.
+     *
+     * @param criterion the initial loading criterion
+     * @param ioExecutor the executor of the extraction and the loading
+     * @return a new future of the loading result
+     */
+    public CompletableFuture<LoadingResult> loadLibraryAsync(LoadingCriterion criterion, Executor ioExecutor) {
+        return loadLibraryAsync(criterion, ioExecutor, null);
+    }
+
+    /**
+     * Extracts and loads the library asynchronously as by {@link NativeBinaryLoader#loadLibrary(LoadingCriterion)};
+     * the load runs on the I/O executor, and the returned future is completed on the callback executor, thus
+     * the dependent stages that are not asynchronous run on the callback executor. The loader listeners
+     * are still dispatched on the loading thread.
+     * <p>
+     * The returned future is never completed exceptionally by a failed load, the failure is carried by
+     * the {@link LoadingResult}, it's completed exceptionally only if the I/O executor rejects the load.
+     * Cancelling the returned future prevents a pending load from starting, and interrupts a running load
+     * (i.e., waiting for an extraction lock, or extracting); a binary that has been loaded already
+     * cannot be unloaded.
+     * <p>
+     * Notice: the loader must not be used by other threads until the future is completed,
+     * unless it's a {@link ConcurrentNativeBinaryLoader}.
+     *
+     * @param criterion the initial loading criterion
+     * @param ioExecutor the executor of the extraction and the loading
+     * @param callbackExecutor the executor completing the returned future, null to complete it on the loading thread
+     * @return a new future of the loading result
+     */
+    public CompletableFuture<LoadingResult> loadLibraryAsync(LoadingCriterion criterion, Executor ioExecutor,
+                                                             Executor callbackExecutor) {
+        final CompletableFuture<LoadingResult> result = new CompletableFuture<>();
+        final FutureTask<Void> load = new FutureTask<>(() -> {
+            Throwable failure = null;
+            try {
+                if (platformCandidates == null) {
+                    initPlatformLibrary();
+                }
+                loadLibrary(criterion);
+            } catch (Exception | LinkageError e) {
+                failure = e;
+            }
+            final LoadingResult loadingResult = LoadingResult.settle(this, failure);
+            if (callbackExecutor == null) {
+                result.complete(loadingResult);
+                return null;
+            }
+            try {
+                callbackExecutor.execute(() -> result.complete(loadingResult));
+            } catch (RejectedExecutionException e) {
+                result.complete(loadingResult);
+            }
+            return null;
+        });
+        // propagate the cancellation of the returned future to the load
+        result.whenComplete((loadingResult, throwable) -> {
+            if (result.isCancelled()) {
+                load.cancel(true);
+            }
+        });
+        try {
+            ioExecutor.execute(load);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Extracts the system and the architecture-specific library according to a loading criterion without
+     * loading it, so that the extractions of several libraries could overlap (see {@link NativeBundleLoader});
+     * the incompatible library variants are skipped as by {@link NativeBinaryLoader#loadLibrary(LoadingCriterion)}.
+     * <p>
+     * A later {@link NativeBinaryLoader#loadLibrary(LoadingCriterion)} loads the extracted library without
+     * extracting it again, unless it's invoked with {@link LoadingCriterion#CLEAN_EXTRACTION}; the
+     * {@link LoadingCriterion#VERIFIED_INCREMENTAL_LOADING} should be used instead.
+     *
+     * @param criterion the loading criterion, either {@link LoadingCriterion#INCREMENTAL_LOADING},
+     *                  {@link LoadingCriterion#VERIFIED_INCREMENTAL_LOADING}, {@link LoadingCriterion#SHARED_CACHE_LOADING}
+     *                  or {@link LoadingCriterion#CLEAN_EXTRACTION}
+     * @return this instance for chained invocations
+     * @throws IncompatibleBinaryError if none of the library variants is compatible with the host
+     * @throws Exception if the library cannot be extracted
+     */
+    public NativeBinaryLoader extractLibrary(LoadingCriterion criterion) throws Exception {
+        // the Android runtime extracts the libraries by itself
+        if (NativeVariant.Os.isAndroid()) {
+            return this;
+        }
+        String incompatibility;
+        while ((incompatibility = getIncompatibility(nativeDynamicLibrary, criterion)) != null) {
+            SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "extractLibrary",
+                    "Skipping incompatible library variant " + nativeDynamicLibrary.getCompressedLibrary()
+                            + ": " + incompatibility);
+            if (platformCandidate + 1 >= platformCandidates.size()) {
+                throw new IncompatibleBinaryError(nativeDynamicLibrary.getCompressedLibrary(), incompatibility);
+            }
+            selectPlatformCandidate(platformCandidate + 1);
+        }
+        if (NativeLibraryRegistry.isLoaded(libraryIdentity)) {
+            return this;
+        }
+        if (classPathInPlaceLoading && nativeDynamicLibrary.getJarPath() == null && FileLocator.getLocalFile(
+                NativeBinaryLoader.class.getClassLoader().getResource(nativeDynamicLibrary.getCompressedLibrary())) != null) {
+            return this;
+        }
+        ResolvedLibrary library = nativeDynamicLibrary;
+        if (criterion == LoadingCriterion.SHARED_CACHE_LOADING) {
+            final ResolvedLibrary cachedLibrary = resolveSharedCacheLibrary(library);
+            if (cachedLibrary != null) {
+                library = cachedLibrary;
+            }
+        } else if (criterion == LoadingCriterion.INCREMENTAL_LOADING && library.isExtracted()) {
+            return this;
+        }
+        extractUnloadedBinary(library, criterion == LoadingCriterion.CLEAN_EXTRACTION);
+        return this;
+    }
+
+    /**
+     * Tests whether a library variant is compatible with the host before extracting it; the ELF
+     * header and the program headers are validated against the host (machine, ELF class, byte order,
+     * and shared object type), then the symbol version requirements are tested against the host
+     * C library (GLIBC version, or musl).
+     * <p>
+     * The binary is read from the extracted library if the criterion isn't a clean extraction and the recorded
+     * fingerprint of the extracted library matches the compressed binary of this variant, otherwise from
+     * the compression without extracting it.
+     *
+     * @param library the library variant to test
+     * @param criterion the loading criterion
+     * @return null if the variant is compatible, or cannot be tested, otherwise the precise reason
+     *         of the incompatibility
+     */
+    protected String getIncompatibility(ResolvedLibrary library, LoadingCriterion criterion) {
+        final boolean isLibcChecked = libcCompatibilityCheck && HostLibc.getTraits() != 0;
+        if ((!binaryValidation && !isLibcChecked) || !ElfValidator.isElfPlatform(HostPlatform.getTraits())) {
+            return null;
+        }
+        try (BinarySource source = openBinarySource(library, criterion != LoadingCriterion.CLEAN_EXTRACTION)) {
+            if (source == null) {
+                // the binary can't be located, leave it to the file locator
+                return null;
+            }
+            return getIncompatibility(source);
+        } catch (IOException | RuntimeException e) {
+            SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "getIncompatibility",
+                    "Cannot read the binary of " + library.getCompressedLibrary(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Tests a binary against the host platform, according to the binary validation and the
+     * C library compatibility check flags.
+     *
+     * @param source the source of the binary
+     * @return null if the binary is compatible, or cannot be tested, otherwise the precise reason
+     *         of the incompatibility
+     * @throws IOException if the binary is malformed, or an I/O error has occurred
+     */
+    protected String getIncompatibility(BinarySource source) throws IOException {
+        if (!ElfValidator.isElfPlatform(HostPlatform.getTraits())) {
+            return null;
+        }
+        if (binaryValidation) {
+            // only the headers (the first few kilobytes)
+            final String incompatibility = ElfValidator.getIncompatibility(ElfFile.read(source, false),
+                    HostPlatform.getTraits());
+            if (incompatibility != null) {
+                return incompatibility;
+            }
+        }
+        if (libcCompatibilityCheck && HostLibc.getTraits() != 0) {
+            final ElfFile elfFile = ElfFile.read(source, true);
+            return elfFile == null ? null : HostLibc.getIncompatibility(elfFile);
+        }
+        return null;
+    }
+
+    /**
+     * Loads a compatible library installed on the host system instead of extracting the library,
+     * the installed libraries are tried in the order of {@link NativeBinaryLoader#locateSystemLibraries()}.
+     *
+     * @return true if the library is loaded by this process, false if no installed library could be loaded
+     * @throws Exception if an I/O error has occurred, or the current thread is interrupted
+     */
+    protected boolean loadSystemLibrary() throws Exception {
+        if (NativeVariant.Os.isAndroid()) {
+            return false;
+        }
+        final String libraryIdentity = getLibraryIdentity();
+        if (NativeLibraryRegistry.isLoaded(libraryIdentity)) {
+            dispatchLoadingSuccess();
+            return true;
+        }
+        final List<Path> installedLibraries = locateSystemLibraries();
+        if (installedLibraries.isEmpty()) {
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadSystemLibrary",
+                    "No compatible installed library, falling back to the extraction!");
+            return false;
+        }
+        final CompletableFuture<String> load = new CompletableFuture<>();
+        if (NativeLibraryRegistry.claim(libraryIdentity, load) != null) {
+            // leave it to the regular loading to join the in-flight load
+            return false;
+        }
+        try {
+            for (Path installedLibrary : installedLibraries) {
+                final LibraryHandle handle;
+                try {
+                    handle = loadingBackend.load(installedLibrary.toString());
+                } catch (UnsatisfiedLinkError error) {
+                    SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "loadSystemLibrary",
+                            "Cannot load the installed library: " + installedLibrary, error);
+                    continue;
+                }
+                SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadSystemLibrary",
+                        "Successfully loaded installed library: " + installedLibrary);
+                NativeLibraryRegistry.complete(libraryIdentity, handle);
+                dispatchLoadingSuccess();
+                return true;
+            }
+            return false;
+        } finally {
+            // the joining loaders claim the load again to extract the library
+            NativeLibraryRegistry.withdraw(libraryIdentity, load);
+        }
+    }
+
+    /**
+     * Locates the compatible libraries installed on the host system by the platform library name
+     * of the library basename (e.g., "libjmealloc.so"), in "java.library.path" first, then in the dynamic
+     * linker cache; the installed libraries are tested against the host platform by their headers.
+     *
+     * @return the compatible installed libraries in their preference order
+     * @throws IOException if a search directory cannot be read
+     * @see SystemLibraries#findInstalled(String, String)
+     */
+    protected List<Path> locateSystemLibraries() throws IOException {
+        final List<Path> installedLibraries = new ArrayList<>();
+        for (Path installedLibrary : SystemLibraries.findInstalled(System.mapLibraryName(libraryInfo.getBaseName()),
+                systemLibraryVersion)) {
+            String incompatibility;
+            try (BinarySource source = BinarySource.of(installedLibrary)) {
+                incompatibility = getIncompatibility(source);
+            } catch (IOException | RuntimeException e) {
+                incompatibility = e.toString();
+            }
+            if (incompatibility == null) {
+                installedLibraries.add(installedLibrary);
+            } else {
+                SnapLoaderLogger.log(Level.INFO, getClass().getName(), "locateSystemLibraries",
+                        "Skipping incompatible installed library " + installedLibrary + ": " + incompatibility);
+            }
+        }
+        return installedLibraries;
+    }
+
+    /**
+     * Enables loading a compatible library installed on the host system (i.e., on "java.library.path",
+     * or in the dynamic linker cache) before locating and extracting the library, default value is false;
+     * the library is extracted only if no compatible library is installed, or if none of the installed
+     * libraries could be loaded.
+     *
+     * @param systemLibraryPreference true to enable the flag, false otherwise
+     * @see NativeBinaryLoader#setSystemLibraryVersion(String)
+     */
+    public void setSystemLibraryPreference(boolean systemLibraryPreference) {
+        this.systemLibraryPreference = systemLibraryPreference;
+    }
+
+    /**
+     * Tests the system library preference flag, default value is false.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isSystemLibraryPreference() {
+        return systemLibraryPreference;
+    }
+
+    /**
+     * Adjusts the required version of the installed system library; the version matches the versioned
+     * library names of that version or its sub-versions (e.g., the version "1" matches "libjmealloc.so.1",
+     * and "libjmealloc.so.1.2"), default value is null to accept any version.
+     *
+     * @param systemLibraryVersion the required version, or null to accept any version
+     */
+    public void setSystemLibraryVersion(String systemLibraryVersion) {
+        this.systemLibraryVersion = systemLibraryVersion;
+    }
+
+    /**
+     * Retrieves the required version of the installed system library.
+     *
+     * @return the required version, or null if any version is accepted
+     */
+    public String getSystemLibraryVersion() {
+        return systemLibraryVersion;
+    }
+
+    /**
+     * Opens a source of the binary of a library without extracting it.
+     *
+     * @param library the platform-specific library
+     * @param preferExtracted true to read the extracted library if it's present and its recorded fingerprint
+     *                        matches the compressed binary (i.e., it's not another variant, or a stale binary
+     *                        extracted to the same path), false to always read the binary from the compression
+     * @return a new binary source, or null if the binary cannot be located
+     * @throws IOException if an I/O error has occurred
+     */
+    protected BinarySource openBinarySource(ResolvedLibrary library, boolean preferExtracted) throws IOException {
+        if (preferExtracted && isExtractionValid(library)) {
+            return BinarySource.of(library.getExtractedLibraryPath());
+        }
+        if (library.getJarPath() != null) {
+            final JarFileCache.Lease lease = JarFileCache.acquire(library.getJarPath());
+            final ZipEntry zipEntry = lease.getJarFile().getEntry(library.getCompressedLibrary());
+            if (zipEntry == null) {
+                lease.close();
+                return null;
+            }
+            return BinarySource.of(lease.getJarFile(), zipEntry, lease);
+        }
+        final URL resource = NativeBinaryLoader.class.getClassLoader().getResource(library.getCompressedLibrary());
+        if (resource == null) {
+            return null;
+        }
+        final URLConnection connection = JarFileCache.openConnection(resource);
+        if (connection instanceof JarURLConnection) {
+            final JarURLConnection jarConnection = (JarURLConnection) connection;
+            // the cached jar files are shared with the class loaders, they must not be closed
+            return BinarySource.of(jarConnection.getJarFile(), jarConnection.getJarEntry());
+        }
+        final Path localFile = FileLocator.getLocalFile(resource);
+        return localFile == null ? null : BinarySource.of(localFile);
+    }
+
+    /**
+     * Enables checking the C library compatibility of the library variants before extracting them, default
+     * value is true; the incompatible variants (e.g., requiring a newer GLIBC, or a GLIBC binary on a musl host)
+     * are skipped before any bytes are extracted.
+     *
+     * @param libcCompatibilityCheck true to enable the flag, false otherwise
+     */
+    public void setLibcCompatibilityCheck(boolean libcCompatibilityCheck) {
+        this.libcCompatibilityCheck = libcCompatibilityCheck;
+    }
+
+    /**
+     * Tests the C library compatibility check flag, default value is true.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isLibcCompatibilityCheck() {
+        return libcCompatibilityCheck;
+    }
+
+    /**
+     * Enables validating the binary headers of the library variants before extracting them, default value is true;
+     * the mismatched variants (e.g., a wrong machine, ELF class, or byte order) are skipped, and if no variant is
+     * compatible, an {@link IncompatibleBinaryError} is thrown without extracting the binary.
+     *
+     * @param binaryValidation true to enable the flag, false otherwise
+     */
+    public void setBinaryValidation(boolean binaryValidation) {
+        this.binaryValidation = binaryValidation;
+    }
+
+    /**
+     * Tests the binary validation flag, default value is true.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isBinaryValidation() {
+        return binaryValidation;
+    }
+
+    /**
+     * Enables the automatic dependency closure of the library, default value is false; the dependencies (DT_NEEDED)
+     * bundled in the same platform directory of the jar filesystem are located by their file names or SONAMEs,
+     * extracted in parallel beside the library, and loaded in their dependency order before loading the library;
+     * the dependencies that are neither bundled nor provided by the host system are reported before the library is loaded,
+     * see {@link NativeBinaryLoader#getUnresolvedDependencies()}.
+     * <p>
+     * Notice: the bundled dependencies should declare their SONAMEs, as the dynamic linker matches the
+     * already loaded dependencies of a library by their SONAMEs.
+     *
+     * @param dependencyResolution true to enable the flag, false otherwise
+     */
+    public void setDependencyResolution(boolean dependencyResolution) {
+        this.dependencyResolution = dependencyResolution;
+    }
+
+    /**
+     * Tests the dependency resolution flag, default value is false.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isDependencyResolution() {
+        return dependencyResolution;
+    }
+
+    /**
+     * Retrieves the dependencies of the last loaded library that are neither bundled nor provided by the host system;
+     * the library is expected to fail loading if this set isn't empty.
+     *
+     * @return an unmodifiable set of the unresolved dependency names, empty if all the dependencies are resolved,
+     *         or if the dependency resolution is disabled
+     */
+    public Set<String> getUnresolvedDependencies() {
+        return unresolvedDependencies;
+    }
+
+    /**
+     * Extracts and loads the current platform candidate, or joins its in-flight load.
+     *
+     * @param criterion the initial loading criterion
+     * @return true if the library is loaded by this process, false otherwise
+     * @throws IOException if the library to extract is not present in the jar filesystem
+     */
+    protected boolean loadPlatformCandidate(LoadingCriterion criterion) throws Exception {
+        final String libraryIdentity = getLibraryIdentity();
+        // fast path: the library has been loaded by this process
+        if (NativeLibraryRegistry.isLoaded(libraryIdentity)) {
+            dispatchLoadingSuccess();
+            return true;
+        }
+        final CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> inFlightLoad;
+        while ((inFlightLoad = NativeLibraryRegistry.claim(libraryIdentity, load)) != null) {
+            // join the in-flight load of another loader
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadLibrary",
+                    "Joining the in-flight load of " + libraryIdentity);
+            if (NativeLibraryRegistry.join(inFlightLoad)) {
+                dispatchLoadingSuccess();
+                return true;
+            }
+            if (!NativeLibraryRegistry.isWithdrawn(inFlightLoad)) {
+                if (nativeBinaryLoadingListener != null) {
+                    nativeBinaryLoadingListener.onLoadingFailure(this);
+                }
+                return false;
+            }
+        }
+        try {
+            loadPlatformLibrary(criterion);
+        } finally {
+            NativeLibraryRegistry.abandon(libraryIdentity, load,
+                    new UnsatisfiedLinkError("Cannot load the dynamic library: " + libraryIdentity));
+        }
+        return NativeLibraryRegistry.isLoaded(libraryIdentity);
+    }
+
+    /**
+     * Selects a platform candidate as the library of this loader.
+     *
+     * @param position the position of the candidate among the platform candidates
+     */
+    protected void selectPlatformCandidate(int position) {
+        platformCandidate = position;
+        nativeDynamicLibrary = resolvePlatformCandidate(position);
+        libraryIdentity = getScopedIdentity(nativeDynamicLibrary);
+    }
+
+    /**
+     * Resolves a platform candidate against the library info of this loader; the candidates sharing
+     * their extraction path with another candidate (i.e., variants of the same library file) are extracted
+     * into their own variant directories, see {@link ResolvedLibrary#withVariantDirectory()}.
+     *
+     * @param position the position of the candidate among the platform candidates
+     * @return the resolved candidate
+     */
+    protected ResolvedLibrary resolvePlatformCandidate(int position) {
+        // resolve the library info part without mutating the (possibly shared) registered library
+        final ResolvedLibrary library = ResolvedLibrary.resolve(platformCandidates.get(position), libraryInfo);
+        for (int i = 0; i < platformCandidates.size(); i++) {
+            if (i == position) {
+                continue;
+            }
+            final ResolvedLibrary variant = ResolvedLibrary.resolve(platformCandidates.get(i), libraryInfo);
+            if (variant.getExtractedLibrary().equals(library.getExtractedLibrary())
+                    && !variant.getCompressedLibrary().equals(library.getCompressedLibrary())) {
+                return library.withVariantDirectory();
+            }
+        }
+        return library;
+    }
+
+    /**
+     * Scopes the identity of a library to the scope of the loading backend, see {@link LibraryLoadingBackend#getScope()}.
+     *
+     * @param library the platform-specific library
+     * @return the library identity, suffixed by the scope of the loading backend if it's scoped
+     */
+    protected String getScopedIdentity(ResolvedLibrary library) {
+        final String scope = loadingBackend.getScope();
+        return scope == null ? library.getIdentity()
+                : library.getIdentity() + NativeLibraryRegistry.SCOPE_SEPARATOR + scope;
+    }
+
+    /**
+     * Retrieves the registered libraries compatible with the host platform and the host CPU features,
+     * ordered from the fastest to the slowest variant.
+     *
+     * @return an unmodifiable list of the platform candidates, or null if the platform library
+     *         is not initialized yet
+     */
+    public List<NativeDynamicLibrary> getPlatformCandidates() {
+        return platformCandidates;
+    }
+
+    /**
+     * Retrieves the process-wide identity of the library of this loader; the identity is composed of
+     * the compressed binary path and its extraction destination, and the scope of the loading backend (if any).
+     *
+     * @return the library identity used by the {@link NativeLibraryRegistry}, or null if the
+     *         platform library is not initialized yet, see {@link NativeBinaryLoader#initPlatformLibrary()}
+     */
+    public String getLibraryIdentity() {
+        return libraryIdentity;
+    }
+
+    /**
+     * Extracts and load the system and the architecture-specific library according to a loading criterion,
+     * the caller must own the load of the library identity.
+     *
+     * @param criterion the initial loading criterion
+     * @throws IOException if the library to extract is not present in the jar filesystem
+     */
+    protected void loadPlatformLibrary(LoadingCriterion criterion) throws Exception {
+        if (classPathInPlaceLoading && loadLocalLibrary(nativeDynamicLibrary)) {
+            return;
+        }
         if (criterion == LoadingCriterion.INCREMENTAL_LOADING && nativeDynamicLibrary.isExtracted()) {
             loadBinary(nativeDynamicLibrary);
-            return this;
+            return;
+        }
+        if (criterion == LoadingCriterion.SHARED_CACHE_LOADING) {
+            final ResolvedLibrary cachedLibrary = resolveSharedCacheLibrary(nativeDynamicLibrary);
+            if (cachedLibrary != null) {
+                if (isExtractionValid(cachedLibrary)) {
+                    SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadPlatformLibrary",
+                            "Reusing library from the shared cache: " + cachedLibrary.getExtractedLibrary());
+                    loadBinary(cachedLibrary);
+                    return;
+                }
+                cleanExtractBinary(cachedLibrary);
+                return;
+            }
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadPlatformLibrary",
+                    "Library cannot be fingerprinted, falling back to verified incremental loading!");
+            loadPlatformLibrary(LoadingCriterion.VERIFIED_INCREMENTAL_LOADING);
+            return;
+        }
+        if (criterion == LoadingCriterion.VERIFIED_INCREMENTAL_LOADING && isExtractionValid(nativeDynamicLibrary)) {
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadPlatformLibrary",
+                    "Extracted library fingerprint is valid: " + nativeDynamicLibrary.getExtractedLibrary());
+            loadBinary(nativeDynamicLibrary);
+            return;
         }
         cleanExtractBinary(nativeDynamicLibrary);
-        return this;
     }
-    
+
+    /**
+     * Loads a library located in an exploded classpath directory (i.e., a "file:" classpath resource) in place,
+     * thus without copying, nor linking it into the extraction directory; the caller must own the load
+     * of the library identity.
+     *
+     * @param library the platform-specific library to load
+     * @return true if the library is loaded, false if the library isn't located in an exploded classpath
+     *         directory, or if it cannot be loaded in place
+     */
+    protected boolean loadLocalLibrary(ResolvedLibrary library) {
+        if (library.getJarPath() != null || NativeVariant.Os.isAndroid()) {
+            return false;
+        }
+        final Path localLibrary = FileLocator.getLocalFile(
+                NativeBinaryLoader.class.getClassLoader().getResource(library.getCompressedLibrary()));
+        if (localLibrary == null) {
+            return false;
+        }
+        final LibraryHandle handle;
+        try {
+            handle = loadingBackend.load(localLibrary.toString());
+        } catch (UnsatisfiedLinkError error) {
+            SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "loadLocalLibrary",
+                    "Cannot load the library in place, falling back to the extraction: " + localLibrary, error);
+            return false;
+        }
+        SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadLocalLibrary",
+                "Successfully loaded library in place: " + localLibrary);
+        NativeLibraryRegistry.complete(getLibraryIdentity(), handle);
+        dispatchLoadingSuccess();
+        return true;
+    }
+
+    /**
+     * Enables loading the libraries located in exploded classpath directories (i.e., the "file:" classpath resources,
+     * e.g., IDE builds) in place, default value is false; otherwise the read-only libraries are extracted by hard links
+     * into the extraction directory whenever possible, thus without copying them either.
+     *
+     * @param classPathInPlaceLoading true to enable the flag, false otherwise
+     */
+    public void setClassPathInPlaceLoading(boolean classPathInPlaceLoading) {
+        this.classPathInPlaceLoading = classPathInPlaceLoading;
+    }
+
+    /**
+     * Tests the in-place loading flag of the exploded classpath directories, default value is false.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isClassPathInPlaceLoading() {
+        return classPathInPlaceLoading;
+    }
+
     /**
      * Retrieves the native dynamic library object representing the library to extract and load.
      * 
@@ -171,6 +981,16 @@ public class NativeBinaryLoader {
         return nativeDynamicLibrary;
     }
 
+    /**
+     * Retrieves the immutable resolved library object representing the library to extract and load.
+     *
+     * @return the resolved platform-dependent native dynamic library, or null if the
+     *         platform library is not initialized yet
+     */
+    public ResolvedLibrary getResolvedLibrary() {
+        return nativeDynamicLibrary;
+    }
+
     /**
      * Enables the logging for this object, default value is false.
      *
@@ -198,6 +1018,88 @@ public class NativeBinaryLoader {
         return retryWithCleanExtraction;
     }
 
+    /**
+     * Adjusts the maximum time to wait for the cross-process extraction lock of the library, default value is
+     * {@link FileExtractionLock#DEFAULT_TIMEOUT_MILLIS}.
+     *
+     * @param extractionLockTimeout the timeout in milliseconds (must be positive)
+     */
+    public void setExtractionLockTimeout(long extractionLockTimeout) {
+        if (extractionLockTimeout <= 0) {
+            throw new IllegalArgumentException("Extraction lock timeout must be positive, found " + extractionLockTimeout);
+        }
+        this.extractionLockTimeout = extractionLockTimeout;
+    }
+
+    /**
+     * Retrieves the maximum time to wait for the cross-process extraction lock of the library.
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getExtractionLockTimeout() {
+        return extractionLockTimeout;
+    }
+
+    /**
+     * Adjusts the backend loading the binaries of this loader into the process (i.e., the library, its bundled
+     * dependencies, and its installed system alternatives), default value is {@link SystemLoadingBackend#INSTANCE}.
+     * <p>
+     * Note: the libraries loaded by the {@link electrostatic4j.snaploader.library.ArenaLoadingBackend} are unloadable,
+     * see {@link NativeBinaryLoader#unloadLibrary()}; but their JNI native methods are not linked. The libraries loaded
+     * by the backend of a {@link LibraryClassLoader} are bound to that class loader.
+     *
+     * @param loadingBackend the loading backend (not null)
+     * @throws IllegalArgumentException if the running Java runtime doesn't support the backend
+     */
+    public void setLoadingBackend(LibraryLoadingBackend loadingBackend) {
+        if (!loadingBackend.isSupported()) {
+            throw new IllegalArgumentException("Loading backend " + loadingBackend.getName()
+                    + " isn't supported by Java " + System.getProperty("java.version"));
+        }
+        this.loadingBackend = loadingBackend;
+        if (nativeDynamicLibrary != null) {
+            libraryIdentity = getScopedIdentity(nativeDynamicLibrary);
+        }
+    }
+
+    /**
+     * Retrieves the backend loading the binaries of this loader into the process.
+     *
+     * @return the loading backend
+     */
+    public LibraryLoadingBackend getLoadingBackend() {
+        return loadingBackend;
+    }
+
+    /**
+     * Retrieves the handle of the loaded library of this loader, the handle reports the loading time, and the
+     * symbol lookup timings of the library.
+     *
+     * @return the library handle, or null if the library isn't loaded (or it has been loaded on Android)
+     */
+    public LibraryHandle getLibraryHandle() {
+        return libraryIdentity == null ? null : NativeLibraryRegistry.getLibraryHandle(libraryIdentity);
+    }
+
+    /**
+     * Unloads the library of this loader, if it has been loaded by an unloadable backend; the library could be loaded
+     * again afterwards (e.g., a new version of a native plugin by a {@link LoadingCriterion#CLEAN_EXTRACTION}).
+     * The bundled dependencies of the library stay loaded.
+     * <p>
+     * The symbols of the unloaded library are invalidated, the caller must ensure that the library isn't in use.
+     *
+     * @return true if the library has been unloaded, false if it isn't loaded, or it isn't unloadable
+     * @see NativeLibraryRegistry#unload(String)
+     */
+    public boolean unloadLibrary() {
+        if (libraryIdentity == null || !NativeLibraryRegistry.unload(libraryIdentity)) {
+            return false;
+        }
+        SnapLoaderLogger.log(Level.INFO, getClass().getName(), "unloadLibrary",
+                "Successfully unloaded library: " + libraryIdentity);
+        return true;
+    }
+
     public List<NativeDynamicLibrary> getRegisteredLibraries() {
         return registeredLibraries;
     }
@@ -242,26 +1144,45 @@ public class NativeBinaryLoader {
      * @throws IOException in case the binary to be extracted is not found on the specified jar
      */
     protected void loadBinary(NativeDynamicLibrary library) throws Exception {
+        if (dependencyResolution && library instanceof ResolvedLibrary && !NativeVariant.Os.isAndroid()) {
+            try {
+                loadDependencies((ResolvedLibrary) library);
+            } catch (final UnsatisfiedLinkError error) {
+                // the dependencies are validated on extraction, a clean extraction of the library cannot fix them
+                SnapLoaderLogger.log(Level.SEVERE, getClass().getName(), "loadBinary", "Cannot load the dependencies "
+                        + "of the dynamic library: " + library.getExtractedLibrary(), error);
+                if (nativeBinaryLoadingListener != null) {
+                    nativeBinaryLoadingListener.onLoadingFailure(this);
+                }
+                return;
+            }
+        }
         try {
             /* sanity-check for android java vm (the dalvik) */
             if (NativeVariant.Os.isAndroid()) {
                 System.loadLibrary(libraryInfo.getBaseName());
                 SnapLoaderLogger.log(Level.INFO, getClass().getName(),"loadBinary", "Successfully loaded library for Android: "
                         + library.getExtractedLibrary());
+                NativeLibraryRegistry.complete(getLibraryIdentity(), library.getExtractedLibrary());
                 return;
             }
-            System.load(library.getExtractedLibrary());
+            final LibraryHandle handle = loadingBackend.load(library.getExtractedLibrary());
             SnapLoaderLogger.log(Level.INFO, getClass().getName(),"loadBinary", "Successfully loaded library: "
-                    + library.getExtractedLibrary());
-            if (nativeBinaryLoadingListener != null) {
-                nativeBinaryLoadingListener.onLoadingSuccess(this);
-            }
+                    + handle);
+            NativeLibraryRegistry.complete(getLibraryIdentity(), handle);
+            dispatchLoadingSuccess();
         } catch (final UnsatisfiedLinkError error) {
             SnapLoaderLogger.log(Level.SEVERE, getClass().getName(), "loadBinary", "Cannot load the dynamic library: "
                     + library.getExtractedLibrary(), error);
             if (nativeBinaryLoadingListener != null) {
                 nativeBinaryLoadingListener.onLoadingFailure(this);
             }
+            if (IsolatedLoadingBackend.isLoadedByAnotherClassLoader(error)) {
+                // a clean extraction cannot release the binary from the other class loader
+                SnapLoaderLogger.log(Level.SEVERE, getClass().getName(), "loadBinary", "Library is bound to another "
+                        + "class loader, use the loading backend of a LibraryClassLoader to load it into this class loader!");
+                return;
+            }
             /* Retry with clean extract */
             if (isRetryWithCleanExtraction()) {
                 cleanExtractBinary(library);
@@ -272,14 +1193,359 @@ public class NativeBinaryLoader {
         }
     }
 
+    /**
+     * Extracts and loads the bundled dependency closure of an extracted library in the dependency order,
+     * the dependencies are extracted in parallel beside the library, each under its own extraction lock.
+     *
+     * @param library the extracted platform-specific library
+     * @throws Exception if a dependency cannot be extracted, or an I/O error has occurred
+     * @throws UnsatisfiedLinkError if a dependency cannot be loaded
+     */
+    protected void loadDependencies(ResolvedLibrary library) throws Exception {
+        unresolvedDependencies = Collections.emptySet();
+        if (!ElfValidator.isElfPlatform(HostPlatform.getTraits())) {
+            return;
+        }
+        final ElfFile elfFile;
+        try (BinarySource source = BinarySource.of(library.getExtractedLibraryPath())) {
+            elfFile = ElfFile.read(source, true);
+        }
+        if (elfFile == null || elfFile.getNeededLibraries().isEmpty()) {
+            return;
+        }
+        final List<ResolvedLibrary> dependencies = resolveDependencies(library, elfFile);
+        if (!unresolvedDependencies.isEmpty()) {
+            SnapLoaderLogger.log(Level.SEVERE, getClass().getName(), "loadDependencies",
+                    "Unresolved dependencies of " + library.getLibraryFile() + ": " + unresolvedDependencies
+                            + ", they are neither bundled in " + library.getPlatformDirectory() + " nor provided by the system!");
+        }
+        extractDependencies(dependencies);
+        for (ResolvedLibrary dependency : dependencies) {
+            final String dependencyIdentity = getScopedIdentity(dependency);
+            if (NativeLibraryRegistry.isLoaded(dependencyIdentity)) {
+                continue;
+            }
+            NativeLibraryRegistry.complete(dependencyIdentity, loadingBackend.load(dependency.getExtractedLibrary()));
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadDependencies",
+                    "Successfully loaded dependency: " + dependency.getExtractedLibrary());
+        }
+    }
+
+    /**
+     * Resolves the bundled dependency closure of a library from its jar filesystem, and records
+     * its unresolved dependencies.
+     *
+     * @param library the platform-specific library
+     * @param elfFile the ELF file of the library, including its dynamic section
+     * @return the bundled dependencies in their loading order, or an empty list if the library is not
+     *         located inside a jar filesystem
+     * @throws IOException if the jar filesystem cannot be read
+     */
+    protected List<ResolvedLibrary> resolveDependencies(ResolvedLibrary library, ElfFile elfFile) throws IOException {
+        final List<String> dependencyFiles;
+        final LibraryDependencyResolver resolver;
+        if (library.getJarPath() != null) {
+            try (JarFileCache.Lease lease = JarFileCache.acquire(library.getJarPath())) {
+                final JarFile compression = lease.getJarFile();
+                resolver = new LibraryDependencyResolver(compression, library.getPlatformDirectory());
+                dependencyFiles = resolver.resolve(library.getLibraryFile(), elfFile);
+            }
+        } else {
+            final URL resource = NativeBinaryLoader.class.getClassLoader().getResource(library.getCompressedLibrary());
+            final URLConnection connection = resource == null ? null : JarFileCache.openConnection(resource);
+            if (!(connection instanceof JarURLConnection)) {
+                return Collections.emptyList();
+            }
+            // the cached jar files are shared with the class loaders, they must not be closed
+            final JarFile compression = ((JarURLConnection) connection).getJarFile();
+            resolver = new LibraryDependencyResolver(compression, library.getPlatformDirectory());
+            dependencyFiles = resolver.resolve(library.getLibraryFile(), elfFile);
+        }
+        unresolvedDependencies = resolver.getUnresolvedDependencies();
+        final List<ResolvedLibrary> dependencies = new ArrayList<>(dependencyFiles.size());
+        for (String dependencyFile : dependencyFiles) {
+            dependencies.add(library.withLibraryFile(dependencyFile));
+        }
+        return dependencies;
+    }
+
+    /**
+     * Extracts the dependencies in parallel using a short-lived bounded thread pool, the dependencies
+     * that are already extracted and validated are skipped.
+     *
+     * @param dependencies the bundled dependencies to extract
+     * @throws Exception if a dependency cannot be extracted
+     */
+    protected void extractDependencies(List<ResolvedLibrary> dependencies) throws Exception {
+        if (dependencies.size() == 1) {
+            extractDependency(dependencies.get(0));
+            return;
+        } else if (dependencies.isEmpty()) {
+            return;
+        }
+        final ExecutorService executor = LoaderExecutors.newBoundedExecutor("snaploader-dependency-extractor",
+                Math.min(dependencies.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            final List<Future<Void>> extractions = new ArrayList<>(dependencies.size());
+            for (ResolvedLibrary dependency : dependencies) {
+                extractions.add(executor.submit(() -> {
+                    extractDependency(dependency);
+                    return null;
+                }));
+            }
+            for (Future<Void> extraction : extractions) {
+                try {
+                    extraction.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Extracts a dependency beside its library under the cross-process extraction lock of the dependency,
+     * unless it's already extracted and validated.
+     *
+     * @param dependency the bundled dependency to extract
+     * @throws Exception if the dependency cannot be extracted
+     */
+    protected void extractDependency(ResolvedLibrary dependency) throws Exception {
+        extractUnloadedBinary(dependency, false);
+    }
+
+    /**
+     * Extracts a native binary without loading it under the cross-process extraction lock of the binary,
+     * and records its fingerprint.
+     *
+     * @param library the platform-specific library to extract
+     * @param cleanExtraction true to extract the binary even if its extraction is valid, unless it has been
+     *                        extracted by another extraction lock owner meanwhile; false to skip
+     *                        the extraction if it's valid
+     * @throws Exception if the binary cannot be extracted
+     */
+    protected void extractUnloadedBinary(ResolvedLibrary library, boolean cleanExtraction) throws Exception {
+        try (FileExtractionLock extractionLock =
+                     FileExtractionLock.acquire(library.getExtractedLibraryPath(), extractionLockTimeout)) {
+            if ((!cleanExtraction || extractionLock.isContended()) && isExtractionValid(library)) {
+                return;
+            }
+            // each extractor acquires the shared jar file, the file locator releases it on closure
+            final FileExtractor extractor = initializeLibraryExtractor(library);
+            final Throwable[] failure = new Throwable[1];
+            extractor.setExtractionListener(new FileExtractionListener() {
+                @Override
+                public void onExtractionCompleted(FileExtractor fileExtractor) {
+                    recordFingerprint(library, (FileLocator) fileExtractor.getFileLocator());
+                    SnapLoaderLogger.log(Level.INFO, getClass().getName(), "extractUnloadedBinary",
+                            "Extracted successfully to " + library.getExtractedLibrary());
+                }
+
+                @Override
+                public void onExtractionFailure(FileExtractor fileExtractor, Throwable throwable) {
+                    failure[0] = throwable;
+                }
+
+                @Override
+                public void onExtractionFinalization(FileExtractor fileExtractor, FileLocator fileLocator) {
+                    try {
+                        fileExtractor.close();
+                    } catch (Exception e) {
+                        SnapLoaderLogger.log(Level.SEVERE, getClass().getName(),
+                                "extractUnloadedBinary", "Error while closing the resources!", e);
+                    }
+                }
+            });
+            extractor.extract();
+            if (failure[0] != null) {
+                throw new IOException("Cannot extract the library " + library.getCompressedLibrary(), failure[0]);
+            }
+        }
+    }
+
+    /**
+     * Tests whether the extracted native binary matches the compressed native binary using
+     * the recorded fingerprint of the extracted binary; thus without hashing the extracted binary.
+     * <p>
+     * A content-addressed library (i.e., inside the shared cache) is also verified against the digest
+     * of its directory, see {@link FileDigestIndex#isValid(Path, String)}.
+     *
+     * @param library the platform-specific library to validate
+     * @return true if the extracted binary is present and its recorded fingerprint matches
+     *         the compressed binary, false otherwise
+     * @throws IOException if the jar filesystem cannot be read, or an I/O error has occurred
+     */
+    protected boolean isExtractionValid(NativeDynamicLibrary library) throws IOException {
+        final FileFingerprint fingerprint = locateFingerprint(library);
+        final Path extractedLibrary = Paths.get(library.getExtractedLibrary());
+        if (fingerprint == null || !fingerprint.isValid(extractedLibrary)) {
+            return false;
+        }
+        final String contentDigest = library instanceof ResolvedLibrary
+                ? ((ResolvedLibrary) library).getContentDigest() : null;
+        return contentDigest == null || FileDigestIndex.isValid(extractedLibrary, contentDigest);
+    }
+
+    /**
+     * Resolves the platform-specific library into its content-addressed directory inside the
+     * shared cache, the directory is named after the fingerprint and the SHA-256 digest of the uncompressed binary.
+     * <p>
+     * The cache is shared among the user applications, thus the fingerprint alone (size + CRC-32) isn't
+     * trusted as a content address, since crafting a different binary with the same checksum is trivial; a reused
+     * cached binary is verified against the digest (see {@link NativeBinaryLoader#isExtractionValid(NativeDynamicLibrary)}).
+     *
+     * @param library the platform-specific library to resolve
+     * @return a new library object extracted into the shared cache, or null if the compressed
+     *         binary cannot be fingerprinted
+     * @throws IOException if the jar filesystem cannot be read, or the cache directory cannot be created
+     */
+    protected ResolvedLibrary resolveSharedCacheLibrary(ResolvedLibrary library) throws IOException {
+        final FileFingerprint fingerprint = locateFingerprint(library);
+        if (fingerprint == null) {
+            return null;
+        }
+        final String digest = locateDigest(library);
+        if (digest == null) {
+            return null;
+        }
+        /* a 128-bit digest prefix keeps the cache paths short (e.g., the Windows path length limit) */
+        final DirectoryPath cacheDirectory = new DirectoryPath(DirectoryPath.SHARED_CACHE.getPath(),
+                fingerprint + "-" + digest.substring(0, 32));
+        Files.createDirectories(Paths.get(cacheDirectory.getPath()));
+        return library.withContentAddress(cacheDirectory, digest);
+    }
+
+    /**
+     * Locates the fingerprint (size + CRC-32) of the compressed native binary from the
+     * central directory of its jar filesystem, without inflating the binary.
+     *
+     * @param library the platform-specific library to locate
+     * @return the fingerprint of the compressed binary, or null if the binary cannot be located,
+     *         or if it's not located inside a jar filesystem (e.g., exploded classpath directories)
+     * @throws IOException if the jar filesystem cannot be read, or an I/O error has occurred
+     */
+    protected FileFingerprint locateFingerprint(NativeDynamicLibrary library) throws IOException {
+        if (library.getJarPath() != null) {
+            try (JarFileCache.Lease lease = JarFileCache.acquire(library.getJarPath())) {
+                final JarFile compression = lease.getJarFile();
+                return FileFingerprint.of(compression.getEntry(library.getCompressedLibrary()));
+            }
+        }
+        final URL resource = NativeBinaryLoader.class.getClassLoader().getResource(library.getCompressedLibrary());
+        if (resource == null) {
+            return null;
+        }
+        final URLConnection connection = JarFileCache.openConnection(resource);
+        if (!(connection instanceof JarURLConnection)) {
+            return null;
+        }
+        return FileFingerprint.of(((JarURLConnection) connection).getJarEntry());
+    }
+
+    /**
+     * Locates the SHA-256 digest of the uncompressed native binary (see {@link FileFingerprint#digest(InputStream)});
+     * the binary is inflated from its jar filesystem and hashed only if the digest isn't memoized
+     * for the same jar filesystem (see {@link FileDigestIndex}), thus once at its first extraction.
+     *
+     * @param library the platform-specific library to digest
+     * @return the hexadecimal digest of the binary, or null if the binary cannot be located,
+     *         or if it's not located inside a jar filesystem (e.g., exploded classpath directories)
+     * @throws IOException if the jar filesystem cannot be read, or an I/O error has occurred
+     */
+    protected String locateDigest(NativeDynamicLibrary library) throws IOException {
+        if (library.getJarPath() != null) {
+            final String key = FileDigestIndex.getKey(Paths.get(library.getJarPath()), library.getCompressedLibrary());
+            final String digest = FileDigestIndex.get(key);
+            if (digest != null) {
+                return digest;
+            }
+            try (JarFileCache.Lease lease = JarFileCache.acquire(library.getJarPath())) {
+                final JarFile compression = lease.getJarFile();
+                final ZipEntry zipEntry = compression.getEntry(library.getCompressedLibrary());
+                if (zipEntry == null) {
+                    return null;
+                }
+                try (InputStream input = compression.getInputStream(zipEntry)) {
+                    return memoizeDigest(key, FileFingerprint.digest(input));
+                }
+            }
+        }
+        final URL resource = NativeBinaryLoader.class.getClassLoader().getResource(library.getCompressedLibrary());
+        if (resource == null) {
+            return null;
+        }
+        final URLConnection connection = JarFileCache.openConnection(resource);
+        if (!(connection instanceof JarURLConnection)) {
+            return null;
+        }
+        final JarURLConnection jarConnection = (JarURLConnection) connection;
+        /* nested jar filesystems (e.g., inside a fat jar) have no file identity, thus they are digested every start */
+        final Path jarFile = FileLocator.getLocalFile(jarConnection.getJarFileURL());
+        final String key = jarFile == null ? null : FileDigestIndex.getKey(jarFile, jarConnection.getEntryName());
+        final String digest = key == null ? null : FileDigestIndex.get(key);
+        if (digest != null) {
+            return digest;
+        }
+        /* the cached jar files are shared with the class loaders, only the entry stream is closed */
+        try (InputStream input = jarConnection.getJarFile().getInputStream(jarConnection.getJarEntry())) {
+            return key == null ? FileFingerprint.digest(input) : memoizeDigest(key, FileFingerprint.digest(input));
+        }
+    }
+
+    private String memoizeDigest(String key, String digest) {
+        try {
+            FileDigestIndex.put(key, digest);
+        } catch (IOException e) {
+            // the digest is memoized in-process anyway
+            SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "locateDigest",
+                    "Cannot record the digest of " + key, e);
+        }
+        return digest;
+    }
+
+    /**
+     * Dispatches the loading success listener of this loader, if it's set.
+     */
+    protected void dispatchLoadingSuccess() {
+        if (nativeBinaryLoadingListener != null) {
+            nativeBinaryLoadingListener.onLoadingSuccess(this);
+        }
+    }
+
     /**
      * Cleanly extracts and loads the native binary to the current [user.dir].
+     * <p>
+     * The extraction is guarded by a cross-process extraction lock; so that among all the processes
+     * extracting the same binary simultaneously, only a single process extracts the binary,
+     * while the others wait and then load the published binary if it has been validated.
      * 
      * @param library the platform-specific library to extract and load
      * @throws IOException in case the binary to be extracted is not found on the specified jar, or an
      *                     interrupted I/O operation has occurred
      */
     protected void cleanExtractBinary(NativeDynamicLibrary library) throws Exception {
+        try (FileExtractionLock extractionLock =
+                     FileExtractionLock.acquire(Paths.get(library.getExtractedLibrary()), extractionLockTimeout)) {
+            if (extractionLock.isContended() && isExtractionValid(library)) {
+                SnapLoaderLogger.log(Level.INFO, getClass().getName(), "cleanExtractBinary",
+                        "Library has been extracted by another extraction lock owner: " + library.getExtractedLibrary());
+                loadBinary(library);
+                return;
+            }
+            extractBinary(library);
+        }
+    }
+
+    /**
+     * Extracts and loads the native binary, the caller must own the extraction lock of the binary.
+     *
+     * @param library the platform-specific library to extract and load
+     * @throws IOException in case the binary to be extracted is not found on the specified jar, or an
+     *                     interrupted I/O operation has occurred
+     */
+    private void extractBinary(NativeDynamicLibrary library) throws Exception {
         libraryExtractor = initializeLibraryExtractor(library);
        SnapLoaderLogger.log(Level.INFO, getClass().getName(), "cleanExtractBinary",
                "File extractor handler initialized!");
@@ -288,6 +1554,8 @@ public class NativeBinaryLoader {
             @Override
             public void onExtractionCompleted(FileExtractor fileExtractor) {
                 try {
+                    // record the fingerprint of the compressed binary, before releasing the locator
+                    recordFingerprint(library, (FileLocator) fileExtractor.getFileLocator());
                     // free resources
                     // removes file locks on some OS
                     libraryExtractor.close();
@@ -321,8 +1589,8 @@ public class NativeBinaryLoader {
             @Override
             public void onExtractionFinalization(FileExtractor fileExtractor, FileLocator fileLocator) {
                 try {
-                    if (fileExtractor != null &&
-                            fileExtractor.getFileOutputStream() != null) {
+                    // releases the streams and discards the unpublished staging filesystems
+                    if (fileExtractor != null) {
                         fileExtractor.close();
                     }
                 } catch (Exception e) {
@@ -339,6 +1607,26 @@ public class NativeBinaryLoader {
         libraryExtractor.extract();
     }
 
+    /**
+     * Records the fingerprint of the compressed binary for the extracted binary, failing to
+     * record the fingerprint is not fatal; it only leads to a future re-extraction when validated.
+     *
+     * @param library the extracted platform-specific library
+     * @param fileLocator the file locator used to locate the compressed binary
+     */
+    protected void recordFingerprint(NativeDynamicLibrary library, FileLocator fileLocator) {
+        final FileFingerprint fingerprint = FileFingerprint.of(fileLocator.getZipEntry());
+        if (fingerprint == null) {
+            return;
+        }
+        try {
+            fingerprint.write(Paths.get(library.getExtractedLibrary()));
+        } catch (IOException e) {
+            SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "recordFingerprint",
+                    "Cannot record the fingerprint of " + library.getExtractedLibrary(), e);
+        }
+    }
+
     /**
      * Initializes a filesystem extractor object
      * if the filesystem extractor object associated with this loader isn't defined.
@@ -351,7 +1639,7 @@ public class NativeBinaryLoader {
         FileExtractor extractor;
         if (library.getJarPath() != null) {
             // use an extractor with the external jar routine
-            extractor = new LibraryExtractor(new JarFile(library.getJarPath()), library.getCompressedLibrary(), library.getExtractedLibrary());
+            extractor = new LibraryExtractor(JarFileCache.acquire(library.getJarPath()), library.getCompressedLibrary(), library.getExtractedLibrary());
         } else {
             // use an extractor with the classpath routine
             extractor = new LibraryExtractor(library.getCompressedLibrary(), library.getExtractedLibrary());
@@ -394,4 +1682,12 @@ public class NativeBinaryLoader {
         });
         return (LibraryLocator) extractor.getFileLocator();
     }
+
+    /**
+     * The lazy holder of the default executor of the asynchronous loads, and the prewarming loads
+     * of the {@link LazyNativeLibrary}.
+     */
+    static final class AsyncLoading {
+        static final Executor EXECUTOR = LoaderExecutors.newExecutor("snaploader-async-loader");
+    }
 }
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import electrostatic4j.snaploader.filesystem.DirectoryPath;
+import electrostatic4j.snaploader.filesystem.JarFileCache;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+import electrostatic4j.snaploader.platform.util.PlatformPredicate;
+import electrostatic4j.snaploader.platform.util.PropertiesProvider;
+import electrostatic4j.snaploader.util.LoaderExecutors;
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+/**
+ * Loads a bundle of native dynamic libraries in a single pass; the jar filesystems of the bundle
+ * are opened once, and held open for the whole pass, the libraries are extracted concurrently on
+ * a bounded executor, and they are loaded in their declared order as soon as their extraction completes,
+ * failing fast on the first library that cannot be extracted or loaded.
+ * <p>
+ * Each library of the bundle is driven by its own {@link NativeBinaryLoader}; thus the loaders could be
+ * configured individually before loading the bundle (e.g., the library variants, the validations, and the listeners).
+ *
+ * @author pavl_g
+ */
+public class NativeBundleLoader {
+
+    /**
+     * The loaders of the libraries in their loading order.
+     */
+    protected final List<NativeBinaryLoader> loaders;
+
+    /**
+     * The caller-supplied executor of the extractions, null to use a short-lived bounded thread pool.
+     */
+    protected Executor executor;
+
+    /**
+     * The maximum number of the concurrent extractions on the short-lived thread pool.
+     */
+    protected int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Instantiates a bundle loader of the libraries of loaders.
+     *
+     * @param loaders the loaders of the libraries in their loading order (i.e., the dependencies first)
+     */
+    public NativeBundleLoader(List<NativeBinaryLoader> loaders) {
+        this.loaders = loaders;
+    }
+
+    /**
+     * Creates a bundle loader of platform-independent libraries, the platform variants of each library
+     * are discovered from its jar filesystem, see {@link NativeBinaryLoader#discoverNativeLibraries()}.
+     *
+     * @param libraries the library infos in their loading order (i.e., the dependencies first)
+     * @return a new bundle loader
+     * @throws IOException if a jar filesystem cannot be read
+     */
+    public static NativeBundleLoader of(List<LibraryInfo> libraries) throws IOException {
+        final List<NativeBinaryLoader> loaders = new ArrayList<>(libraries.size());
+        for (LibraryInfo libraryInfo : libraries) {
+            loaders.add(new NativeBinaryLoader(libraryInfo).discoverNativeLibraries());
+        }
+        return new NativeBundleLoader(loaders);
+    }
+
+    /**
+     * Creates a bundle loader of all the host libraries (i.e., the files with the host library extension)
+     * of a platform directory inside a jar filesystem; the libraries are ordered by name, and the bundled
+     * dependencies of each library are loaded before it, see {@link NativeBinaryLoader#setDependencyResolution(boolean)}.
+     *
+     * @param jarPath the path to the jar filesystem, {@link DirectoryPath#CLASS_PATH} for the classpath jars
+     * @param directory the platform directory inside the jar filesystem (e.g., "lib/linux/x86-64")
+     * @param extractionDirectory the extraction destination directory
+     * @return a new bundle loader
+     * @throws IOException if the jar filesystem cannot be read
+     */
+    public static NativeBundleLoader ofPlatformDirectory(DirectoryPath jarPath, DirectoryPath directory,
+                                                         DirectoryPath extractionDirectory) throws IOException {
+        final String hostLibrary = System.mapLibraryName("");
+        final String prefix = hostLibrary.substring(0, hostLibrary.lastIndexOf('.'));
+        final String extension = hostLibrary.substring(prefix.length());
+        final Set<String> libraryFiles = new LinkedHashSet<>();
+        if (jarPath.getPath() != null) {
+            try (JarFileCache.Lease lease = JarFileCache.acquire(jarPath.getPath())) {
+                final JarFile compression = lease.getJarFile();
+                collectLibraryFiles(compression, directory.getPath(), extension, libraryFiles);
+            }
+        } else {
+            final Enumeration<URL> resources = NativeBundleLoader.class.getClassLoader().getResources(directory.getPath());
+            while (resources.hasMoreElements()) {
+                final URLConnection connection = JarFileCache.openConnection(resources.nextElement());
+                if (connection instanceof JarURLConnection) {
+                    // the cached jar files are shared with the class loaders, they must not be closed
+                    collectLibraryFiles(((JarURLConnection) connection).getJarFile(), directory.getPath(), extension, libraryFiles);
+                }
+            }
+        }
+        final List<String> orderedFiles = new ArrayList<>(libraryFiles);
+        Collections.sort(orderedFiles);
+        final List<NativeBinaryLoader> loaders = new ArrayList<>(orderedFiles.size());
+        for (String libraryFile : orderedFiles) {
+            final int start = !prefix.isEmpty() && libraryFile.startsWith(prefix) ? prefix.length() : 0;
+            final String baseName = libraryFile.substring(start, libraryFile.length() - extension.length());
+            final NativeDynamicLibrary library = new NativeDynamicLibrary(directory.getPath(), libraryFile,
+                    new PlatformPredicate(true));
+            final NativeBinaryLoader loader = new NativeBinaryLoader(Collections.singletonList(library),
+                    new LibraryInfo(jarPath, directory, baseName, extractionDirectory));
+            loader.setDependencyResolution(true);
+            loaders.add(loader);
+        }
+        SnapLoaderLogger.log(Level.INFO, NativeBundleLoader.class.getName(), "ofPlatformDirectory",
+                "Bundled " + loaders.size() + " libraries of " + directory.getPath());
+        return new NativeBundleLoader(loaders);
+    }
+
+    private static void collectLibraryFiles(ZipFile compression, String directory, String extension, Set<String> libraryFiles) {
+        final String separator = PropertiesProvider.ZIP_FILE_SEPARATOR.getSystemProperty();
+        final String entryPrefix = directory.endsWith(separator) ? directory : directory + separator;
+        final Enumeration<? extends ZipEntry> entries = compression.entries();
+        while (entries.hasMoreElements()) {
+            final ZipEntry entry = entries.nextElement();
+            final String name = entry.getName();
+            if (entry.isDirectory() || !name.startsWith(entryPrefix) || !name.endsWith(extension)
+                    || name.indexOf(separator, entryPrefix.length()) >= 0) {
+                continue;
+            }
+            libraryFiles.add(name.substring(entryPrefix.length()));
+        }
+    }
+
+    /**
+     * Extracts and loads the libraries of the bundle; the extractions are started concurrently, and the
+     * libraries are loaded in their order once their extraction completes. The first failed library
+     * fails the bundle, its pending extractions are cancelled and the libraries following it are skipped.
+     * <p>
+     * The platform libraries of the loaders are initialized if they aren't initialized yet,
+     * see {@link NativeBinaryLoader#initPlatformLibrary()}.
+     *
+     * @param criterion the loading criterion of the libraries, a {@link LoadingCriterion#CLEAN_EXTRACTION} extracts
+     *                  the libraries once, and then they are loaded as {@link LoadingCriterion#VERIFIED_INCREMENTAL_LOADING}
+     * @return the aggregated result of the bundle, it's never null
+     * @throws InterruptedException if the current thread is interrupted while waiting for an extraction
+     */
+    public BundleLoadingResult loadLibraries(LoadingCriterion criterion) throws InterruptedException {
+        final long start = System.nanoTime();
+        final LoadingCriterion loadingCriterion = criterion == LoadingCriterion.CLEAN_EXTRACTION
+                ? LoadingCriterion.VERIFIED_INCREMENTAL_LOADING : criterion;
+        final List<JarFileCache.Lease> compressions = acquireCompressions();
+        final ExecutorService pool = executor == null ? newExtractorPool() : null;
+        final Executor extractor = pool == null ? executor : pool;
+        final List<LoadingResult> results = new ArrayList<>(loaders.size());
+        final List<FutureTask<Void>> extractions = new ArrayList<>(loaders.size());
+        try {
+            // 1) start the extractions, a bounded executor queues the extractions beyond its parallelism
+            for (NativeBinaryLoader loader : loaders) {
+                final FutureTask<Void> extraction = new FutureTask<>(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        if (loader.getPlatformCandidates() == null) {
+                            loader.initPlatformLibrary();
+                        }
+                        loader.extractLibrary(criterion);
+                        return null;
+                    }
+                });
+                extractions.add(extraction);
+                extractor.execute(extraction);
+            }
+            // 2) load the libraries in their order, while the following libraries are being extracted
+            for (int i = 0; i < loaders.size(); i++) {
+                final NativeBinaryLoader loader = loaders.get(i);
+                if (!results.isEmpty() && !results.get(results.size() - 1).isLoaded()) {
+                    results.add(LoadingResult.skip(loader));
+                    continue;
+                }
+                Throwable failure = null;
+                try {
+                    extractions.get(i).get();
+                    loader.loadLibrary(loadingCriterion);
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception | LinkageError e) {
+                    failure = e;
+                }
+                final LoadingResult result = LoadingResult.settle(loader, failure);
+                if (!result.isLoaded()) {
+                    SnapLoaderLogger.log(Level.SEVERE, getClass().getName(), "loadLibraries",
+                            "Bundle loading has failed: " + result, result.getFailure());
+                }
+                results.add(result);
+            }
+        } finally {
+            // the pending extractions of a failed bundle are not started, the running ones are left to complete
+            for (FutureTask<Void> extraction : extractions) {
+                extraction.cancel(false);
+            }
+            if (pool != null) {
+                pool.shutdown();
+            }
+            releaseCompressions(compressions);
+        }
+        final BundleLoadingResult bundleResult = new BundleLoadingResult(results, System.nanoTime() - start);
+        SnapLoaderLogger.log(Level.INFO, getClass().getName(), "loadLibraries", bundleResult.toString());
+        return bundleResult;
+    }
+
+    /**
+     * Acquires the jar filesystems of the libraries, so that they are opened once for the whole bundle.
+     */
+    private List<JarFileCache.Lease> acquireCompressions() {
+        final Set<String> jarPaths = new LinkedHashSet<>();
+        for (NativeBinaryLoader loader : loaders) {
+            final String jarPath = loader.libraryInfo.getJarPath().getPath();
+            if (jarPath != null) {
+                jarPaths.add(jarPath);
+            }
+        }
+        final List<JarFileCache.Lease> compressions = new ArrayList<>(jarPaths.size());
+        for (String jarPath : jarPaths) {
+            try {
+                compressions.add(JarFileCache.acquire(jarPath));
+            } catch (IOException e) {
+                // the failure is reported by the loaders of this jar filesystem
+                SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "loadLibraries",
+                        "Cannot open the jar filesystem " + jarPath, e);
+            }
+        }
+        return compressions;
+    }
+
+    private void releaseCompressions(List<JarFileCache.Lease> compressions) {
+        for (JarFileCache.Lease compression : compressions) {
+            try {
+                compression.close();
+            } catch (IOException e) {
+                SnapLoaderLogger.log(Level.WARNING, getClass().getName(), "loadLibraries",
+                        "Cannot release the jar filesystem " + compression.getJarFile().getName(), e);
+            }
+        }
+    }
+
+    private ExecutorService newExtractorPool() {
+        return LoaderExecutors.newBoundedExecutor("snaploader-bundle-extractor",
+                Math.max(1, Math.min(loaders.size(), parallelism)));
+    }
+
+    /**
+     * Adjusts the executor of the extractions, the executor should be bounded, since all the extractions
+     * of the bundle are submitted at once.
+     *
+     * @param executor the executor of the extractions, null to use a short-lived thread pool bounded
+     *                 by the parallelism (default)
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Retrieves the caller-supplied executor of the extractions.
+     *
+     * @return the executor of the extractions, or null if a short-lived thread pool is used
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Adjusts the maximum number of the concurrent extractions on the short-lived thread pool.
+     *
+     * @param parallelism the number of the extracting threads, default is the number of the available processors
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Retrieves the maximum number of the concurrent extractions on the short-lived thread pool.
+     *
+     * @return the number of the extracting threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Retrieves the loaders of the libraries of this bundle.
+     *
+     * @return the loaders in their loading order
+     */
+    public List<NativeBinaryLoader> getLoaders() {
+        return loaders;
+    }
+}
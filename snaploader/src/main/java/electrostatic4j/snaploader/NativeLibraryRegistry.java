@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import electrostatic4j.snaploader.library.LibraryHandle;
+
+/**
+ * A process-wide registry of the native dynamic libraries loaded by the {@link NativeBinaryLoader} API,
+ * keyed by the library identity (i.e., the compressed binary and its extraction destination).
+ * <p>
+ * Each library identity is associated with a single load future; the first loader requesting a library
+ * owns the load, while the concurrent loaders requesting the same library join the in-flight load
+ * instead of extracting and loading the library again; and once the library is loaded, the later
+ * requests are answered by a lock-free lookup without any filesystem access.
+ * <p>
+ * The loads are striped per library identity; thus the loads of different libraries proceed
+ * in parallel, and a failed load is evicted so that it could be retried.
+ * <p>
+ * The registry retains the {@link LibraryHandle} of each loaded library; a library loaded by an unloadable
+ * backend could be unloaded by {@link NativeLibraryRegistry#unload(String)}, and loaded again afterwards.
+ *
+ * @author pavl_g
+ */
+public final class NativeLibraryRegistry {
+
+    private static final ConcurrentHashMap<String, CompletableFuture<String>> LIBRARIES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LibraryHandle> HANDLES = new ConcurrentHashMap<>();
+
+    /**
+     * Separates a library identity from the scope of its loading backend, see
+     * {@link NativeBinaryLoader#getLibraryIdentity()}.
+     */
+    static final String SCOPE_SEPARATOR = " @ ";
+
+    private NativeLibraryRegistry() {
+    }
+
+    /**
+     * Tests whether a library identity has been loaded in this process.
+     *
+     * @param libraryIdentity the library identity as specified by {@link NativeBinaryLoader#getLibraryIdentity()}
+     * @return true if the library has been loaded, false otherwise
+     */
+    public static boolean isLoaded(String libraryIdentity) {
+        final CompletableFuture<String> load = LIBRARIES.get(libraryIdentity);
+        return load != null && load.isDone() && !load.isCompletedExceptionally();
+    }
+
+    /**
+     * Retrieves the absolute path of the loaded binary of a library identity.
+     *
+     * @param libraryIdentity the library identity as specified by {@link NativeBinaryLoader#getLibraryIdentity()}
+     * @return the absolute path of the loaded binary, or null if the library hasn't been loaded
+     */
+    public static String getLoadedLibrary(String libraryIdentity) {
+        return isLoaded(libraryIdentity) ? LIBRARIES.get(libraryIdentity).join() : null;
+    }
+
+    /**
+     * Retrieves the handle of the loaded binary of a library identity.
+     *
+     * @param libraryIdentity the library identity as specified by {@link NativeBinaryLoader#getLibraryIdentity()}
+     * @return the library handle, or null if the library hasn't been loaded by a loading backend
+     *         (e.g., on Android)
+     */
+    public static LibraryHandle getLibraryHandle(String libraryIdentity) {
+        return isLoaded(libraryIdentity) ? HANDLES.get(libraryIdentity) : null;
+    }
+
+    /**
+     * Unloads a loaded library identity by closing its handle, if the library has been loaded by an unloadable
+     * backend; the library identity is evicted, and the next load request loads the library again.
+     * <p>
+     * The symbols of the unloaded library are invalidated, the caller must ensure that the library
+     * isn't in use.
+     *
+     * @param libraryIdentity the library identity as specified by {@link NativeBinaryLoader#getLibraryIdentity()}
+     * @return true if the library has been unloaded, false if the library isn't loaded, or isn't unloadable
+     */
+    public static boolean unload(String libraryIdentity) {
+        final CompletableFuture<String> load = LIBRARIES.get(libraryIdentity);
+        final LibraryHandle handle = HANDLES.get(libraryIdentity);
+        if (load == null || !load.isDone() || load.isCompletedExceptionally()
+                || handle == null || !handle.isUnloadable()) {
+            return false;
+        }
+        if (!LIBRARIES.remove(libraryIdentity, load)) {
+            return false;
+        }
+        HANDLES.remove(libraryIdentity, handle);
+        handle.close();
+        return true;
+    }
+
+    /**
+     * Evicts the loaded library identities of a collected scope (e.g., the libraries bound to a garbage-collected
+     * {@link electrostatic4j.snaploader.library.LibraryClassLoader}); the libraries have been unloaded along with
+     * their scope, thus their handles are discarded without closing them.
+     *
+     * @param scope the collected scope as specified by
+     *              {@link electrostatic4j.snaploader.library.LibraryLoadingBackend#getScope()}
+     */
+    public static void evictScope(String scope) {
+        final String suffix = SCOPE_SEPARATOR + scope;
+        HANDLES.keySet().removeIf(libraryIdentity -> libraryIdentity.endsWith(suffix));
+        LIBRARIES.entrySet().removeIf(entry -> entry.getKey().endsWith(suffix) && entry.getValue().isDone());
+    }
+
+    /**
+     * Claims the load of a library identity.
+     *
+     * @param libraryIdentity the library identity
+     * @param load a new incomplete load future to register on behalf of the caller
+     * @return null if the caller owns the load, or the load future of the current owner
+     */
+    static CompletableFuture<String> claim(String libraryIdentity, CompletableFuture<String> load) {
+        return LIBRARIES.putIfAbsent(libraryIdentity, load);
+    }
+
+    /**
+     * Completes the in-flight load of a library identity, waking up the joining loaders.
+     *
+     * @param libraryIdentity the library identity
+     * @param library the absolute path of the loaded binary
+     */
+    static void complete(String libraryIdentity, String library) {
+        LIBRARIES.computeIfAbsent(libraryIdentity, key -> new CompletableFuture<>()).complete(library);
+    }
+
+    /**
+     * Completes the in-flight load of a library identity by its library handle, waking up the joining loaders.
+     *
+     * @param libraryIdentity the library identity
+     * @param handle the handle of the loaded binary
+     */
+    static void complete(String libraryIdentity, LibraryHandle handle) {
+        HANDLES.put(libraryIdentity, handle);
+        complete(libraryIdentity, handle.getLibrary());
+    }
+
+    /**
+     * Abandons an owned load that has not been completed, evicting it from the registry and
+     * failing the joining loaders.
+     *
+     * @param libraryIdentity the library identity
+     * @param load the owned load future
+     * @param cause the cause of the failure
+     */
+    static void abandon(String libraryIdentity, CompletableFuture<String> load, Throwable cause) {
+        if (load.completeExceptionally(cause)) {
+            LIBRARIES.remove(libraryIdentity, load);
+        }
+    }
+
+    /**
+     * Withdraws an owned load that has not been completed without failing it, evicting it from the registry;
+     * the joining loaders may claim the load again (e.g., an owner that has tried an optional loading path).
+     *
+     * @param libraryIdentity the library identity
+     * @param load the owned load future
+     */
+    static void withdraw(String libraryIdentity, CompletableFuture<String> load) {
+        if (load.cancel(false)) {
+            LIBRARIES.remove(libraryIdentity, load);
+        }
+    }
+
+    /**
+     * Tests whether a load has been withdrawn by its owner.
+     *
+     * @param load the load future of the owner
+     * @return true if the load has been withdrawn, false otherwise
+     */
+    static boolean isWithdrawn(CompletableFuture<String> load) {
+        return load.isCancelled();
+    }
+
+    /**
+     * Waits for an in-flight load owned by another loader.
+     *
+     * @param load the load future of the owner
+     * @return true if the owner has loaded the library, false if the owner has failed, or has withdrawn the load
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    static boolean join(CompletableFuture<String> load) throws InterruptedException {
+        try {
+            load.get();
+            return true;
+        } catch (ExecutionException | CancellationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+/**
+ * Schedules the loads of the native libraries of an application by their {@link LoadingPriority}; the critical
+ * libraries are loaded on the caller thread by {@link NativeLoadingScheduler#start()}, and the others are drained
+ * one at a time in the background by a single low-priority daemon thread.
+ * <p>
+ * Java has no portable I/O priority (e.g., the Linux {@code ioprio_set}), thus the drainer bounds the background
+ * filesystem I/O by serializing the extractions on a single thread, rather than by an I/O scheduling class; the
+ * thread priority is only a CPU scheduling hint, and it may be ignored by the operating system.
+ * <p>
+ * The {@link LoadingPriority#DEFERRED} libraries are drained right after the critical libraries, and the
+ * {@link LoadingPriority#OPTIONAL} libraries after the quiet period; a library with a deadline is drained no later
+ * than its deadline (since the start), even within the quiet period. The libraries are registered as
+ * {@link LazyNativeLibrary} handles, thus a library used before it's drained is loaded on its first use.
+ * <p>
+ * Example (a readiness probe):
+ * <pre>
+ * scheduler.start();
+ * ...
+ * boolean ready = scheduler.isReady(LoadingPriority.CRITICAL);
+ * </pre>
+ *
+ * @author pavl_g
+ */
+public final class NativeLoadingScheduler implements AutoCloseable {
+
+    /**
+     * Designates a library without a deadline.
+     */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * The default quiet period before draining the optional libraries in milliseconds.
+     */
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 5000;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private long quietPeriod = DEFAULT_QUIET_PERIOD_MILLIS;
+    private ScheduledThreadPoolExecutor drainer;
+    private boolean started;
+
+    /**
+     * Registers a library with a loading priority, and no deadline.
+     *
+     * @param library the lazy library handle
+     * @param priority the loading priority
+     * @return this scheduler for chained registrations
+     * @throws IllegalStateException if the scheduler has been started
+     */
+    public NativeLoadingScheduler register(LazyNativeLibrary library, LoadingPriority priority) {
+        return register(library, priority, NO_DEADLINE);
+    }
+
+    /**
+     * Registers a library with a loading priority, and a deadline; the deadline is ignored for
+     * the critical libraries, which are loaded on start.
+     *
+     * @param library the lazy library handle
+     * @param priority the loading priority
+     * @param deadline the latest time to drain the library since the start in milliseconds,
+     *                 or {@link NativeLoadingScheduler#NO_DEADLINE}
+     * @return this scheduler for chained registrations
+     * @throws IllegalStateException if the scheduler has been started
+     */
+    public synchronized NativeLoadingScheduler register(LazyNativeLibrary library, LoadingPriority priority,
+                                                        long deadline) {
+        if (started) {
+            throw new IllegalStateException("The scheduler has been started!");
+        }
+        if (deadline < 0) {
+            throw new IllegalArgumentException("Deadline must not be negative, found " + deadline);
+        }
+        entries.add(new Entry(library, priority, deadline));
+        return this;
+    }
+
+    /**
+     * Registers a library by its library info and its platform-specific registrations.
+     *
+     * @param libraryInfo the platform-independent library info
+     * @param registeredLibraries the platform-specific library registrations
+     * @param priority the loading priority
+     * @param deadline the latest time to drain the library since the start in milliseconds,
+     *                 or {@link NativeLoadingScheduler#NO_DEADLINE}
+     * @return a new lazy handle of the library, to ensure it's loaded on use
+     * @throws IllegalStateException if the scheduler has been started
+     */
+    public LazyNativeLibrary register(LibraryInfo libraryInfo, NativeDynamicLibrary[] registeredLibraries,
+                                      LoadingPriority priority, long deadline) {
+        final LazyNativeLibrary library = new LazyNativeLibrary(libraryInfo, registeredLibraries);
+        register(library, priority, deadline);
+        return library;
+    }
+
+    /**
+     * Loads the critical libraries on the caller thread in their registration order, then schedules the other
+     * libraries in the background; a failed critical library skips the critical libraries following it.
+     *
+     * @return the results of the critical libraries
+     * @throws IllegalStateException if the scheduler has been started
+     */
+    public BundleLoadingResult start() {
+        final long start = System.nanoTime();
+        final List<Entry> scheduledEntries;
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException("The scheduler has been started!");
+            }
+            started = true;
+            scheduledEntries = new ArrayList<>(entries);
+        }
+        // drained by the priority, then by the deadline (the sorting is stable)
+        Collections.sort(scheduledEntries, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry first, Entry second) {
+                final int priority = first.priority.compareTo(second.priority);
+                return priority != 0 ? priority : Long.compare(first.deadline, second.deadline);
+            }
+        });
+        final List<LoadingResult> criticalResults = new ArrayList<>();
+        boolean failed = false;
+        for (Entry entry : scheduledEntries) {
+            if (entry.priority != LoadingPriority.CRITICAL) {
+                continue;
+            }
+            final LoadingResult result = failed ? LoadingResult.skip(entry.library.getLoader()) : entry.library.load();
+            failed |= !result.isLoaded();
+            entry.result.complete(result);
+            criticalResults.add(result);
+        }
+        final long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            if (drainer == null) {
+                drainer = newDrainer();
+            }
+            for (Entry entry : scheduledEntries) {
+                if (entry.priority == LoadingPriority.CRITICAL || entry.result.isDone()) {
+                    continue;
+                }
+                final long due = entry.priority == LoadingPriority.OPTIONAL ? quietPeriod : 0;
+                final long delay = Math.max(0, Math.min(due, entry.deadline) - TimeUnit.NANOSECONDS.toMillis(elapsed));
+                drainer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!entry.result.isDone()) {
+                            entry.result.complete(entry.library.load());
+                        }
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+        final BundleLoadingResult result = new BundleLoadingResult(criticalResults, elapsed);
+        SnapLoaderLogger.log(failed ? Level.SEVERE : Level.INFO, getClass().getName(), "start",
+                "Critical " + result);
+        return result;
+    }
+
+    /**
+     * Waits for the libraries of a priority class, and the libraries of the higher priority classes.
+     *
+     * @param priority the lowest priority class to wait for (e.g., {@link LoadingPriority#CRITICAL})
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout
+     * @return true if the libraries have been loaded, false if a library has failed, or the timeout has elapsed
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean awaitPriority(LoadingPriority priority, long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Entry entry : getEntries(priority)) {
+            if (entry.library.isLoaded()) {
+                // has been used before it's drained
+                continue;
+            }
+            try {
+                if (!entry.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS).isLoaded()) {
+                    return false;
+                }
+            } catch (TimeoutException | CancellationException | ExecutionException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether the libraries of a priority class, and the libraries of the higher priority classes
+     * have been loaded, without waiting (e.g., for readiness probes).
+     *
+     * @param priority the lowest priority class to test
+     * @return true if the libraries have been loaded, false otherwise
+     */
+    public boolean isReady(LoadingPriority priority) {
+        for (Entry entry : getEntries(priority)) {
+            if (entry.library.isLoaded()) {
+                continue;
+            }
+            if (!entry.result.isDone() || entry.result.isCancelled() || !entry.result.join().isLoaded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adjusts the quiet period before draining the optional libraries, default value is
+     * {@link NativeLoadingScheduler#DEFAULT_QUIET_PERIOD_MILLIS}.
+     *
+     * @param quietPeriod the quiet period since the start in milliseconds (must not be negative)
+     * @throws IllegalStateException if the scheduler has been started
+     */
+    public synchronized void setQuietPeriod(long quietPeriod) {
+        if (started) {
+            throw new IllegalStateException("The scheduler has been started!");
+        }
+        if (quietPeriod < 0) {
+            throw new IllegalArgumentException("Quiet period must not be negative, found " + quietPeriod);
+        }
+        this.quietPeriod = quietPeriod;
+    }
+
+    /**
+     * Retrieves the quiet period before draining the optional libraries.
+     *
+     * @return the quiet period in milliseconds
+     */
+    public synchronized long getQuietPeriod() {
+        return quietPeriod;
+    }
+
+    /**
+     * Stops draining the libraries, the pending libraries are not loaded (unless they are used),
+     * and their waiters are released; a running load is interrupted.
+     */
+    @Override
+    public void close() {
+        final List<Entry> pendingEntries;
+        synchronized (this) {
+            // a closed scheduler cannot be started
+            started = true;
+            if (drainer != null) {
+                drainer.shutdownNow();
+            }
+            pendingEntries = new ArrayList<>(entries);
+        }
+        for (Entry entry : pendingEntries) {
+            entry.result.cancel(false);
+        }
+    }
+
+    private synchronized List<Entry> getEntries(LoadingPriority priority) {
+        final List<Entry> priorityEntries = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.priority.compareTo(priority) <= 0) {
+                priorityEntries.add(entry);
+            }
+        }
+        return priorityEntries;
+    }
+
+    private static ScheduledThreadPoolExecutor newDrainer() {
+        final ScheduledThreadPoolExecutor drainer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "snaploader-deferred-loader");
+                thread.setDaemon(true);
+                // a CPU scheduling hint only, it doesn't lower the priority of the filesystem I/O
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+        drainer.setRemoveOnCancelPolicy(true);
+        return drainer;
+    }
+
+    private static final class Entry {
+        private final LazyNativeLibrary library;
+        private final LoadingPriority priority;
+        private final long deadline;
+        private final CompletableFuture<LoadingResult> result = new CompletableFuture<>();
+
+        private Entry(LazyNativeLibrary library, LoadingPriority priority, long deadline) {
+            this.library = library;
+            this.priority = priority;
+            this.deadline = deadline;
+        }
+    }
+}
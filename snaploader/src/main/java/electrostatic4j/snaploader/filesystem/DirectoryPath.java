@@ -32,6 +32,7 @@
 
 package electrostatic4j.snaploader.filesystem;
 
+import electrostatic4j.snaploader.platform.util.NativeVariant;
 import electrostatic4j.snaploader.platform.util.PropertiesProvider;
 
 /**
@@ -61,6 +62,16 @@ public final class DirectoryPath {
      */
     public static final DirectoryPath CLASS_PATH = new DirectoryPath(null);
 
+    /**
+     * An alias object for the per-user shared cache directory of jSnapLoader, shared among all the
+     * user applications on the host; it resolves to "$XDG_CACHE_HOME/jsnaploader" if the XDG_CACHE_HOME
+     * environment variable is defined, otherwise to "%LOCALAPPDATA%\jsnaploader" on Windows,
+     * "~/Library/Caches/jsnaploader" on Mac, and "~/.cache/jsnaploader" on other systems.
+     *
+     * @see electrostatic4j.snaploader.LoadingCriterion#SHARED_CACHE_LOADING
+     */
+    public static final DirectoryPath SHARED_CACHE = new DirectoryPath(getSharedCacheDirectory());
+
     private String path;
 
     /**
@@ -89,6 +100,26 @@ public final class DirectoryPath {
         }
     }
 
+    private static String getSharedCacheDirectory() {
+        final String cacheName = "jsnaploader";
+        final String xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+        if (xdgCacheHome != null && !xdgCacheHome.isEmpty()) {
+            return new DirectoryPath(xdgCacheHome, cacheName).getPath();
+        }
+        final String userHome = PropertiesProvider.USER_HOME.getSystemProperty();
+        if (NativeVariant.Os.isWindows()) {
+            final String localAppData = System.getenv("LOCALAPPDATA");
+            if (localAppData != null && !localAppData.isEmpty()) {
+                return new DirectoryPath(localAppData, cacheName).getPath();
+            }
+            return new DirectoryPath(userHome, "AppData", "Local", cacheName).getPath();
+        }
+        if (NativeVariant.Os.isMac()) {
+            return new DirectoryPath(userHome, "Library", "Caches", cacheName).getPath();
+        }
+        return new DirectoryPath(userHome, ".cache", cacheName).getPath();
+    }
+
     /**
      * Retrieves the absolute path to the specified directory path.
      *
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.filesystem;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.zip.ZipEntry;
+
+/**
+ * Inflates a {@link ZipEntry#DEFLATED} entry straight from its data region inside the compression
+ * into a destination channel using direct buffers, bypassing the zip input streams and their heap buffers.
+ * <p>
+ * The Java 8 runtime lacks the buffer API of the inflater (i.e., <code>Inflater#inflate(ByteBuffer)</code>
+ * since Java 11); thus this implementation declines the entries, and the streaming routine is used instead.
+ * The Java 11 implementation is packaged into the multi-release jar under <code>META-INF/versions/11</code>.
+ *
+ * @author pavl_g
+ */
+public final class EntryInflater {
+
+    private EntryInflater() {
+    }
+
+    /**
+     * Tests whether the running Java runtime supports the direct-buffer inflation.
+     *
+     * @return false, the Java 8 runtime doesn't support the direct-buffer inflation
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Inflates a deflated entry into a destination channel.
+     *
+     * @param compression a readable channel of the zip compression filesystem
+     * @param region the located data region of the entry
+     * @param zipEntry the deflated zip entry
+     * @param target the destination channel
+     * @return false, the entry is declined before writing to the destination channel
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean inflate(FileChannel compression, ZipEntryRegion region, ZipEntry zipEntry,
+                                  FileChannel target) throws IOException {
+        return false;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.filesystem;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Memoizes the SHA-256 digests (see {@link FileFingerprint#digest(InputStream)}) of the compressed binaries,
+ * so that a binary is inflated and hashed once at its first extraction, rather than on every start.
+ * <p>
+ * A digest is keyed by the identity of its jar filesystem (the canonical path, the last-modified time
+ * and the size) and its entry name; the digests are memoized in-process, and recorded in the per-user
+ * index directory of the shared cache ([{@link DirectoryPath#SHARED_CACHE}]/digests), thus a rebuilt jar
+ * filesystem is digested again.
+ * <p>
+ * The verified extracted files are memoized in-process by their size and last-modified time, so that
+ * an extracted file is hashed once per process.
+ *
+ * @author pavl_g
+ */
+public final class FileDigestIndex {
+
+    /**
+     * The name of the index directory inside the shared cache.
+     */
+    public static final String INDEX_DIRECTORY = "digests";
+
+    private static final String RECORD_HEADER = "jsnaploader-digest-1";
+    private static final ConcurrentHashMap<String, String> DIGESTS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Path, String> VERIFIED_FILES = new ConcurrentHashMap<>();
+
+    private FileDigestIndex() {
+    }
+
+    /**
+     * Retrieves the index key of a jar filesystem entry.
+     *
+     * @param jarFile the path to the jar filesystem
+     * @param entryName the name of the entry inside the jar filesystem
+     * @return the index key composed of the canonical path, the last-modified time and the size of the
+     *         jar filesystem, and the entry name
+     * @throws IOException if the jar filesystem doesn't exist, or an I/O error has occurred
+     */
+    public static String getKey(Path jarFile, String entryName) throws IOException {
+        final Path canonicalPath = jarFile.toRealPath();
+        final BasicFileAttributes attributes = Files.readAttributes(canonicalPath, BasicFileAttributes.class);
+        return canonicalPath + ":" + attributes.lastModifiedTime().toMillis() + ":" + attributes.size()
+                + "!/" + entryName;
+    }
+
+    /**
+     * Retrieves the memoized digest of a jar filesystem entry, from the process memory, or
+     * from the index directory.
+     *
+     * @param key the index key (see {@link FileDigestIndex#getKey(Path, String)})
+     * @return the hexadecimal digest, or null if the entry hasn't been digested before
+     * @throws IOException if the index record cannot be read
+     */
+    public static String get(String key) throws IOException {
+        String digest = DIGESTS.get(key);
+        if (digest != null) {
+            return digest;
+        }
+        final String[] record;
+        try {
+            record = new String(Files.readAllBytes(getRecord(key)), StandardCharsets.UTF_8).split("\n", 2);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        /* the record holds its key, so that the colliding record names are not confused */
+        if (record.length != 2 || !record[0].startsWith(RECORD_HEADER + " ") || !record[1].trim().equals(key)) {
+            return null;
+        }
+        digest = record[0].substring(RECORD_HEADER.length() + 1).trim();
+        if (digest.length() != 64) {
+            return null;
+        }
+        DIGESTS.put(key, digest);
+        return digest;
+    }
+
+    /**
+     * Memoizes the digest of a jar filesystem entry in-process, and in the index directory; the
+     * index record is replaced atomically.
+     *
+     * @param key the index key (see {@link FileDigestIndex#getKey(Path, String)})
+     * @param digest the hexadecimal digest of the entry
+     * @throws IOException if the index record cannot be written
+     */
+    public static void put(String key, String digest) throws IOException {
+        DIGESTS.put(key, digest);
+        final Path record = getRecord(key);
+        Files.createDirectories(record.getParent());
+        final Path staging = record.resolveSibling("." + record.getFileName() + "."
+                + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX) + ".tmp");
+        try {
+            Files.write(staging, (RECORD_HEADER + " " + digest + "\n" + key + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE_NEW);
+            try {
+                Files.move(staging, record, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staging, record, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    /**
+     * Tests whether an extracted file matches a digest by hashing the file, unless the file
+     * has been verified against the same digest before by this process, and it hasn't been modified since.
+     *
+     * @param file the path to the extracted file
+     * @param digest the expected hexadecimal digest
+     * @return true if the file exists and its digest matches, false otherwise
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean isValid(Path file, String digest) throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        final String verification = attributes.size() + ":" + attributes.lastModifiedTime().toMillis() + ":" + digest;
+        if (verification.equals(VERIFIED_FILES.get(file))) {
+            return true;
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            if (!digest.equals(FileFingerprint.digest(input))) {
+                return false;
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        VERIFIED_FILES.put(file, verification);
+        return true;
+    }
+
+    private static Path getRecord(String key) throws IOException {
+        final String name = FileFingerprint.digest(
+                new ByteArrayInputStream(key.getBytes(StandardCharsets.UTF_8))).substring(0, 32);
+        return Paths.get(DirectoryPath.SHARED_CACHE.getPath(), INDEX_DIRECTORY, name);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.filesystem;
+
+import electrostatic4j.snaploader.throwable.FilesystemResourceInitializationException;
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+/**
+ * A cross-process exclusive lock guarding the extraction of a destination filesystem, so that
+ * only a single thread among all the processes on the host extracts the same filesystem at a time,
+ * while the other contenders wait for the extracted filesystem to be published.
+ * <p>
+ * The lock is composed of an in-process lock per destination filesystem, and an operating system
+ * advisory lock ({@link FileChannel#lock()}) on a lock filesystem ([filesystem].lock) next to the
+ * destination filesystem. The operating system releases the advisory locks of crashed processes;
+ * thus a crashed extraction never leaves a stale lock behind, but it may leave a stale staging filesystem
+ * which is discarded by the next lock owner. The in-process locks are evicted once they are neither held
+ * nor awaited, so that a long-running process doesn't retain a lock for every destination ever extracted.
+ * <p>
+ * Note: the lock filesystems are never deleted; deleting them would break the mutual exclusion
+ * of the processes waiting on the deleted lock filesystem.
+ *
+ * @author pavl_g
+ */
+public final class FileExtractionLock implements AutoCloseable {
+
+    /**
+     * The default timeout for acquiring an extraction lock in milliseconds.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 60000;
+
+    /**
+     * The extension of the lock filesystem guarding the extraction of a destination filesystem.
+     */
+    public static final String LOCK_EXTENSION = ".lock";
+
+    private static final String STAGING_EXTENSION = ".tmp";
+    private static final String LINK_EXTENSION = ".tmp.link";
+
+    private static final long MIN_POLL_MILLIS = 5;
+    private static final long MAX_POLL_MILLIS = 100;
+
+    private static final ConcurrentHashMap<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path destination;
+    private final ReentrantLock processLock;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+    private final boolean contended;
+
+    private FileExtractionLock(Path destination, ReentrantLock processLock, FileChannel channel, FileLock fileLock,
+                               boolean contended) {
+        this.destination = destination;
+        this.processLock = processLock;
+        this.channel = channel;
+        this.fileLock = fileLock;
+        this.contended = contended;
+    }
+
+    /**
+     * Acquires the extraction lock of a destination filesystem, blocking until the lock is
+     * acquired or the timeout elapses. Nested acquisitions by the lock owner thread
+     * are permitted, and they don't re-acquire the operating system lock.
+     *
+     * @param file the path to the destination filesystem to extract
+     * @param timeoutMillis the maximum time to wait for the lock in milliseconds
+     * @return the acquired lock, that must be closed to release the lock
+     * @throws IOException if the lock filesystem cannot be created or locked
+     * @throws InterruptedException if the current thread is interrupted while waiting for the lock
+     * @throws FilesystemResourceInitializationException if the lock cannot be acquired within the timeout
+     */
+    public static FileExtractionLock acquire(Path file, long timeoutMillis) throws IOException, InterruptedException {
+        final Path destination = file.toAbsolutePath().normalize();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        ReentrantLock processLock;
+        boolean contended = false;
+        for (;;) {
+            processLock = PROCESS_LOCKS.computeIfAbsent(destination, key -> new ReentrantLock());
+
+            // 1) nested acquisitions (e.g., retry criteria) own the operating system lock already
+            if (processLock.isHeldByCurrentThread()) {
+                processLock.lock();
+                return new FileExtractionLock(destination, processLock, null, null, false);
+            }
+
+            // 2) serialize the threads of this process; an operating system lock is held on behalf of
+            // the whole process, so it can't exclude the threads of the same process
+            if (!processLock.tryLock()) {
+                contended = true;
+                if (!processLock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new FilesystemResourceInitializationException("Timed out waiting for the extraction lock of "
+                            + destination);
+                }
+            }
+            // an idle lock is evicted by its last owner (see close()), it might have been evicted before it was locked
+            if (PROCESS_LOCKS.get(destination) == processLock) {
+                break;
+            }
+            processLock.unlock();
+        }
+
+        // 3) exclude the other processes
+        FileChannel channel = null;
+        try {
+            // the destination directory may not exist yet (e.g., the variant directories of the libraries)
+            Files.createDirectories(destination.getParent());
+            channel = FileChannel.open(getLockFile(destination), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            long pollMillis = MIN_POLL_MILLIS;
+            FileLock fileLock;
+            while ((fileLock = channel.tryLock()) == null) {
+                contended = true;
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new FilesystemResourceInitializationException("Timed out waiting for the extraction lock of "
+                            + destination + " held by another process");
+                }
+                Thread.sleep(pollMillis);
+                pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+            }
+            SnapLoaderLogger.log(Level.INFO, FileExtractionLock.class.getName(), "acquire",
+                    "Acquired extraction lock of " + destination + (contended ? " after contention" : ""));
+            discardStaleStagingFiles(destination, timeoutMillis);
+            return new FileExtractionLock(destination, processLock, channel, fileLock, contended);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            release(destination, processLock);
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the lock filesystem path guarding the extraction of a destination filesystem.
+     *
+     * @param file the path to the destination filesystem
+     * @return the path to the lock filesystem
+     */
+    public static Path getLockFile(Path file) {
+        return file.resolveSibling(file.getFileName() + LOCK_EXTENSION);
+    }
+
+    /**
+     * Tests whether the lock has been contended by another thread or process before being acquired,
+     * if so, the other lock owner might have already published the destination filesystem.
+     *
+     * @return true if the lock acquisition has waited for another owner, false otherwise
+     */
+    public boolean isContended() {
+        return contended;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (fileLock != null) {
+                fileLock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            release(destination, processLock);
+        }
+    }
+
+    /**
+     * Unlocks the process lock of a destination filesystem, and evicts it once it's idle (i.e., neither held
+     * nor awaited); so that the process locks of the extracted destinations don't accumulate.
+     */
+    private static void release(Path destination, ReentrantLock processLock) {
+        processLock.unlock();
+        PROCESS_LOCKS.computeIfPresent(destination, (key, lock) ->
+                lock == processLock && !lock.isLocked() && !lock.hasQueuedThreads() ? null : lock);
+    }
+
+    /**
+     * Discards the staging filesystems of the destination filesystem left behind by crashed extractions.
+     * <p>
+     * The staging filesystems (".tmp") are discarded only if they have been created before the lock timeout,
+     * to spare the extractions of processes that don't utilize the extraction locks. The linked staging
+     * filesystems (".tmp.link") are hard links sharing the timestamps of their located filesystems, thus
+     * they are discarded by the lock ownership instead; the loaders link and publish a linked staging filesystem
+     * under the extraction lock, thus it's stale once the lock is owned by another extraction.
+     */
+    private static void discardStaleStagingFiles(Path destination, long staleMillis) {
+        final String stagingPrefix = "." + destination.getFileName() + ".";
+        final long staleTime = System.currentTimeMillis() - staleMillis;
+        try (DirectoryStream<Path> stagingFiles = Files.newDirectoryStream(destination.getParent(), path -> {
+            final String name = path.getFileName().toString();
+            return name.startsWith(stagingPrefix)
+                    && (name.endsWith(STAGING_EXTENSION) || name.endsWith(LINK_EXTENSION));
+        })) {
+            for (Path stagingFile : stagingFiles) {
+                final boolean stale = stagingFile.getFileName().toString().endsWith(LINK_EXTENSION)
+                        || Files.readAttributes(stagingFile, BasicFileAttributes.class)
+                                .creationTime().toMillis() < staleTime;
+                if (stale && Files.deleteIfExists(stagingFile)) {
+                    SnapLoaderLogger.log(Level.INFO, FileExtractionLock.class.getName(), "acquire",
+                            "Discarded stale staging filesystem " + stagingFile);
+                }
+            }
+        } catch (IOException e) {
+            SnapLoaderLogger.log(Level.WARNING, FileExtractionLock.class.getName(), "acquire",
+                    "Cannot discard the stale staging filesystems of " + destination, e);
+        }
+    }
+}
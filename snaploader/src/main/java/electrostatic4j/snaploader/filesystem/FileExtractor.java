@@ -37,7 +37,20 @@ import electrostatic4j.snaploader.util.SnapLoaderLogger;
 import electrostatic4j.snaploader.util.StreamObjectValidator;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Extracts a filesystem from a zip compression to a destination filesystem.
@@ -66,7 +79,15 @@ public class FileExtractor implements OutputStreamProvider {
      */
     protected String destination;
 
-    private static final int EOF = -1; /* End-of-filesystem */
+    /**
+     * A uniquely named staging filesystem inside the destination directory, the extraction
+     * writes to this staging filesystem, which is then atomically moved over the destination
+     * filesystem on completion; so that other processes mapping the destination filesystem
+     * observe either the old or the completely extracted filesystem, but never a torn one.
+     */
+    protected Path stagingFile;
+
+    private static final int STAGING_ATTEMPTS = 16;
 
     /**
      * Instantiates a filesystem extractor object with a filesystem locator and a destination filesystem.
@@ -95,14 +116,15 @@ public class FileExtractor implements OutputStreamProvider {
             return;
         }
         try {
+            this.stagingFile = createStagingFile();
             if (size > 0) {
                 this.fileOutputStream = new BufferedOutputStream(
-                        new FileOutputStream(destination), size);
+                        new FileOutputStream(stagingFile.toFile()), size);
                 SnapLoaderLogger.log(Level.INFO, getClass().getName(), "initialize(int)",
                         "File extractor initialized with hash key #" + getHashKey());
                 return;
             }
-            this.fileOutputStream = new FileOutputStream(destination);
+            this.fileOutputStream = new FileOutputStream(stagingFile.toFile());
             SnapLoaderLogger.log(Level.INFO, getClass().getName(), "initialize(int)",
                     "File extractor initialized with hash key #" + getHashKey());
         } catch (Exception e) {
@@ -115,6 +137,9 @@ public class FileExtractor implements OutputStreamProvider {
     /**
      * Commands and Extract the specified filesystem to the specified destination filesystem.
      * <p>
+     * The filesystem is extracted into a staging filesystem, which is then published by an atomic
+     * move over the destination filesystem, see {@link FileExtractor#publish()}.
+     * <p>
      * Warning: this function leaks buffered streams; this vision was attained for freedom of use,
      * but the user application must keep in mind that stream closure and resources release must be
      * attained either through the extraction completed and failure listeners, or through a try-with
@@ -126,25 +151,18 @@ public class FileExtractor implements OutputStreamProvider {
      */
     public void extract() throws IOException, FileNotFoundException {
         try {
-            /* uses buffered streams */
-            /* buffered byte streams provide a constant memory allocation
-             * according to the file size in bytes,
-             * this constant memory allocation is then treated
-             * as a pipe; either a unidirectional (simplex) or a bidirectional (duplex)
-             * unlike the unbuffered streams, which polls byte streams from an online
-             * pipe, and allocate memory according to the active bytes manipulated
-             * by the pipeline. */
             InputStream fileStream = fileLocator.getFileInputStream();
             StreamObjectValidator.validateAndThrow(fileStream, StreamObjectValidator.BROKEN_FILE_LOCATOR_PROVIDER);
 
             /* Extracts the shipped native files */
-            /* Allocate a byte buffer for the buffered streams */
-            final byte[] buffer = new byte[fileStream.available()];
-
-            for (int bytes = 0; bytes != EOF; bytes = fileStream.read(buffer)) {
-                /* use the bytes as the buffer length to write valid data */
-                fileOutputStream.write(buffer, 0, bytes);
+            /* streams through a fixed-size per-thread buffer, the buffer is never sized
+             * after the filesystem (i.e., InputStream#available()), so the extraction
+             * doesn't allocate memory proportional to the extracted filesystem, and doesn't spin
+             * on streams that report no available bytes (e.g., the classpath streams). */
+            if (!linkLocalFile() && !transferStoredEntry() && !inflateDeflatedEntry()) {
+                StreamTransfer.transfer(fileStream, fileOutputStream);
             }
+            publish();
             if (fileExtractionListener != null) {
                 fileExtractionListener.onExtractionCompleted(this);
             }
@@ -160,6 +178,167 @@ public class FileExtractor implements OutputStreamProvider {
         }
     }
 
+    /**
+     * Transfers a {@link ZipEntry#STORED} (i.e., uncompressed) entry straight from the compression
+     * filesystem into the destination filesystem using the kernel transfer routines, bypassing
+     * the user-space streaming buffers.
+     *
+     * @return true if the entry has been transferred, false if the zero-copy routine is not applicable
+     *         and the streaming routine should be used (e.g., deflated entries, or the classpath routine).
+     * @throws IOException if an I/O error has occurred or an interrupted I/O operation has occurred
+     */
+    protected boolean transferStoredEntry() throws IOException {
+        final ZipFile compression = fileLocator.getCompression();
+        final ZipEntry zipEntry = fileLocator.getZipEntry();
+        if (compression == null || zipEntry == null || zipEntry.getMethod() != ZipEntry.STORED
+                || !(fileOutputStream instanceof FileOutputStream)) {
+            return false;
+        }
+        try (FileChannel compressionChannel = FileChannel.open(Paths.get(compression.getName()), StandardOpenOption.READ)) {
+            final ZipEntryRegion region = ZipEntryRegion.locate(compressionChannel, zipEntry);
+            if (region == null) {
+                return false;
+            }
+            region.transferTo(compressionChannel, ((FileOutputStream) fileOutputStream).getChannel());
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "extract",
+                    "Transferred stored entry " + zipEntry.getName() + " (" + region.getLength() + " bytes) using zero-copy");
+            return true;
+        }
+    }
+
+    /**
+     * Inflates a {@link ZipEntry#DEFLATED} entry straight from the compression filesystem into the destination
+     * filesystem using direct buffers, bypassing the zip input streams, see {@link EntryInflater}.
+     *
+     * @return true if the entry has been inflated, false if the direct-buffer routine is not applicable
+     *         and the streaming routine should be used (e.g., a Java 8 runtime, or the classpath routine).
+     * @throws IOException if the entry is corrupted, or an I/O error has occurred
+     */
+    protected boolean inflateDeflatedEntry() throws IOException {
+        final ZipFile compression = fileLocator.getCompression();
+        final ZipEntry zipEntry = fileLocator.getZipEntry();
+        if (!EntryInflater.isSupported() || compression == null || zipEntry == null
+                || zipEntry.getMethod() != ZipEntry.DEFLATED || !(fileOutputStream instanceof FileOutputStream)) {
+            return false;
+        }
+        try (FileChannel compressionChannel = FileChannel.open(Paths.get(compression.getName()), StandardOpenOption.READ)) {
+            final ZipEntryRegion region = ZipEntryRegion.locate(compressionChannel, zipEntry);
+            if (region == null || !EntryInflater.inflate(compressionChannel, region, zipEntry,
+                    ((FileOutputStream) fileOutputStream).getChannel())) {
+                return false;
+            }
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "extract",
+                    "Inflated entry " + zipEntry.getName() + " (" + zipEntry.getSize() + " bytes) using direct buffers");
+            return true;
+        }
+    }
+
+    /**
+     * Links a located regular filesystem of an exploded classpath directory into the staging filesystem
+     * using a hard link, thus without copying the filesystem; the published filesystem shares the
+     * content (i.e., the inode) of the located filesystem, and it's replaced, never modified, by the later extractions.
+     * <p>
+     * Only read-only filesystems are linked; a writable located filesystem (e.g., a build output) may be rewritten
+     * in place by the build tools while it's loaded, thus it's copied instead.
+     *
+     * @return true if the filesystem has been linked, false if the linking routine is not applicable
+     *         and the streaming routine should be used (e.g., a compressed filesystem, a writable located filesystem,
+     *         or a located filesystem on another filesystem volume).
+     * @throws IOException if an I/O error has occurred
+     */
+    protected boolean linkLocalFile() throws IOException {
+        final Path localFile = fileLocator.getLocalFile();
+        if (localFile == null || stagingFile == null || !(fileOutputStream instanceof FileOutputStream)) {
+            return false;
+        }
+        if (isWritable(localFile)) {
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "extract",
+                    "Local filesystem " + localFile + " is writable, copying it instead of linking");
+            return false;
+        }
+        final Path linkedFile = stagingFile.resolveSibling(stagingFile.getFileName() + ".link");
+        try {
+            Files.createLink(linkedFile, localFile);
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "extract",
+                    "Cannot link " + localFile + ", falling back to copying: " + e);
+            return false;
+        }
+        // the linked filesystem replaces the empty staging filesystem
+        fileOutputStream.close();
+        Files.deleteIfExists(stagingFile);
+        stagingFile = linkedFile;
+        SnapLoaderLogger.log(Level.INFO, getClass().getName(), "extract",
+                "Linked local filesystem " + localFile + " without copying");
+        return true;
+    }
+
+    /**
+     * Tests whether a filesystem could be modified in place; the POSIX write permissions are tested rather than
+     * the access of the current user, since the privileged users could write to any filesystem.
+     */
+    private static boolean isWritable(Path file) throws IOException {
+        try {
+            final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(file);
+            return permissions.contains(PosixFilePermission.OWNER_WRITE)
+                    || permissions.contains(PosixFilePermission.GROUP_WRITE)
+                    || permissions.contains(PosixFilePermission.OTHERS_WRITE);
+        } catch (UnsupportedOperationException e) {
+            return Files.isWritable(file);
+        }
+    }
+
+    /**
+     * Publishes the extracted staging filesystem to the destination filesystem using an
+     * atomic move operation, the move replaces the directory entry (i.e., the inode) of
+     * the destination filesystem rather than truncating it in-place.
+     *
+     * @throws IOException if the staging filesystem cannot be published (e.g., the destination
+     *                     is locked by the operating system).
+     */
+    protected void publish() throws IOException {
+        if (stagingFile == null) {
+            // the extractor is initialized using external routines
+            fileOutputStream.flush();
+            return;
+        }
+        // release the staging filesystem handle before moving it (a must on Windows)
+        fileOutputStream.close();
+        fileOutputStream = null;
+        final Path target = Paths.get(destination);
+        try {
+            Files.move(stagingFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(stagingFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        stagingFile = null;
+        SnapLoaderLogger.log(Level.INFO, getClass().getName(), "publish",
+                "Published extracted filesystem to " + destination);
+    }
+
+    /**
+     * Creates a new uniquely named staging filesystem alongside the destination filesystem; the
+     * staging filesystem must reside on the same filesystem volume as the destination, so that
+     * it can be atomically moved.
+     *
+     * @return the path to the created staging filesystem
+     * @throws IOException if the staging filesystem cannot be created
+     */
+    protected Path createStagingFile() throws IOException {
+        final Path target = Paths.get(destination).toAbsolutePath();
+        for (int attempt = 0; ; attempt++) {
+            final Path staging = target.resolveSibling("." + target.getFileName() + "."
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX) + ".tmp");
+            try {
+                return Files.createFile(staging);
+            } catch (FileAlreadyExistsException e) {
+                if (attempt == STAGING_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
     @Override
     public void close() throws Exception {
         if (fileOutputStream != null) {
@@ -167,6 +346,12 @@ public class FileExtractor implements OutputStreamProvider {
             fileOutputStream = null;
         }
 
+        // discard an unpublished staging filesystem (e.g., a failed extraction)
+        if (stagingFile != null) {
+            Files.deleteIfExists(stagingFile);
+            stagingFile = null;
+        }
+
         // close the associated file locator resources
         if (getFileLocator() != null && getFileLocator().getFileInputStream() != null) {
             getFileLocator().close();
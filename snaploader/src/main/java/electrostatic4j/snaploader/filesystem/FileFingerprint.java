@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.filesystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.ZipEntry;
+
+/**
+ * Represents the identity of a filesystem inside a zip compression, composed of the
+ * uncompressed size and the CRC-32 checksum as recorded by the compression central directory.
+ * <p>
+ * A fingerprint is recorded next to the extracted filesystem in a sidecar filesystem
+ * ([filesystem].fingerprint) along with the extracted filesystem size and last-modified time; so that
+ * validating an extracted filesystem against a compression entry costs a single stat and a single small read
+ * without hashing the extracted filesystem.
+ *
+ * @author pavl_g
+ */
+public final class FileFingerprint {
+
+    /**
+     * The extension of the sidecar filesystem holding the fingerprint of an extracted filesystem.
+     */
+    public static final String SIDECAR_EXTENSION = ".fingerprint";
+
+    private static final String SIDECAR_HEADER = "jsnaploader-fingerprint-1";
+
+    private final long size;
+    private final long crc;
+
+    /**
+     * Instantiates a filesystem fingerprint.
+     *
+     * @param size the uncompressed size of the filesystem in bytes
+     * @param crc the CRC-32 checksum of the uncompressed filesystem
+     */
+    public FileFingerprint(long size, long crc) {
+        this.size = size;
+        this.crc = crc;
+    }
+
+    /**
+     * Obtains the fingerprint of a zip entry as recorded by the central directory of its compression.
+     *
+     * @param zipEntry the zip entry (nullable)
+     * @return the fingerprint of the zip entry, or null if the entry is null, or the size or
+     *         the checksum of the entry is unknown
+     */
+    public static FileFingerprint of(ZipEntry zipEntry) {
+        if (zipEntry == null || zipEntry.getSize() < 0 || zipEntry.getCrc() < 0) {
+            return null;
+        }
+        return new FileFingerprint(zipEntry.getSize(), zipEntry.getCrc());
+    }
+
+    /**
+     * Computes the SHA-256 digest of a filesystem stream through the per-thread transfer buffer
+     * (see {@link StreamTransfer}); unlike the CRC-32 checksum, the digest is collision-resistant, thus
+     * it could identify the filesystem content among untrusted sources (e.g., a content-addressed cache
+     * shared among the user applications).
+     *
+     * @param input the filesystem stream to digest, read until the end-of-file and not closed
+     * @return the hexadecimal SHA-256 digest
+     * @throws IOException if an I/O error has occurred
+     */
+    public static String digest(InputStream input) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            /* SHA-256 is required on every Java platform */
+            throw new IllegalStateException(e);
+        }
+        StreamTransfer.transfer(input, new OutputStream() {
+            @Override
+            public void write(int b) {
+                digest.update((byte) b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                digest.update(b, off, len);
+            }
+        });
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Reads the recorded fingerprint of an extracted filesystem from its sidecar filesystem.
+     *
+     * @param file the path to the extracted filesystem
+     * @return the recorded fingerprint, or null if the filesystem or its sidecar doesn't exist, the sidecar
+     *         is malformed, or the filesystem has been modified after the fingerprint was recorded
+     * @throws IOException if an I/O error has occurred
+     */
+    public static FileFingerprint read(Path file) throws IOException {
+        final BasicFileAttributes attributes;
+        final String[] record;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            record = new String(Files.readAllBytes(getSidecar(file)), StandardCharsets.US_ASCII).trim().split(" ");
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (record.length != 4 || !SIDECAR_HEADER.equals(record[0])) {
+            return null;
+        }
+        try {
+            final long size = Long.parseLong(record[1]);
+            final long crc = Long.parseLong(record[2], 16);
+            final long lastModified = Long.parseLong(record[3]);
+            if (attributes.size() != size || attributes.lastModifiedTime().toMillis() != lastModified) {
+                return null;
+            }
+            return new FileFingerprint(size, crc);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records this fingerprint for an extracted filesystem in its sidecar filesystem, the sidecar
+     * is replaced atomically.
+     *
+     * @param file the path to the extracted filesystem
+     * @throws IOException if the extracted filesystem doesn't exist or the sidecar cannot be written
+     */
+    public void write(Path file) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        final String record = SIDECAR_HEADER + " " + attributes.size() + " " + Long.toHexString(crc)
+                + " " + attributes.lastModifiedTime().toMillis() + "\n";
+        final Path sidecar = getSidecar(file);
+        final Path staging = sidecar.resolveSibling("." + sidecar.getFileName() + "."
+                + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX) + ".tmp");
+        try {
+            Files.write(staging, record.getBytes(StandardCharsets.US_ASCII), StandardOpenOption.CREATE_NEW);
+            try {
+                Files.move(staging, sidecar, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staging, sidecar, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    /**
+     * Tests whether an extracted filesystem matches this fingerprint using its sidecar filesystem.
+     *
+     * @param file the path to the extracted filesystem
+     * @return true if the extracted filesystem has a valid recorded fingerprint equal to this fingerprint,
+     *         false otherwise
+     * @throws IOException if an I/O error has occurred
+     */
+    public boolean isValid(Path file) throws IOException {
+        return equals(read(file));
+    }
+
+    /**
+     * Retrieves the sidecar filesystem path of an extracted filesystem.
+     *
+     * @param file the path to the extracted filesystem
+     * @return the path to the sidecar filesystem
+     */
+    public static Path getSidecar(Path file) {
+        return file.resolveSibling(file.getFileName() + SIDECAR_EXTENSION);
+    }
+
+    /**
+     * Retrieves the uncompressed size of the filesystem.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Retrieves the CRC-32 checksum of the filesystem.
+     *
+     * @return the checksum as an unsigned 32-bit value
+     */
+    public long getCrc() {
+        return crc;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FileFingerprint)) {
+            return false;
+        }
+        final FileFingerprint that = (FileFingerprint) o;
+        return size == that.size && crc == that.crc;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(size) + Long.hashCode(crc);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%08x-%x", crc, size);
+    }
+}
@@ -37,6 +37,13 @@ import electrostatic4j.snaploader.util.SnapLoaderLogger;
 import electrostatic4j.snaploader.util.StreamObjectValidator;
 
 import java.io.*;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.logging.Level;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -66,11 +73,29 @@ public class FileLocator implements ZipStreamProvider {
      */
     protected ZipFile compression;
 
+    /**
+     * Resembles the lease of a shared compression (see {@link JarFileCache}), released instead
+     * of closing the compression.
+     */
+    protected JarFileCache.Lease compressionLease;
+
     /**
      * Resembles the file path inside the compression.
      */
     protected String filePath;
 
+    /**
+     * Resembles the located zip entry inside the compression, used in the case of
+     * external compression routines, and the classpath routines of jar resources.
+     */
+    protected ZipEntry zipEntry;
+
+    /**
+     * Resembles the located regular filesystem on a local filesystem volume, used in the case of
+     * the classpath routines of exploded classpath directories (i.e., the "file:" resources).
+     */
+    protected Path localFile;
+
     /**
      * Locates the library inside the stock jar filesystem.
      *
@@ -94,6 +119,19 @@ public class FileLocator implements ZipStreamProvider {
         this.compression = compression;
     }
 
+    /**
+     * Locates a filesystem inside a shared jar compression, the lease of the compression is owned by this
+     * locator, and it's released when the locator is closed.
+     *
+     * @param compressionLease the lease of the shared jar compression, see {@link JarFileCache#acquire(String)}
+     * @param filePath the path to the filesystem inside the compression to be extracted
+     * @throws IOException if the jar to be located is not found or an interrupted I/O exception has occurred
+     */
+    public FileLocator(JarFileCache.Lease compressionLease, String filePath) throws IOException {
+        this(compressionLease.getJarFile(), filePath);
+        this.compressionLease = compressionLease;
+    }
+
     /**
      * Instantiates an empty filesystem locator object.
      */
@@ -164,7 +202,43 @@ public class FileLocator implements ZipStreamProvider {
         // However, all those classloaders are loaded by the BootStrap, so if
         // getClassLoader() is invoked on them, it will return "null" pointer
         // indicating the invalidity of active loaders
-        this.fileInputStream = getClass().getClassLoader().getResourceAsStream(filePath);
+        final URL resource = getClass().getClassLoader().getResource(filePath);
+        if (resource == null) {
+            return;
+        }
+        // resolve the resource URL first, the exploded classpath resources are extracted without copying
+        this.localFile = getLocalFile(resource);
+        try {
+            final URLConnection connection = JarFileCache.openConnection(resource);
+            // the jar resources expose their zip entries (i.e., sizes and checksums) through
+            // the JVM cached jar filesystem handles, closing the input stream leaves them open
+            if (connection instanceof JarURLConnection) {
+                this.zipEntry = ((JarURLConnection) connection).getJarEntry();
+            }
+            this.fileInputStream = connection.getInputStream();
+        } catch (IOException e) {
+            throw new FilesystemResourceInitializationException(
+                    "Failed to open the classpath resource " + resource, e);
+        }
+    }
+
+    /**
+     * Resolves a resource URL into a regular filesystem on a local filesystem volume.
+     *
+     * @param resource the resource URL
+     * @return the path to the regular filesystem, or null if the resource isn't a "file:" URL
+     *         designating a regular filesystem (e.g., a jar resource)
+     */
+    public static Path getLocalFile(URL resource) {
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            final Path file = Paths.get(resource.toURI());
+            return Files.isRegularFile(file) ? file : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
@@ -177,6 +251,7 @@ public class FileLocator implements ZipStreamProvider {
     protected void externalCompressionRoutine(int size) throws IOException {
         final ZipEntry zipEntry = compression.getEntry(filePath);
         StreamObjectValidator.validateAndThrow(zipEntry, StreamObjectValidator.COMPRESSION_FILE_LOCALIZING_FAIL);
+        this.zipEntry = zipEntry;
         if (size > 0) {
             this.fileInputStream = new BufferedInputStream(compression.getInputStream(zipEntry), size);
         } else {
@@ -208,8 +283,15 @@ public class FileLocator implements ZipStreamProvider {
             // this closes all the streams associated with it (if they are not closed)
             // aka.
             // the file entries stream
-            // and the native resources for this object
-            compression.close();
+            // and the native resources for this object;
+            // the shared compressions (see JarFileCache) are released instead,
+            // and closed once they are no longer referenced
+            if (compressionLease != null) {
+                compressionLease.close();
+                compressionLease = null;
+            } else {
+                compression.close();
+            }
             compression = null;
         }
         SnapLoaderLogger.log(Level.INFO, getClass().getName(),
@@ -225,4 +307,24 @@ public class FileLocator implements ZipStreamProvider {
     public ZipFile getCompression() {
         return compression;
     }
+
+    /**
+     * Retrieves the located zip entry inside the compression.
+     *
+     * @return the located zip entry object, or null if the file has been located
+     *         using the classpath routine outside a jar, or if the locator is not initialized yet.
+     */
+    public ZipEntry getZipEntry() {
+        return zipEntry;
+    }
+
+    /**
+     * Retrieves the located regular filesystem on a local filesystem volume.
+     *
+     * @return the path to the located filesystem, or null if the file has been located inside
+     *         a compression, or if the locator is not initialized yet
+     */
+    public Path getLocalFile() {
+        return localFile;
+    }
 }
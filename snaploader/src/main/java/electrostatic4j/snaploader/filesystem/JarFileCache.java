@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.filesystem;
+
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+
+/**
+ * A process-wide cache of reference-counted jar filesystem handles, so that the central directory of
+ * a jar filesystem is read once, and shared by all the loaders, the locators and the extractors
+ * reading from the same jar filesystem.
+ * <p>
+ * The handles are keyed by the canonical path of the jar filesystem; a handle is reused only if the
+ * modification time and the size of the jar filesystem are unchanged, otherwise the stale handle is
+ * detached, and closed once its last holder releases it. Each acquisition holds its own {@link Lease}, and
+ * it's released by closing the lease, so that a repeated closure of a lease cannot release the acquisitions
+ * of other holders; the handle is actually closed only after it has been idle (i.e., unreferenced)
+ * for the idle timeout.
+ * <p>
+ * The classpath jar filesystems are not cached here, they are shared with the class loaders through
+ * the JVM cached jar filesystem handles, see {@link JarFileCache#openConnection(URL)}.
+ *
+ * @author pavl_g
+ */
+public final class JarFileCache {
+
+    /**
+     * The default period after which an unreferenced jar filesystem handle is closed in milliseconds.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30000;
+
+    private static final ConcurrentHashMap<String, Slot> SLOTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger OPEN_COUNT = new AtomicInteger();
+    private static volatile long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    private static ScheduledThreadPoolExecutor evictor;
+
+    private JarFileCache() {
+    }
+
+    /**
+     * Acquires a shared handle of a jar filesystem, opening the jar filesystem only if it has no valid
+     * cached handle. Every acquisition is released by closing its own lease (see {@link Lease#close()});
+     * the shared handle must not be used after its lease is released, and it must not be closed directly.
+     *
+     * @param jarPath the path to the jar filesystem
+     * @return a new lease of the shared jar filesystem handle
+     * @throws IOException if the jar filesystem cannot be opened
+     */
+    public static Lease acquire(String jarPath) throws IOException {
+        final File file = new File(jarPath).getCanonicalFile();
+        final String key = file.getPath();
+        Slot slot = SLOTS.get(key);
+        if (slot == null) {
+            final Slot created = new Slot();
+            slot = SLOTS.putIfAbsent(key, created);
+            if (slot == null) {
+                slot = created;
+            }
+        }
+        // the jar filesystems are opened under their own slot monitor, so that the concurrent acquisitions
+        // of the same jar filesystem open it once, without blocking the acquisitions of other jar filesystems
+        synchronized (slot) {
+            final long lastModified = file.lastModified();
+            final long length = file.length();
+            SharedJarFile handle = slot.handle;
+            if (handle != null && (handle.lastModified != lastModified || handle.length != length)) {
+                detach(slot, handle);
+                handle = null;
+            }
+            if (handle == null) {
+                handle = new SharedJarFile(slot, file, lastModified, length);
+                slot.handle = handle;
+                OPEN_COUNT.incrementAndGet();
+                SnapLoaderLogger.log(Level.INFO, JarFileCache.class.getName(), "acquire",
+                        "Opened shared jar filesystem " + key);
+            }
+            handle.references++;
+            return new Lease(handle);
+        }
+    }
+
+    /**
+     * Opens a connection to a classpath resource; the connections of the jar resources are forced
+     * to use the JVM cached jar filesystem handles, which are shared with the class loaders,
+     * thus the jar filesystem of a connection must never be closed.
+     *
+     * @param resource the resource URL
+     * @return a new connection to the resource
+     * @throws IOException if the connection cannot be opened
+     */
+    public static URLConnection openConnection(URL resource) throws IOException {
+        final URLConnection connection = resource.openConnection();
+        if (connection instanceof JarURLConnection) {
+            connection.setUseCaches(true);
+        }
+        return connection;
+    }
+
+    /**
+     * Closes the jar filesystem handles that are not referenced at the moment, regardless of
+     * the idle timeout.
+     */
+    public static void evictIdle() {
+        for (Slot slot : SLOTS.values()) {
+            synchronized (slot) {
+                if (slot.handle != null && slot.handle.references == 0) {
+                    detach(slot, slot.handle);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adjusts the period after which an unreferenced jar filesystem handle is closed; the adjustment
+     * applies to the handles released afterward.
+     *
+     * @param idleTimeoutMillis the idle timeout in milliseconds, zero to close the handles
+     *                          once they are released by their last holder (i.e., no caching)
+     */
+    public static void setIdleTimeout(long idleTimeoutMillis) {
+        if (idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Negative idle timeout: " + idleTimeoutMillis);
+        }
+        JarFileCache.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Retrieves the period after which an unreferenced jar filesystem handle is closed.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    public static long getIdleTimeout() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * Retrieves the number of jar filesystems opened by this cache since the start of the process,
+     * i.e., the number of cache misses.
+     *
+     * @return the number of opened jar filesystems
+     */
+    public static int getOpenCount() {
+        return OPEN_COUNT.get();
+    }
+
+    /**
+     * Releases an acquisition of a handle, the caller holds the slot monitor.
+     *
+     * @throws IllegalStateException if the handle has no acquisitions to release
+     */
+    private static void release(Slot slot, SharedJarFile handle) throws IOException {
+        if (handle.references == 0) {
+            throw new IllegalStateException("Shared jar filesystem " + handle.getName()
+                    + " has been released more times than it has been acquired!");
+        }
+        if (--handle.references > 0) {
+            return;
+        }
+        if (slot.handle != handle) {
+            // a stale handle released by its last holder
+            handle.closeHandle();
+            return;
+        }
+        final long timeout = idleTimeoutMillis;
+        if (timeout == 0) {
+            detach(slot, handle);
+            return;
+        }
+        handle.releaseTime = System.nanoTime();
+        scheduleEviction(slot, handle, timeout);
+    }
+
+    private static void scheduleEviction(final Slot slot, final SharedJarFile handle, final long timeout) {
+        getEvictor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (slot) {
+                    if (slot.handle != handle || handle.references > 0) {
+                        return;
+                    }
+                    final long remaining = timeout - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - handle.releaseTime);
+                    if (remaining > 0) {
+                        // re-acquired and released again after this eviction had been scheduled
+                        scheduleEviction(slot, handle, remaining);
+                        return;
+                    }
+                    detach(slot, handle);
+                }
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detaches a handle from its slot, and closes it if it's not referenced, the caller holds the slot monitor.
+     */
+    private static void detach(Slot slot, SharedJarFile handle) {
+        if (slot.handle == handle) {
+            slot.handle = null;
+        }
+        if (handle.references > 0) {
+            return;
+        }
+        try {
+            handle.closeHandle();
+            SnapLoaderLogger.log(Level.INFO, JarFileCache.class.getName(), "detach",
+                    "Closed shared jar filesystem " + handle.getName());
+        } catch (IOException e) {
+            SnapLoaderLogger.log(Level.WARNING, JarFileCache.class.getName(), "detach",
+                    "Failed to close shared jar filesystem " + handle.getName(), e);
+        }
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor getEvictor() {
+        if (evictor == null) {
+            evictor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "snaploader-jar-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            evictor.setRemoveOnCancelPolicy(true);
+        }
+        return evictor;
+    }
+
+    /**
+     * The cache entry of a canonical jar filesystem path, its monitor guards its handle, and the
+     * reference count of its handles.
+     */
+    private static final class Slot {
+        private SharedJarFile handle;
+    }
+
+    /**
+     * An acquisition of a shared jar filesystem handle; closing the lease releases the acquisition
+     * once, and the later closures of the same lease have no effect.
+     */
+    public static final class Lease implements Closeable {
+
+        private final SharedJarFile handle;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(SharedJarFile handle) {
+            this.handle = handle;
+        }
+
+        /**
+         * Retrieves the shared jar filesystem handle of this lease.
+         *
+         * @return the shared jar filesystem handle
+         * @throws IllegalStateException if the lease has been released
+         */
+        public JarFile getJarFile() {
+            if (released.get()) {
+                throw new IllegalStateException("Lease of " + handle.getName() + " has been released!");
+            }
+            return handle;
+        }
+
+        /**
+         * Tests whether this lease has been released.
+         *
+         * @return true if the lease has been released, false otherwise
+         */
+        public boolean isReleased() {
+            return released.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (handle.slot) {
+                release(handle.slot, handle);
+            }
+        }
+    }
+
+    /**
+     * A shared jar filesystem handle, its acquisitions are released by their leases.
+     */
+    private static final class SharedJarFile extends JarFile {
+
+        private final Slot slot;
+        private final long lastModified;
+        private final long length;
+        private int references;
+        private long releaseTime;
+
+        private SharedJarFile(Slot slot, File file, long lastModified, long length) throws IOException {
+            super(file);
+            this.slot = slot;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        /**
+         * Fails, the shared handle is closed by the cache once all of its leases are released.
+         *
+         * @throws IllegalStateException always
+         */
+        @Override
+        public void close() {
+            throw new IllegalStateException("Shared jar filesystem " + getName()
+                    + " must be released by its lease, see JarFileCache#acquire(String)");
+        }
+
+        private void closeHandle() throws IOException {
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.filesystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Transfers byte streams through a fixed-size, per-thread reusable buffer; so that
+ * repeated extractions allocate no memory in the steady state regardless of the size
+ * of the extracted filesystem.
+ * <p>
+ * The transfer buffer is allocated once per thread on first use, and re-allocated only
+ * if the transfer buffer size has been changed through {@link StreamTransfer#setBufferSize(int)}.
+ *
+ * @author pavl_g
+ */
+public final class StreamTransfer {
+
+    /**
+     * The default size of the transfer buffer in bytes (64 KiB).
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int EOF = -1; /* End-of-filesystem */
+
+    private static final ThreadLocal<byte[]> TRANSFER_BUFFER = new ThreadLocal<>();
+
+    private static volatile int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private StreamTransfer() {
+    }
+
+    /**
+     * Transfers all the bytes of an input stream to an output stream until the
+     * end-of-file is reached; the streams are neither flushed nor closed.
+     *
+     * @param source the input stream to read from (not null)
+     * @param sink the output stream to write to (not null)
+     * @return the number of the transferred bytes
+     * @throws IOException if reading or writing has failed or an interrupted I/O operation has occurred
+     */
+    public static long transfer(InputStream source, OutputStream sink) throws IOException {
+        final byte[] buffer = getBuffer();
+        long transferred = 0;
+        for (int bytes = source.read(buffer); bytes != EOF; bytes = source.read(buffer)) {
+            /* use the bytes as the buffer length to write valid data */
+            sink.write(buffer, 0, bytes);
+            transferred += bytes;
+        }
+        return transferred;
+    }
+
+    /**
+     * Adjusts the size of the per-thread transfer buffers, the new size is
+     * applied lazily on the next transfer of each thread.
+     *
+     * @param bufferSize the buffer size in bytes (must be positive)
+     */
+    public static void setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Transfer buffer size must be positive, found " + bufferSize);
+        }
+        StreamTransfer.bufferSize = bufferSize;
+    }
+
+    /**
+     * Retrieves the size of the per-thread transfer buffers.
+     *
+     * @return the buffer size in bytes
+     */
+    public static int getBufferSize() {
+        return bufferSize;
+    }
+
+    private static byte[] getBuffer() {
+        byte[] buffer = TRANSFER_BUFFER.get();
+        if (buffer == null || buffer.length != bufferSize) {
+            buffer = new byte[bufferSize];
+            TRANSFER_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.filesystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+
+/**
+ * Represents the raw data region of a zip entry inside a zip compression filesystem; the
+ * region is located by walking the central directory and the local file header of the entry
+ * without inflating or buffering the entry data.
+ * <p>
+ * For {@link ZipEntry#STORED} entries, the data region is the uncompressed filesystem itself; thus it
+ * could be transferred straight into a destination channel by the kernel (i.e., zero-copy).
+ * <p>
+ * Note: Zip64 archives and archives with prefixed data (e.g., self-extracting archives) are
+ * not supported, the {@link ZipEntryRegion#locate(FileChannel, ZipEntry)} returns null for them; so
+ * that the user application falls back to the streaming routines.
+ *
+ * @author pavl_g
+ */
+public final class ZipEntryRegion {
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int CEN_SIGNATURE = 0x02014b50;
+    private static final int LOC_SIGNATURE = 0x04034b50;
+    private static final int EOCD_LENGTH = 22;
+    private static final int CEN_LENGTH = 46;
+    private static final int LOC_LENGTH = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private final long offset;
+    private final long length;
+
+    private ZipEntryRegion(long offset, long length) {
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Locates the raw data region of a zip entry inside a zip compression.
+     *
+     * @param compression a readable channel of the zip compression filesystem
+     * @param zipEntry the zip entry to locate, as obtained from the compression central directory
+     * @return the data region of the zip entry, or null if the entry cannot be located
+     *         using the plain zip format (i.e., Zip64 or prefixed archives)
+     * @throws IOException if an I/O error has occurred or an interrupted I/O operation has occurred
+     */
+    public static ZipEntryRegion locate(FileChannel compression, ZipEntry zipEntry) throws IOException {
+        final long compressedSize = zipEntry.getCompressedSize();
+        if (compressedSize < 0) {
+            return null;
+        }
+        final long localHeaderOffset = findLocalHeaderOffset(compression, zipEntry.getName());
+        if (localHeaderOffset < 0) {
+            return null;
+        }
+        final ByteBuffer localHeader = ByteBuffer.allocate(LOC_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        if (readFully(compression, localHeader, localHeaderOffset) < LOC_LENGTH
+                || localHeader.getInt(0) != LOC_SIGNATURE) {
+            return null;
+        }
+        final int nameLength = Short.toUnsignedInt(localHeader.getShort(26));
+        final int extraLength = Short.toUnsignedInt(localHeader.getShort(28));
+        final long dataOffset = localHeaderOffset + LOC_LENGTH + nameLength + extraLength;
+        if (dataOffset + compressedSize > compression.size()) {
+            return null;
+        }
+        return new ZipEntryRegion(dataOffset, compressedSize);
+    }
+
+    /**
+     * Transfers the data region from the compression channel to a target channel
+     * utilizing the kernel transfer routines if available (e.g., sendfile, or copy_file_range).
+     *
+     * @param compression the compression channel used to locate this region
+     * @param target the destination channel
+     * @return the number of the transferred bytes
+     * @throws IOException if the compression has been truncated, or if an I/O error has occurred
+     */
+    public long transferTo(FileChannel compression, WritableByteChannel target) throws IOException {
+        long position = offset;
+        final long end = offset + length;
+        while (position < end) {
+            final long transferred = compression.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                throw new IOException("Compression channel has been truncated at position " + position);
+            }
+            position += transferred;
+        }
+        return length;
+    }
+
+    /**
+     * Retrieves the absolute offset of the entry data inside the compression.
+     *
+     * @return the data offset in bytes
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Retrieves the length of the raw entry data inside the compression.
+     *
+     * @return the data length in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+
+    private static long findLocalHeaderOffset(FileChannel compression, String entryName) throws IOException {
+        final long size = compression.size();
+        if (size < EOCD_LENGTH) {
+            return -1;
+        }
+        /* 1) locate the end-of-central-directory record, scanning backward over the archive comment
+         * only if the archive isn't terminated by the record (i.e., commented archives) */
+        ByteBuffer tail = ByteBuffer.allocate(EOCD_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        if (readFully(compression, tail, size - EOCD_LENGTH) == EOCD_LENGTH && tail.getInt(0) == EOCD_SIGNATURE) {
+            return findLocalHeaderOffset(compression, tail, 0, size, entryName);
+        }
+        final int tailLength = (int) Math.min(size, EOCD_LENGTH + MAX_COMMENT_LENGTH);
+        tail = ByteBuffer.allocate(tailLength).order(ByteOrder.LITTLE_ENDIAN);
+        if (readFully(compression, tail, size - tailLength) < tailLength) {
+            return -1;
+        }
+        int eocd = -1;
+        for (int i = tailLength - EOCD_LENGTH; i >= 0; i--) {
+            if (tail.getInt(i) == EOCD_SIGNATURE) {
+                eocd = i;
+                break;
+            }
+        }
+        if (eocd < 0) {
+            return -1;
+        }
+        return findLocalHeaderOffset(compression, tail, eocd, size, entryName);
+    }
+
+    private static long findLocalHeaderOffset(FileChannel compression, ByteBuffer tail, int eocd,
+                                              long size, String entryName) throws IOException {
+        final long centralDirectorySize = Integer.toUnsignedLong(tail.getInt(eocd + 12));
+        final long centralDirectoryOffset = Integer.toUnsignedLong(tail.getInt(eocd + 16));
+        if (centralDirectorySize == ZIP64_MAGIC || centralDirectoryOffset == ZIP64_MAGIC
+                || centralDirectoryOffset + centralDirectorySize > size) {
+            return -1;
+        }
+
+        /* 2) walk the central directory records, matching the encoded entry names */
+        final byte[] name = entryName.getBytes(StandardCharsets.UTF_8);
+        if (centralDirectorySize > Integer.MAX_VALUE) {
+            return -1;
+        }
+        /* the central directory is read into the heap rather than memory-mapped, the mappings are released
+         * only by the garbage collector, which keeps the compression locked on Windows */
+        final ByteBuffer centralDirectory = ByteBuffer.allocate((int) centralDirectorySize)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (readFully(compression, centralDirectory, centralDirectoryOffset) < centralDirectorySize) {
+            return -1;
+        }
+        int record = 0;
+        while (record + CEN_LENGTH <= centralDirectorySize) {
+            if (centralDirectory.getInt(record) != CEN_SIGNATURE) {
+                return -1;
+            }
+            final int nameLength = Short.toUnsignedInt(centralDirectory.getShort(record + 28));
+            final int extraLength = Short.toUnsignedInt(centralDirectory.getShort(record + 30));
+            final int commentLength = Short.toUnsignedInt(centralDirectory.getShort(record + 32));
+            if (nameLength == name.length && nameEquals(centralDirectory, record + CEN_LENGTH, name)) {
+                final long localHeaderOffset = Integer.toUnsignedLong(centralDirectory.getInt(record + 42));
+                return localHeaderOffset == ZIP64_MAGIC ? -1 : localHeaderOffset;
+            }
+            record += CEN_LENGTH + nameLength + extraLength + commentLength;
+        }
+        return -1;
+    }
+
+    private static boolean nameEquals(ByteBuffer centralDirectory, int index, byte[] name) {
+        for (int i = 0; i < name.length; i++) {
+            if (centralDirectory.get(index + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            final int bytes = channel.read(buffer, position + read);
+            if (bytes < 0) {
+                break;
+            }
+            read += bytes;
+        }
+        return read;
+    }
+}
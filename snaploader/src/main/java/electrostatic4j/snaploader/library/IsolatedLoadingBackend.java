@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.library;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+import electrostatic4j.snaploader.NativeLibraryRegistry;
+import electrostatic4j.snaploader.filesystem.FileFingerprint;
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+/**
+ * A loading backend binding the libraries to a dedicated {@link LibraryClassLoader}.
+ * <p>
+ * The Java virtual machine binds a library file to a single class loader, and fails loading it into
+ * another class loader (i.e., "already loaded in another classloader"); thus a library file held by another
+ * class loader is loaded from a version-unique copy ([basename]-[crc]-[class loader id].[extension]) beside
+ * the library file instead. The class loaders holding the library files are tracked; so that a held library file
+ * is detected before loading it, and it's copied once, without failing loads and re-extractions.
+ * <p>
+ * Once a class loader is garbage-collected, its holder records and its loaded library identities
+ * (see {@link NativeLibraryRegistry}) are evicted, and its version-unique copies are deleted by the next load.
+ * <p>
+ * The libraries are unloaded when their class loader is garbage-collected, closing their handles has no effect.
+ *
+ * @author pavl_g
+ */
+public final class IsolatedLoadingBackend implements LibraryLoadingBackend {
+
+    private static final String LOADED_IN_ANOTHER_CLASS_LOADER = "already loaded in another classloader";
+
+    /* the class loaders holding the library files by their real paths, or a marker of an unknown class loader */
+    private static final ConcurrentHashMap<String, Object> HOLDERS = new ConcurrentHashMap<>();
+    private static final Object UNKNOWN_HOLDER = new Object();
+
+    /* the holders of the collected class loaders, and the copies of the collected class loaders yet to delete */
+    private static final ReferenceQueue<ClassLoader> COLLECTED_HOLDERS = new ReferenceQueue<>();
+    private static final Set<Path> STALE_COPIES = ConcurrentHashMap.newKeySet();
+
+    /* the loaded library handles reference their backend, the class loader must stay collectable */
+    private final WeakReference<LibraryClassLoader> classLoader;
+    private final String scope;
+
+    IsolatedLoadingBackend(LibraryClassLoader classLoader) {
+        this.classLoader = new WeakReference<>(classLoader);
+        this.scope = classLoader.toString();
+    }
+
+    @Override
+    public LibraryHandle load(String library) {
+        final long start = System.nanoTime();
+        final LibraryClassLoader classLoader = getClassLoader();
+        if (classLoader == null) {
+            throw new IllegalStateException(scope + " has been collected!");
+        }
+        String boundLibrary = isHeldByAnotherClassLoader(library, classLoader)
+                ? copyVersion(library, classLoader) : library;
+        try {
+            classLoader.load(boundLibrary);
+        } catch (UnsatisfiedLinkError error) {
+            if (!isLoadedByAnotherClassLoader(error) || !boundLibrary.equals(library)) {
+                throw error;
+            }
+            // held by a class loader out of sight (e.g., another copy of the snaploader API)
+            bind(library, null);
+            boundLibrary = copyVersion(library, classLoader);
+            classLoader.load(boundLibrary);
+        }
+        bind(boundLibrary, classLoader, !boundLibrary.equals(library));
+        return new LibraryHandle(boundLibrary, this, System.nanoTime() - start) {
+            @Override
+            protected long lookupSymbol(String symbol) {
+                // System.load() libraries cannot be looked up by symbol, see the ArenaLoadingBackend
+                return 0L;
+            }
+
+            @Override
+            protected void unload() {
+                // unloaded by collecting the class loader
+            }
+        };
+    }
+
+    /**
+     * Tests whether a loading error designates a library file bound to another class loader.
+     *
+     * @param error the loading error
+     * @return true if the library file is held by another class loader, false otherwise
+     */
+    public static boolean isLoadedByAnotherClassLoader(UnsatisfiedLinkError error) {
+        return error.getMessage() != null && error.getMessage().contains(LOADED_IN_ANOTHER_CLASS_LOADER);
+    }
+
+    /**
+     * Records the class loader holding a loaded library file.
+     *
+     * @param library the absolute path of the loaded library file
+     * @param holder the class loader of the library, null if unknown
+     */
+    static void bind(String library, ClassLoader holder) {
+        bind(library, holder, false);
+    }
+
+    private static void bind(String library, ClassLoader holder, boolean isCopy) {
+        evictCollectedHolders();
+        final String key = getKey(library);
+        HOLDERS.put(key, holder == null ? UNKNOWN_HOLDER : new Holder(key, holder, isCopy));
+    }
+
+    /**
+     * Evicts the holder records, and the loaded library identities of the collected class loaders; and
+     * deletes their version-unique copies, a copy that cannot be deleted yet (e.g., it's still mapped on Windows)
+     * is deleted by a later eviction.
+     */
+    private static void evictCollectedHolders() {
+        Reference<? extends ClassLoader> reference;
+        while ((reference = COLLECTED_HOLDERS.poll()) != null) {
+            final Holder holder = (Holder) reference;
+            HOLDERS.remove(holder.library, holder);
+            if (holder.scope != null) {
+                NativeLibraryRegistry.evictScope(holder.scope);
+            }
+            // a copy is named after its class loader id, thus it isn't rebound by another class loader
+            if (holder.isCopy && !HOLDERS.containsKey(holder.library)) {
+                STALE_COPIES.add(Paths.get(holder.library));
+            }
+        }
+        for (Path copy : STALE_COPIES) {
+            try {
+                Files.deleteIfExists(copy);
+                STALE_COPIES.remove(copy);
+            } catch (IOException e) {
+                SnapLoaderLogger.log(Level.FINE, IsolatedLoadingBackend.class.getName(), "evictCollectedHolders",
+                        "Cannot delete the stale copy " + copy + " yet", e);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the library class loader of this backend.
+     *
+     * @return the class loader binding the libraries, or null if it has been collected
+     */
+    public LibraryClassLoader getClassLoader() {
+        return classLoader.get();
+    }
+
+    @Override
+    public boolean isSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isUnloadable() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return "System.load@" + scope;
+    }
+
+    @Override
+    public String getScope() {
+        return scope;
+    }
+
+    private static boolean isHeldByAnotherClassLoader(String library, ClassLoader classLoader) {
+        final Object holder = HOLDERS.get(getKey(library));
+        if (holder == null || holder == UNKNOWN_HOLDER) {
+            return holder != null;
+        }
+        // a collected holder unloads the library file eventually, a failing load is copied then
+        final Object holderClassLoader = ((WeakReference<?>) holder).get();
+        return holderClassLoader != null && holderClassLoader != classLoader;
+    }
+
+    /**
+     * Copies a library file into a version-unique file of this class loader, the copy is reused if it exists.
+     *
+     * @param library the absolute path of the library file
+     * @param classLoader the class loader to load the copy
+     * @return the absolute path of the copy
+     * @throws UnsatisfiedLinkError if the library file cannot be copied
+     */
+    private String copyVersion(String library, LibraryClassLoader classLoader) {
+        evictCollectedHolders();
+        final Path source = Paths.get(library);
+        final String fileName = source.getFileName().toString();
+        final int extension = fileName.indexOf('.') > 0 ? fileName.indexOf('.') : fileName.length();
+        try {
+            final Path copy = source.resolveSibling(fileName.substring(0, extension) + "-"
+                    + Long.toHexString(getVersion(source)) + "-" + classLoader.getId() + fileName.substring(extension));
+            if (!Files.exists(copy) || Files.size(copy) != Files.size(source)) {
+                final Path staging = Files.createTempFile(source.getParent(), "." + fileName, ".staging");
+                try {
+                    Files.copy(source, staging, StandardCopyOption.REPLACE_EXISTING);
+                    try {
+                        Files.move(staging, copy, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(staging, copy, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(staging);
+                }
+            }
+            SnapLoaderLogger.log(Level.INFO, getClass().getName(), "copyVersion",
+                    "Library is held by another class loader, loading " + copy + " into " + classLoader);
+            return copy.toString();
+        } catch (IOException e) {
+            final UnsatisfiedLinkError error = new UnsatisfiedLinkError("Cannot copy the library " + library
+                    + " held by another class loader");
+            error.initCause(e);
+            throw error;
+        }
+    }
+
+    /**
+     * Retrieves the version of a library file, i.e., the CRC-32 checksum from its recorded fingerprint,
+     * or computed from the library file otherwise.
+     */
+    private static long getVersion(Path library) throws IOException {
+        final FileFingerprint fingerprint = FileFingerprint.read(library);
+        if (fingerprint != null) {
+            return fingerprint.getCrc();
+        }
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[8192];
+        try (InputStream input = Files.newInputStream(library)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * A weak record of the class loader holding a library file, enqueued once the class loader is collected.
+     */
+    private static final class Holder extends WeakReference<ClassLoader> {
+
+        private final String library;
+        private final String scope;
+        private final boolean isCopy;
+
+        private Holder(String library, ClassLoader classLoader, boolean isCopy) {
+            super(classLoader, COLLECTED_HOLDERS);
+            this.library = library;
+            this.scope = classLoader instanceof LibraryClassLoader
+                    ? ((LibraryClassLoader) classLoader).getLoadingBackend().getScope() : null;
+            this.isCopy = isCopy;
+        }
+    }
+
+    private static String getKey(String library) {
+        try {
+            return Paths.get(library).toRealPath().toString();
+        } catch (IOException e) {
+            return library;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.library;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A dedicated class loader of a native library version, the libraries loaded by its
+ * {@link LibraryClassLoader#getLoadingBackend()} are bound to this class loader; thus the JNI native methods
+ * of the classes defined by this class loader (e.g., the classes of a native plugin loaded from the
+ * class loader urls) are linked against these libraries.
+ * <p>
+ * The class loader is collectable, once it's unreachable (i.e., its classes and their instances), the
+ * Java virtual machine unloads its libraries; so that a new version of a native plugin could be loaded
+ * into a new library class loader without restarting the JVM (hot-swapping), and multiple tenants could
+ * load the same library each into its own class loader.
+ * <p>
+ * Note: the classes delegated to the parent class loader are not defined by this class loader, the native plugin
+ * classes must not be visible to the parent class loader.
+ *
+ * @author pavl_g
+ */
+public class LibraryClassLoader extends URLClassLoader {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final int id = SEQUENCE.incrementAndGet();
+    private final IsolatedLoadingBackend loadingBackend = new IsolatedLoadingBackend(this);
+    private Method binder;
+
+    /**
+     * Instantiates a library class loader.
+     *
+     * @param urls the urls of the classes bound to the libraries of this class loader (e.g., the plugin jar),
+     *             an empty array to load the libraries only
+     * @param parent the parent class loader
+     */
+    public LibraryClassLoader(URL[] urls, ClassLoader parent) {
+        super(urls, parent);
+    }
+
+    /**
+     * Retrieves the loading backend binding the libraries to this class loader, see
+     * {@link electrostatic4j.snaploader.NativeBinaryLoader#setLoadingBackend(LibraryLoadingBackend)}.
+     *
+     * @return the isolated loading backend of this class loader
+     */
+    public IsolatedLoadingBackend getLoadingBackend() {
+        return loadingBackend;
+    }
+
+    /**
+     * Retrieves the process-wide unique id of this class loader.
+     *
+     * @return the class loader id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Loads a native library bound to this class loader.
+     *
+     * @param library the absolute path of the library file
+     * @throws UnsatisfiedLinkError if the library cannot be loaded
+     */
+    void load(String library) {
+        try {
+            getBinder().invoke(null, library);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Defines the {@link LibraryBinder} in this class loader on the first load.
+     *
+     * @return the load method of the defined binder
+     */
+    private synchronized Method getBinder() {
+        if (binder != null) {
+            return binder;
+        }
+        final String binaryName = LibraryBinder.class.getName();
+        try (InputStream classFile = LibraryBinder.class.getResourceAsStream(
+                binaryName.substring(binaryName.lastIndexOf('.') + 1) + ".class")) {
+            if (classFile == null) {
+                throw new IllegalStateException("Cannot locate the class file of " + binaryName);
+            }
+            final ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = classFile.read(buffer)) != -1) {
+                bytecode.write(buffer, 0, read);
+            }
+            final Class<?> binderClass = defineClass(binaryName, bytecode.toByteArray(), 0, bytecode.size(),
+                    LibraryBinder.class.getProtectionDomain());
+            final Method load = binderClass.getDeclaredMethod("load", String.class);
+            load.setAccessible(true);
+            binder = load;
+            return binder;
+        } catch (IOException | NoSuchMethodException e) {
+            throw new IllegalStateException("Cannot define the library binder in " + this, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "#" + id;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.library;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import electrostatic4j.snaploader.platform.binary.BinarySource;
+import electrostatic4j.snaploader.platform.binary.ElfFile;
+import electrostatic4j.snaploader.platform.util.PropertiesProvider;
+import electrostatic4j.snaploader.platform.util.SystemLibraries;
+
+/**
+ * Resolves the dependency closure of a native library from its ELF dynamic section (DT_NEEDED);
+ * the dependencies bundled in the same platform directory of the jar filesystem are located by their
+ * file names, or by their SONAMEs, and are ordered topologically; so that loading them in order
+ * satisfies the dependencies of each library before loading it.
+ * <p>
+ * The dependencies that are neither bundled nor provided by the host system
+ * (see {@link SystemLibraries}) are reported as unresolved.
+ *
+ * @author pavl_g
+ */
+public class LibraryDependencyResolver {
+
+    protected final ZipFile compression;
+    protected final String platformDirectory;
+    protected final List<String> bundledDependencies = new ArrayList<>();
+    protected final Set<String> unresolvedDependencies = new LinkedHashSet<>();
+    protected Map<String, String> sonameIndex;
+    protected Set<String> loadedLibraries;
+
+    /**
+     * Instantiates a dependency resolver for the libraries of a platform directory.
+     *
+     * @param compression the jar filesystem containing the libraries (not closed by this resolver)
+     * @param platformDirectory the platform directory of the libraries inside the jar filesystem
+     */
+    public LibraryDependencyResolver(ZipFile compression, String platformDirectory) {
+        this.compression = compression;
+        this.platformDirectory = platformDirectory;
+    }
+
+    /**
+     * Resolves the dependency closure of a library.
+     *
+     * @param libraryFile the file name of the library inside the platform directory
+     * @param library the ELF file of the library, including its dynamic section
+     * @return the file names of the bundled dependencies in their loading order (dependencies first),
+     *         excluding the library itself
+     * @throws IOException if the jar filesystem cannot be read
+     */
+    public List<String> resolve(String libraryFile, ElfFile library) throws IOException {
+        bundledDependencies.clear();
+        unresolvedDependencies.clear();
+        loadedLibraries = SystemLibraries.getLoadedLibraries();
+        final Set<String> visited = new HashSet<>();
+        visited.add(libraryFile);
+        visit(library, visited);
+        return Collections.unmodifiableList(new ArrayList<>(bundledDependencies));
+    }
+
+    /**
+     * Retrieves the dependencies of the last resolution that are neither bundled nor provided by the system.
+     *
+     * @return an unmodifiable set of the unresolved dependency names
+     */
+    public Set<String> getUnresolvedDependencies() {
+        return Collections.unmodifiableSet(unresolvedDependencies);
+    }
+
+    /**
+     * Visits the dependencies of a library depth-first, and appends each bundled dependency after its own
+     * dependencies (the post-order); cyclic dependencies are visited only once.
+     */
+    private void visit(ElfFile library, Set<String> visited) throws IOException {
+        for (String neededLibrary : library.getNeededLibraries()) {
+            final String dependency = locateBundledDependency(neededLibrary);
+            if (dependency == null) {
+                if (!SystemLibraries.isProvided(neededLibrary, loadedLibraries)) {
+                    unresolvedDependencies.add(neededLibrary);
+                }
+                continue;
+            }
+            if (!visited.add(dependency)) {
+                continue;
+            }
+            final ElfFile dependencyElf = readElf(compression.getEntry(getEntryName(dependency)));
+            if (dependencyElf != null) {
+                visit(dependencyElf, visited);
+            }
+            bundledDependencies.add(dependency);
+        }
+    }
+
+    /**
+     * Locates a bundled dependency by its file name, then by its SONAME.
+     *
+     * @param neededLibrary the needed library name (DT_NEEDED)
+     * @return the file name of the bundled dependency, or null if it's not bundled
+     * @throws IOException if the jar filesystem cannot be read
+     */
+    protected String locateBundledDependency(String neededLibrary) throws IOException {
+        final ZipEntry zipEntry = compression.getEntry(getEntryName(neededLibrary));
+        if (zipEntry != null && !zipEntry.isDirectory()) {
+            return neededLibrary;
+        }
+        return getSonameIndex().get(neededLibrary);
+    }
+
+    /**
+     * Lazily indexes the shared objects of the platform directory by their SONAMEs.
+     */
+    private Map<String, String> getSonameIndex() throws IOException {
+        if (sonameIndex != null) {
+            return sonameIndex;
+        }
+        sonameIndex = new HashMap<>();
+        final String prefix = platformDirectory + PropertiesProvider.ZIP_FILE_SEPARATOR.getSystemProperty();
+        final Enumeration<? extends ZipEntry> entries = compression.entries();
+        while (entries.hasMoreElements()) {
+            final ZipEntry zipEntry = entries.nextElement();
+            final String name = zipEntry.getName();
+            if (zipEntry.isDirectory() || !name.startsWith(prefix)
+                    || name.indexOf('/', prefix.length()) >= 0 || !name.contains(".so")) {
+                continue;
+            }
+            final ElfFile elfFile = readElf(zipEntry);
+            if (elfFile != null && elfFile.getSoname() != null) {
+                sonameIndex.putIfAbsent(elfFile.getSoname(), name.substring(prefix.length()));
+            }
+        }
+        return sonameIndex;
+    }
+
+    private ElfFile readElf(ZipEntry zipEntry) throws IOException {
+        try (BinarySource source = BinarySource.of(compression, zipEntry)) {
+            return ElfFile.read(source, true);
+        }
+    }
+
+    private String getEntryName(String libraryFile) {
+        return platformDirectory + PropertiesProvider.ZIP_FILE_SEPARATOR.getSystemProperty() + libraryFile;
+    }
+}
@@ -36,6 +36,7 @@ import java.io.IOException;
 import java.util.zip.ZipFile;
 import electrostatic4j.snaploader.filesystem.ConcurrentFileExtractor;
 import electrostatic4j.snaploader.filesystem.FileExtractor;
+import electrostatic4j.snaploader.filesystem.JarFileCache;
 
 /**
  * Represents a thread-safe dynamic library (.so, .dll, .dylib) extractor based on the {@link FileExtractor}.
@@ -56,6 +57,19 @@ public class LibraryExtractor extends ConcurrentFileExtractor {
         super(new LibraryLocator(compression, libraryPath), destination);
     }
 
+    /**
+     * Instantiates a native dynamic library extractor for a shared external jar, the lease of the jar
+     * is released when the extractor is closed.
+     *
+     * @param compressionLease the lease of the shared jar, see {@link JarFileCache#acquire(String)}
+     * @param libraryPath the path of the library inside the jar
+     * @param destination the extraction destination filesystem path
+     * @throws IOException if the jar filesystem to be located is not found, or if the extraction destination is not found
+     */
+    public LibraryExtractor(JarFileCache.Lease compressionLease, String libraryPath, String destination) throws IOException {
+        super(new LibraryLocator(compressionLease, libraryPath), destination);
+    }
+
     /**
      * Instantiates a native dynamic library extractor with a library path and an extract destination filesystem path. This
      * object locates a dynamic native library inside the stock jar filesystem based on a classpath input stream
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.library;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a native dynamic library loaded by a {@link LibraryLoadingBackend}, the handle reports the
+ * loading time of the library, and the accumulated timings of its symbol lookups.
+ * <p>
+ * Closing the handle of an unloadable library unloads the library, the symbols looked up from the
+ * library are invalidated; the handles of the other libraries are closed without unloading the library.
+ *
+ * @author pavl_g
+ */
+public abstract class LibraryHandle implements AutoCloseable {
+
+    private final String library;
+    private final LibraryLoadingBackend backend;
+    private final long loadingNanos;
+    private final AtomicLong symbolLookupNanos = new AtomicLong();
+    private final AtomicLong symbolLookups = new AtomicLong();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Instantiates a handle of a loaded library.
+     *
+     * @param library the absolute path of the loaded library file
+     * @param backend the backend that has loaded the library
+     * @param loadingNanos the elapsed time of loading the library in nanoseconds
+     */
+    protected LibraryHandle(String library, LibraryLoadingBackend backend, long loadingNanos) {
+        this.library = library;
+        this.backend = backend;
+        this.loadingNanos = loadingNanos;
+    }
+
+    /**
+     * Looks up the address of an exported symbol of the library, and accumulates its timing.
+     *
+     * @param symbol the name of the symbol (e.g., a C function name)
+     * @return the address of the symbol, or 0 if the library doesn't export the symbol (or the backend
+     *         cannot look up the symbols)
+     * @throws IllegalStateException if the handle has been closed
+     * @see LibraryHandle#isSymbolLookupSupported()
+     */
+    public final long findSymbol(String symbol) {
+        if (closed.get()) {
+            throw new IllegalStateException("Library has been unloaded: " + library);
+        }
+        final long start = System.nanoTime();
+        try {
+            return lookupSymbol(symbol);
+        } finally {
+            symbolLookupNanos.addAndGet(System.nanoTime() - start);
+            symbolLookups.incrementAndGet();
+        }
+    }
+
+    /**
+     * Tests whether the backend of this handle can look up the symbols of the library, the handles
+     * of the unsupported backends report 0 for every symbol.
+     *
+     * @return true if the symbols of the library can be looked up, false otherwise
+     */
+    public boolean isSymbolLookupSupported() {
+        return false;
+    }
+
+    /**
+     * Looks up the address of an exported symbol of the library by the backend.
+     *
+     * @param symbol the name of the symbol
+     * @return the address of the symbol, or 0 if the library doesn't export the symbol
+     */
+    protected abstract long lookupSymbol(String symbol);
+
+    /**
+     * Unloads the library by the backend, this is called once by the first {@link LibraryHandle#close()}.
+     */
+    protected abstract void unload();
+
+    /**
+     * Closes this handle, unloading the library if its backend is unloadable; closing a closed
+     * handle has no effect.
+     */
+    @Override
+    public final void close() {
+        if (closed.compareAndSet(false, true)) {
+            unload();
+        }
+    }
+
+    /**
+     * Tests whether this handle is open.
+     *
+     * @return true if the handle has not been closed, false otherwise
+     */
+    public boolean isOpen() {
+        return !closed.get();
+    }
+
+    /**
+     * Tests whether closing this handle unloads the library.
+     *
+     * @return true if the library is unloadable, false otherwise
+     */
+    public boolean isUnloadable() {
+        return backend.isUnloadable();
+    }
+
+    /**
+     * Retrieves the absolute path of the loaded library file.
+     *
+     * @return the library file path
+     */
+    public String getLibrary() {
+        return library;
+    }
+
+    /**
+     * Retrieves the backend that has loaded the library.
+     *
+     * @return the loading backend
+     */
+    public LibraryLoadingBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Retrieves the elapsed time of loading the library.
+     *
+     * @return the loading time in nanoseconds
+     */
+    public long getLoadingNanos() {
+        return loadingNanos;
+    }
+
+    /**
+     * Retrieves the accumulated time of the symbol lookups of the library.
+     *
+     * @return the symbol lookup time in nanoseconds
+     */
+    public long getSymbolLookupNanos() {
+        return symbolLookupNanos.get();
+    }
+
+    /**
+     * Retrieves the number of the symbol lookups of the library.
+     *
+     * @return the number of the symbol lookups
+     */
+    public long getSymbolLookups() {
+        return symbolLookups.get();
+    }
+
+    @Override
+    public String toString() {
+        return library + " [" + backend.getName() + ", loaded in " + loadingNanos / 1000 + " us, "
+                + getSymbolLookups() + " symbol lookups in " + getSymbolLookupNanos() / 1000 + " us]";
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.library;
+
+/**
+ * A loading backend binds a native dynamic library file into the running process, and produces
+ * a {@link LibraryHandle} of the loaded library.
+ * <p>
+ * The default backend is the {@link SystemLoadingBackend} (i.e., {@link System#load(String)}), that binds the
+ * library to the class loader of the snaploader API for the lifetime of the class loader, and links the JNI native
+ * methods; the {@link ArenaLoadingBackend} loads the library into a memory arena on Java 22+, so that the library
+ * could be unloaded, and reloaded without restarting the JVM; and the {@link IsolatedLoadingBackend} binds the library
+ * to a dedicated, collectable {@link LibraryClassLoader}.
+ *
+ * @author pavl_g
+ * @see electrostatic4j.snaploader.NativeBinaryLoader#setLoadingBackend(LibraryLoadingBackend)
+ */
+public interface LibraryLoadingBackend {
+
+    /**
+     * Loads a native dynamic library file into the running process.
+     *
+     * @param library the absolute path of the library file
+     * @return a new handle of the loaded library
+     * @throws UnsatisfiedLinkError if the library cannot be loaded
+     */
+    LibraryHandle load(String library);
+
+    /**
+     * Tests whether the running Java runtime supports this backend.
+     *
+     * @return true if the backend is supported, false otherwise
+     */
+    boolean isSupported();
+
+    /**
+     * Tests whether the libraries loaded by this backend could be unloaded by closing their handles.
+     *
+     * @return true if the libraries are unloadable, false if they live as long as their class loader
+     */
+    boolean isUnloadable();
+
+    /**
+     * Retrieves the name of this backend (used for reporting).
+     *
+     * @return the backend name
+     */
+    String getName();
+
+    /**
+     * Retrieves the scope of the libraries loaded by this backend; a library loaded in a scope is distinct from
+     * the same library loaded in another scope (e.g., the libraries bound to different class loaders).
+     *
+     * @return the scope of this backend, or null if the libraries are loaded process-wide
+     * @see electrostatic4j.snaploader.NativeBinaryLoader#getLibraryIdentity()
+     */
+    default String getScope() {
+        return null;
+    }
+}
@@ -36,6 +36,7 @@ import java.io.IOException;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import electrostatic4j.snaploader.filesystem.FileLocator;
+import electrostatic4j.snaploader.filesystem.JarFileCache;
 
 /**
  * Locates a library inside a jar filesystem, the probable source for the native dynamic libraries to extract and load.
@@ -62,4 +63,15 @@ public class LibraryLocator extends FileLocator {
     public LibraryLocator(ZipFile compression, String filePath) throws IOException {
         super(compression, filePath);
     }
+
+    /**
+     * Locates a library inside a shared external jar, the lease of the jar is released when the locator is closed.
+     *
+     * @param compressionLease the lease of the shared jar, see {@link JarFileCache#acquire(String)}
+     * @param filePath the path to the library inside the jar
+     * @throws IOException if the jar to be located is not found or an interrupt I/O operation has occurred.
+     */
+    public LibraryLocator(JarFileCache.Lease compressionLease, String filePath) throws IOException {
+        super(compressionLease, filePath);
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.library;
+
+/**
+ * The default loading backend, that loads the libraries by {@link System#load(String)}; the libraries are
+ * bound to the class loader of the snaploader API, and their JNI native methods are linked.
+ * <p>
+ * The libraries are unloaded only when their class loader is garbage-collected, and their symbols cannot
+ * be looked up by address (i.e., their handles report 0 for every symbol); closing their handles has no effect.
+ *
+ * @author pavl_g
+ */
+public final class SystemLoadingBackend implements LibraryLoadingBackend {
+
+    /**
+     * The singleton instance of the system loading backend.
+     */
+    public static final SystemLoadingBackend INSTANCE = new SystemLoadingBackend();
+
+    private SystemLoadingBackend() {
+    }
+
+    @Override
+    public LibraryHandle load(String library) {
+        final long start = System.nanoTime();
+        System.load(library);
+        IsolatedLoadingBackend.bind(library, SystemLoadingBackend.class.getClassLoader());
+        return new LibraryHandle(library, this, System.nanoTime() - start) {
+            @Override
+            protected long lookupSymbol(String symbol) {
+                // System.load() libraries cannot be looked up by symbol, see the ArenaLoadingBackend
+                return 0L;
+            }
+
+            @Override
+            protected void unload() {
+                // pinned by the class loader
+            }
+        };
+    }
+
+    @Override
+    public boolean isSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isUnloadable() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return "System.load";
+    }
+}
@@ -31,6 +31,7 @@
  */
 
 /**
- * Provides specialized implementation for {@link electrostatic4j.snaploader.filesystem.FileLocator} and {@link electrostatic4j.snaploader.filesystem.FileExtractor}.
+ * Provides specialized implementation for {@link electrostatic4j.snaploader.filesystem.FileLocator} and {@link electrostatic4j.snaploader.filesystem.FileExtractor},
+ * and the backends loading the native libraries into the process (see {@link electrostatic4j.snaploader.library.LibraryLoadingBackend}).
  */
 package electrostatic4j.snaploader.library;
\ No newline at end of file
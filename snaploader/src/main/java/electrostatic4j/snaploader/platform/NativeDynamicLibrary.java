@@ -36,6 +36,7 @@ import java.io.File;
 import electrostatic4j.snaploader.LibraryInfo;
 import electrostatic4j.snaploader.NativeBinaryLoader;
 import electrostatic4j.snaploader.filesystem.DirectoryPath;
+import electrostatic4j.snaploader.platform.util.CpuFeature;
 import electrostatic4j.snaploader.platform.util.NativeVariant;
 import electrostatic4j.snaploader.platform.util.PlatformPredicate;
 import electrostatic4j.snaploader.platform.util.PropertiesProvider;
@@ -80,6 +81,12 @@ public class NativeDynamicLibrary {
      */
     protected PlatformPredicate platformPredicate;
 
+    /**
+     * A bitmask of the CPU features required by this library variant, zero for
+     * the baseline variant.
+     */
+    protected long requiredFeatures;
+
     /**
      * Creates a Native dynamic library from a relative directory and a library filesystem.
      *
@@ -109,29 +116,50 @@ public class NativeDynamicLibrary {
         this.platformPredicate = platformPredicate;
     }
 
+    /**
+     * Creates a CPU-feature-specific Native dynamic library variant from a relative directory and a library filesystem,
+     * the variant is selected only if the host CPU supports all the required features, and the variants of
+     * the higher tiers are selected first (see {@link CpuFeature#getTier()}).
+     *
+     * @param platformDirectory the library directory inside the jar compression, "null" for the default library directory.
+     * @param libraryFile the full library name including the platform extension, "null" to rely on the library info.
+     * @param platformPredicate the predicate to test against; that if evaluated as true, the native library will be selected
+     *                  to be loaded by the native loader
+     * @param requiredFeatures the CPU features required by this library variant
+     */
+    public NativeDynamicLibrary(String platformDirectory, String libraryFile,
+                                PlatformPredicate platformPredicate, CpuFeature... requiredFeatures) {
+        this(platformDirectory, libraryFile, platformPredicate);
+        this.requiredFeatures = CpuFeature.maskOf(requiredFeatures);
+    }
+
+    /**
+     * Creates a CPU-feature-specific Native dynamic library variant from a relative directory.
+     *
+     * @param platformDirectory the library directory inside the jar compression, "null" for the default library directory.
+     * @param platformPredicate the predicate to test against; that if evaluated as true, the native library will be selected
+     *                  to be loaded by the native loader
+     * @param requiredFeatures the CPU features required by this library variant
+     */
+    public NativeDynamicLibrary(String platformDirectory, PlatformPredicate platformPredicate,
+                                CpuFeature... requiredFeatures) {
+        this(platformDirectory, null, platformPredicate, requiredFeatures);
+    }
+
     /**
      * Initializes the native dynamic library with the library info.
      *
      * @param libraryInfo wraps abstract data representing the native library
+     * @deprecated this mutates the library object, which is commonly shared among the loaders
+     *             (e.g., {@link electrostatic4j.snaploader.platform.util.DefaultDynamicLibraries});
+     *             use {@link ResolvedLibrary#resolve(NativeDynamicLibrary, LibraryInfo)} instead.
      */
+    @Deprecated
     public void initWithLibraryInfo(LibraryInfo libraryInfo) {
 
         /* Initializes the library file if it's not initialized by the user */
         if (libraryFile == null) {
-            // default values for library prefix
-            // and library extensions
-            String libraryPrefix = "lib";
-            String libraryExtension = ".so";
-
-            // reassign according to the operating system environment
-            if (NativeVariant.Os.isMac()) {
-                libraryExtension = ".dylib";
-            } else if (NativeVariant.Os.isWindows()) {
-                libraryExtension = ".dll";
-                libraryPrefix = ""; // selectively remove the prefixed value on Windows
-            }
-
-            libraryFile = libraryPrefix + libraryInfo.getBaseName() + libraryExtension;
+            libraryFile = getPlatformLibraryFile(libraryInfo.getBaseName());
         }
 
         /* Initializes the library jar path to locate before extracting, "null" to use the classpath */
@@ -200,4 +228,47 @@ public class NativeDynamicLibrary {
     public PlatformPredicate getPlatformPredicate() {
         return platformPredicate;
     }
+
+    /**
+     * Retrieves the CPU features required by this library variant.
+     *
+     * @return a bitmask of the required {@link CpuFeature}s, zero for the baseline variant
+     */
+    public long getRequiredFeatures() {
+        return requiredFeatures;
+    }
+
+    /**
+     * Retrieves the performance tier of this library variant, that is the highest tier
+     * among its required CPU features.
+     *
+     * @return the tier of this variant, zero for the baseline variant
+     */
+    public int getTier() {
+        return CpuFeature.tierOf(requiredFeatures);
+    }
+
+    /**
+     * Retrieves the full library name of a library basename with the prefix and the extension
+     * of the current operating system (e.g., lib[basename].so, lib[basename].dylib, or [basename].dll).
+     *
+     * @param baseName the library basename
+     * @return the full library name of the current platform
+     */
+    protected static String getPlatformLibraryFile(String baseName) {
+        // default values for library prefix
+        // and library extensions
+        String libraryPrefix = "lib";
+        String libraryExtension = ".so";
+
+        // reassign according to the operating system environment
+        if (NativeVariant.Os.isMac()) {
+            libraryExtension = ".dylib";
+        } else if (NativeVariant.Os.isWindows()) {
+            libraryExtension = ".dll";
+            libraryPrefix = ""; // selectively remove the prefixed value on Windows
+        }
+
+        return libraryPrefix + baseName + libraryExtension;
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import electrostatic4j.snaploader.LibraryInfo;
+import electrostatic4j.snaploader.NativeBinaryLoader;
+import electrostatic4j.snaploader.filesystem.DirectoryPath;
+import electrostatic4j.snaploader.platform.util.PropertiesProvider;
+
+/**
+ * Represents an immutable native dynamic library resolved against a {@link LibraryInfo}; the
+ * compression and the extraction paths are computed once on resolution, and the registered
+ * library object is left untouched, so that it could be safely shared among the loaders.
+ * <p>
+ * A resolved library is produced once per {@link NativeBinaryLoader} by
+ * {@link NativeBinaryLoader#initPlatformLibrary()}.
+ *
+ * @author pavl_g
+ */
+public final class ResolvedLibrary extends NativeDynamicLibrary {
+
+    private final NativeDynamicLibrary registeredLibrary;
+    private final String compressedLibrary;
+    private final String extractedLibrary;
+    private final Path extractedLibraryPath;
+    private final String identity;
+    private final String contentDigest;
+
+    private ResolvedLibrary(NativeDynamicLibrary registeredLibrary, String jarPath, String platformDirectory,
+                            String libraryFile, DirectoryPath directoryPath) {
+        this(registeredLibrary, jarPath, platformDirectory, libraryFile, directoryPath, null);
+    }
+
+    private ResolvedLibrary(NativeDynamicLibrary registeredLibrary, String jarPath, String platformDirectory,
+                            String libraryFile, DirectoryPath directoryPath, String contentDigest) {
+        super(platformDirectory, libraryFile, registeredLibrary.getPlatformPredicate());
+        this.registeredLibrary = registeredLibrary;
+        this.requiredFeatures = registeredLibrary.requiredFeatures;
+        this.jarPath = jarPath;
+        this.directoryPath = directoryPath;
+        this.compressedLibrary = platformDirectory + PropertiesProvider.ZIP_FILE_SEPARATOR.getSystemProperty() + libraryFile;
+        this.extractedLibrary = directoryPath.getPath() + PropertiesProvider.FILE_SEPARATOR.getSystemProperty() + libraryFile;
+        this.extractedLibraryPath = Paths.get(extractedLibrary);
+        this.identity = (jarPath == null ? "classpath" : jarPath) + "!/" + compressedLibrary + " -> " + extractedLibrary;
+        this.contentDigest = contentDigest;
+    }
+
+    /**
+     * Resolves a registered native dynamic library against a library info, the library info
+     * fills the components that are not specified by the registered library.
+     *
+     * @param registeredLibrary the registered platform-specific library (not mutated)
+     * @param libraryInfo the platform-independent library info, "null" to resolve the registered library
+     *                    with its own components
+     * @return a new resolved library object, or the same object if it's already resolved
+     *         and no library info is specified
+     */
+    public static ResolvedLibrary resolve(NativeDynamicLibrary registeredLibrary, LibraryInfo libraryInfo) {
+        if (libraryInfo == null) {
+            if (registeredLibrary instanceof ResolvedLibrary) {
+                return (ResolvedLibrary) registeredLibrary;
+            }
+            return new ResolvedLibrary(registeredLibrary, registeredLibrary.jarPath, registeredLibrary.platformDirectory,
+                    registeredLibrary.libraryFile,
+                    registeredLibrary.directoryPath == null ? DirectoryPath.USER_DIR : registeredLibrary.directoryPath);
+        }
+        final String libraryFile = registeredLibrary.libraryFile == null
+                ? getPlatformLibraryFile(libraryInfo.getBaseName()) : registeredLibrary.libraryFile;
+        final String platformDirectory = registeredLibrary.platformDirectory == null
+                ? libraryInfo.getDirectory().getPath() : registeredLibrary.platformDirectory;
+        return new ResolvedLibrary(registeredLibrary, libraryInfo.getJarPath().getPath(), platformDirectory,
+                libraryFile, libraryInfo.getExtractionDirectory());
+    }
+
+    /**
+     * Creates a copy of this library extracted into another extraction directory.
+     *
+     * @param directoryPath the new extraction directory
+     * @return a new resolved library object
+     */
+    public ResolvedLibrary withExtractionDirectory(DirectoryPath directoryPath) {
+        return new ResolvedLibrary(registeredLibrary, jarPath, platformDirectory, libraryFile, directoryPath);
+    }
+
+    /**
+     * Creates a copy of this library extracted into a content-addressed directory (e.g., inside the shared
+     * cache), the extracted library is valid only if its content matches the digest.
+     *
+     * @param directoryPath the content-addressed extraction directory
+     * @param contentDigest the hexadecimal SHA-256 digest of the uncompressed binary
+     * @return a new resolved library object
+     */
+    public ResolvedLibrary withContentAddress(DirectoryPath directoryPath, String contentDigest) {
+        return new ResolvedLibrary(registeredLibrary, jarPath, platformDirectory, libraryFile, directoryPath,
+                contentDigest);
+    }
+
+    /**
+     * Creates a copy of this library extracted into a subdirectory of its extraction directory
+     * named after its platform directory (e.g., [extraction-directory]/lib/linux/x86-64-avx2/[library]); so that
+     * the variants of the same library file (e.g., the CPU-feature-specific or the C library specific variants)
+     * don't share a single extraction path.
+     *
+     * @return a new resolved library object
+     */
+    public ResolvedLibrary withVariantDirectory() {
+        return withExtractionDirectory(new DirectoryPath(directoryPath.getPath(),
+                platformDirectory.split(PropertiesProvider.ZIP_FILE_SEPARATOR.getSystemProperty())));
+    }
+
+    /**
+     * Creates a sibling library bundled in the same platform directory, and extracted into
+     * the same extraction directory (e.g., a bundled dependency of this library).
+     *
+     * @param libraryFile the sibling library file name
+     * @return a new resolved library object
+     */
+    public ResolvedLibrary withLibraryFile(String libraryFile) {
+        return new ResolvedLibrary(registeredLibrary, jarPath, platformDirectory, libraryFile, directoryPath);
+    }
+
+    /**
+     * Resolved libraries are immutable, they are already initialized on resolution; thus this is
+     * a no-op, so that the legacy callers passing a resolved library don't fail.
+     *
+     * @param libraryInfo ignored, use {@link ResolvedLibrary#resolve(NativeDynamicLibrary, LibraryInfo)} instead
+     */
+    @Override
+    @Deprecated
+    public void initWithLibraryInfo(LibraryInfo libraryInfo) {
+    }
+
+    @Override
+    public String getCompressedLibrary() {
+        return compressedLibrary;
+    }
+
+    @Override
+    public String getExtractedLibrary() {
+        return extractedLibrary;
+    }
+
+    @Override
+    public boolean isExtracted() {
+        return Files.exists(extractedLibraryPath);
+    }
+
+    /**
+     * Retrieves the absolute path for the native library as supposed to be on the extraction directory.
+     *
+     * @return the path object of the extracted library
+     */
+    public Path getExtractedLibraryPath() {
+        return extractedLibraryPath;
+    }
+
+    /**
+     * Retrieves the extraction directory of the native library.
+     *
+     * @return the extraction directory path object
+     */
+    public DirectoryPath getExtractionDirectory() {
+        return directoryPath;
+    }
+
+    /**
+     * Retrieves the expected SHA-256 digest of the extracted library, if it's extracted into
+     * a content-addressed directory.
+     *
+     * @return the hexadecimal digest of the uncompressed binary, or null if the library isn't content-addressed
+     */
+    public String getContentDigest() {
+        return contentDigest;
+    }
+
+    /**
+     * Retrieves the library name with the platform extension (basename + extension).
+     *
+     * @return the full library name
+     */
+    public String getLibraryFile() {
+        return libraryFile;
+    }
+
+    /**
+     * Retrieves the registered library object from which this library has been resolved.
+     *
+     * @return the registered platform-specific library
+     */
+    public NativeDynamicLibrary getRegisteredLibrary() {
+        return registeredLibrary;
+    }
+
+    /**
+     * Retrieves the process-wide identity of this library; the identity is composed of
+     * the compressed binary path and its extraction destination.
+     *
+     * @return the library identity
+     */
+    public String getIdentity() {
+        return identity;
+    }
+
+    @Override
+    public String toString() {
+        return identity;
+    }
+}
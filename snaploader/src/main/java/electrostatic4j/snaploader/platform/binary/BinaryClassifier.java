@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.binary;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import electrostatic4j.snaploader.platform.util.HostPlatform;
+
+/**
+ * Classifies the native dynamic libraries by reading their headers in place; the ELF shared objects,
+ * the Mach-O dynamic libraries and bundles (including the universal binaries), and the PE dynamic-link
+ * libraries are classified into the platform traits (see {@link HostPlatform}) that they target.
+ *
+ * @author pavl_g
+ */
+public final class BinaryClassifier {
+
+    private static final int ELF_MAGIC = 0x7F454C46;
+    private static final int MH_MAGIC = 0xFEEDFACE;
+    private static final int MH_MAGIC_64 = 0xFEEDFACF;
+    private static final int MH_CIGAM = 0xCEFAEDFE;
+    private static final int MH_CIGAM_64 = 0xCFFAEDFE;
+    private static final int FAT_MAGIC = 0xCAFEBABE;
+    private static final int FAT_MAGIC_64 = 0xCAFEBABF;
+    private static final int MH_DYLIB = 6;
+    private static final int MH_BUNDLE = 8;
+    /* universal binaries have a few architectures, this bound tells them apart from the java class files */
+    private static final int FAT_MAX_ARCHITECTURES = 20;
+
+    private static final int CPU_ARCH_ABI64 = 0x01000000;
+    private static final int CPU_TYPE_X86 = 7;
+    private static final int CPU_TYPE_ARM = 12;
+    private static final int CPU_TYPE_POWERPC = 18;
+
+    private static final int PE_SIGNATURE = 0x00004550;
+    private static final int PE_HEADER_OFFSET = 0x3C;
+    private static final int IMAGE_FILE_DLL = 0x2000;
+    private static final int IMAGE_FILE_MACHINE_I386 = 0x14C;
+    private static final int IMAGE_FILE_MACHINE_ARM = 0x1C0;
+    private static final int IMAGE_FILE_MACHINE_ARMNT = 0x1C4;
+    private static final int IMAGE_FILE_MACHINE_AMD64 = 0x8664;
+    private static final int IMAGE_FILE_MACHINE_ARM64 = 0xAA64;
+
+    private BinaryClassifier() {
+    }
+
+    /**
+     * Classifies a native binary into the platform traits of each of its architectures.
+     *
+     * @param source the binary source (not closed by this method)
+     * @return the bitmasks of the platform traits (OS + CPU + BITS + byte order, and the C library of the ELF
+     *         binaries) targeted by the binary, a universal binary targets multiple platforms; or an empty array
+     *         if the binary is not a recognized dynamic library
+     * @throws IOException if an I/O error has occurred
+     */
+    public static long[] classify(BinarySource source) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+        try {
+            source.read(0, header);
+        } catch (EOFException e) {
+            return new long[0];
+        }
+        final int magic = header.getInt(0);
+        if (magic == ELF_MAGIC) {
+            // the dynamic section designates the C library of the binary
+            final ElfFile elfFile = ElfFile.read(source, true);
+            final long traits = elfFile == null ? 0 : ElfValidator.getPlatformTraits(elfFile);
+            return traits == 0 ? new long[0] : new long[] {traits};
+        } else if (magic == MH_MAGIC || magic == MH_MAGIC_64) {
+            return classifyMachO(header);
+        } else if (magic == MH_CIGAM || magic == MH_CIGAM_64) {
+            return classifyMachO(header.order(ByteOrder.LITTLE_ENDIAN));
+        } else if (magic == FAT_MAGIC || magic == FAT_MAGIC_64) {
+            return classifyUniversal(source, header.getInt(4), magic == FAT_MAGIC_64);
+        } else if (header.get(0) == 'M' && header.get(1) == 'Z') {
+            return classifyPortableExecutable(source);
+        }
+        return new long[0];
+    }
+
+    private static long[] classifyMachO(ByteBuffer header) {
+        final int fileType = header.getInt(12);
+        if (fileType != MH_DYLIB && fileType != MH_BUNDLE) {
+            return new long[0];
+        }
+        final long traits = getMachOTraits(header.getInt(4));
+        return traits == 0 ? new long[0] : new long[] {traits};
+    }
+
+    private static long[] classifyUniversal(BinarySource source, int architectures, boolean is64) throws IOException {
+        if (architectures <= 0 || architectures > FAT_MAX_ARCHITECTURES) {
+            return new long[0];
+        }
+        final int entrySize = is64 ? 32 : 20;
+        final ByteBuffer entries = ByteBuffer.allocate(architectures * entrySize).order(ByteOrder.BIG_ENDIAN);
+        try {
+            source.read(8, entries);
+        } catch (EOFException e) {
+            return new long[0];
+        }
+        final long[] traits = new long[architectures];
+        int count = 0;
+        for (int i = 0; i < architectures; i++) {
+            final long architecture = getMachOTraits(entries.getInt(i * entrySize));
+            if (architecture != 0) {
+                traits[count++] = architecture;
+            }
+        }
+        final long[] classified = new long[count];
+        System.arraycopy(traits, 0, classified, 0, count);
+        return classified;
+    }
+
+    private static long getMachOTraits(int cpuType) {
+        final long bits = (cpuType & CPU_ARCH_ABI64) != 0 ? HostPlatform.BITS_64 : HostPlatform.BITS_32;
+        switch (cpuType & ~CPU_ARCH_ABI64) {
+            case CPU_TYPE_X86:
+                return HostPlatform.OS_MAC | HostPlatform.CPU_X86 | bits | HostPlatform.LITTLE_ENDIAN;
+            case CPU_TYPE_ARM:
+                return HostPlatform.OS_MAC | HostPlatform.CPU_ARM | bits | HostPlatform.LITTLE_ENDIAN;
+            case CPU_TYPE_POWERPC:
+                return HostPlatform.OS_MAC | HostPlatform.CPU_PPC | bits | HostPlatform.BIG_ENDIAN;
+            default:
+                return 0;
+        }
+    }
+
+    private static long[] classifyPortableExecutable(BinarySource source) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            buffer.limit(4);
+            source.read(PE_HEADER_OFFSET, buffer);
+            final long headerOffset = Integer.toUnsignedLong(buffer.getInt(0));
+            buffer.clear();
+            source.read(headerOffset, buffer);
+        } catch (EOFException e) {
+            return new long[0];
+        }
+        final int machine = Short.toUnsignedInt(buffer.getShort(4));
+        final int characteristics = Short.toUnsignedInt(buffer.getShort(22));
+        if (buffer.getInt(0) != PE_SIGNATURE || (characteristics & IMAGE_FILE_DLL) == 0) {
+            return new long[0];
+        }
+        final long traits;
+        switch (machine) {
+            case IMAGE_FILE_MACHINE_I386:
+                traits = HostPlatform.CPU_X86 | HostPlatform.BITS_32;
+                break;
+            case IMAGE_FILE_MACHINE_AMD64:
+                traits = HostPlatform.CPU_X86 | HostPlatform.BITS_64;
+                break;
+            case IMAGE_FILE_MACHINE_ARM:
+            case IMAGE_FILE_MACHINE_ARMNT:
+                traits = HostPlatform.CPU_ARM | HostPlatform.BITS_32;
+                break;
+            case IMAGE_FILE_MACHINE_ARM64:
+                traits = HostPlatform.CPU_ARM | HostPlatform.BITS_64;
+                break;
+            default:
+                return new long[0];
+        }
+        return new long[] {HostPlatform.OS_WINDOWS | traits | HostPlatform.LITTLE_ENDIAN};
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.binary;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import electrostatic4j.snaploader.filesystem.ZipEntryRegion;
+
+/**
+ * Represents a read-only positional source of a native binary; the source is either a random-access
+ * file (e.g., an extracted binary, or a stored zip entry), or an inflated zip entry that is
+ * read forward, and re-opened only if a read seeks backward.
+ * <p>
+ * The binary readers are expected to read the binary in an ascending order of positions whenever
+ * possible; so that a deflated binary is inflated once at most, and only up to the last read position.
+ *
+ * @author pavl_g
+ */
+public abstract class BinarySource implements Closeable {
+
+    /**
+     * Reads the bytes of the binary at a position until the destination buffer is full.
+     *
+     * @param position the position in the binary to read from
+     * @param destination the destination buffer
+     * @throws EOFException if the binary ends before the destination buffer is full
+     * @throws IOException if an I/O error has occurred
+     */
+    public abstract void read(long position, ByteBuffer destination) throws IOException;
+
+    /**
+     * Opens a random-access source of a binary file.
+     *
+     * @param binary the path of the binary file
+     * @return a new binary source owning its file channel
+     * @throws IOException if the file cannot be opened
+     */
+    public static BinarySource of(Path binary) throws IOException {
+        final FileChannel channel = FileChannel.open(binary, StandardOpenOption.READ);
+        return new ChannelSource(channel, 0, channel.size());
+    }
+
+    /**
+     * Opens a source of a binary inside a zip compression, a stored binary is read at random-access
+     * from the compression file, while a deflated binary is inflated on-demand; the compression
+     * is not owned by the source.
+     *
+     * @param compression the zip compression (e.g., a jar file)
+     * @param zipEntry the entry of the binary inside the compression
+     * @return a new binary source
+     * @throws IOException if the compression file cannot be opened
+     */
+    public static BinarySource of(ZipFile compression, ZipEntry zipEntry) throws IOException {
+        if (zipEntry.getMethod() == ZipEntry.STORED) {
+            final FileChannel channel = FileChannel.open(Paths.get(compression.getName()), StandardOpenOption.READ);
+            try {
+                final ZipEntryRegion region = ZipEntryRegion.locate(channel, zipEntry);
+                if (region != null) {
+                    return new ChannelSource(channel, region.getOffset(), region.getLength());
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            channel.close();
+        }
+        return new InflatingSource(compression, zipEntry);
+    }
+
+    /**
+     * Opens a source of a binary inside a zip compression, and binds the release of the compression
+     * (e.g., the lease of a shared jar file, see {@link electrostatic4j.snaploader.filesystem.JarFileCache})
+     * to the closure of the source.
+     *
+     * @param compression the zip compression (e.g., a jar file)
+     * @param zipEntry the entry of the binary inside the compression
+     * @param release releases the compression when the source is closed, or if the source cannot be opened
+     * @return a new binary source
+     * @throws IOException if the compression file cannot be opened
+     */
+    public static BinarySource of(ZipFile compression, ZipEntry zipEntry, Closeable release) throws IOException {
+        final BinarySource source;
+        try {
+            source = of(compression, zipEntry);
+        } catch (IOException | RuntimeException e) {
+            release.close();
+            throw e;
+        }
+        return new BinarySource() {
+            @Override
+            public void read(long position, ByteBuffer destination) throws IOException {
+                source.read(position, destination);
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    source.close();
+                } finally {
+                    release.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * A random-access source over a region of a file channel.
+     */
+    private static final class ChannelSource extends BinarySource {
+        private final FileChannel channel;
+        private final long offset;
+        private final long length;
+
+        ChannelSource(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public void read(long position, ByteBuffer destination) throws IOException {
+            if (position < 0 || position + destination.remaining() > length) {
+                throw new EOFException("Binary region [" + position + ", " + (position + destination.remaining())
+                        + ") is out of bounds of " + length + " bytes");
+            }
+            long filePosition = offset + position;
+            while (destination.hasRemaining()) {
+                final int read = channel.read(destination, filePosition);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of binary at " + filePosition);
+                }
+                filePosition += read;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * A forward-only source over an inflated zip entry, re-opened on backward reads.
+     */
+    private static final class InflatingSource extends BinarySource {
+        private final ZipFile compression;
+        private final ZipEntry zipEntry;
+        private InputStream stream;
+        private long streamPosition;
+
+        InflatingSource(ZipFile compression, ZipEntry zipEntry) {
+            this.compression = compression;
+            this.zipEntry = zipEntry;
+        }
+
+        @Override
+        public void read(long position, ByteBuffer destination) throws IOException {
+            if (stream == null || position < streamPosition) {
+                close();
+                stream = compression.getInputStream(zipEntry);
+                streamPosition = 0;
+            }
+            skipFully(position - streamPosition);
+            final byte[] buffer = new byte[destination.remaining()];
+            int count = 0;
+            while (count < buffer.length) {
+                final int read = stream.read(buffer, count, buffer.length - count);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of binary at " + (position + count));
+                }
+                count += read;
+            }
+            streamPosition += count;
+            destination.put(buffer);
+        }
+
+        private void skipFully(long bytes) throws IOException {
+            while (bytes > 0) {
+                final long skipped = stream.skip(bytes);
+                if (skipped <= 0) {
+                    if (stream.read() < 0) {
+                        throw new EOFException("Unexpected end of binary at " + streamPosition);
+                    }
+                    streamPosition++;
+                    bytes--;
+                    continue;
+                }
+                streamPosition += skipped;
+                bytes -= skipped;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.binary;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the dynamic linking metadata of an ELF binary read by a pure-Java reader; the reader
+ * locates the dynamic section through the program headers (i.e., without the section headers that
+ * are commonly placed at the end of the binary), then reads the dynamic string table and the
+ * symbol versioning tables (<code>.gnu.version_r</code> and <code>.gnu.version_d</code>) in an
+ * ascending order of positions.
+ *
+ * @author pavl_g
+ */
+public final class ElfFile {
+
+    /**
+     * The 32-bit ELF class.
+     */
+    public static final int ELFCLASS32 = 1;
+
+    /**
+     * The 64-bit ELF class.
+     */
+    public static final int ELFCLASS64 = 2;
+
+    /**
+     * The shared object file type.
+     */
+    public static final int ET_DYN = 3;
+
+    private static final int PT_LOAD = 1;
+    private static final int PT_DYNAMIC = 2;
+
+    private static final long DT_NULL = 0;
+    private static final long DT_NEEDED = 1;
+    private static final long DT_STRTAB = 5;
+    private static final long DT_STRSZ = 10;
+    private static final long DT_SONAME = 14;
+    private static final long DT_VERDEF = 0x6ffffffcL;
+    private static final long DT_VERDEFNUM = 0x6ffffffdL;
+    private static final long DT_VERNEED = 0x6ffffffeL;
+    private static final long DT_VERNEEDNUM = 0x6fffffffL;
+
+    /**
+     * The maximum number of the program headers, and the version entries to read, a guard against
+     * malformed binaries.
+     */
+    private static final int MAX_ENTRIES = 4096;
+
+    private final int elfClass;
+    private final ByteOrder byteOrder;
+    private final int type;
+    private final int machine;
+    private final boolean dynamic;
+    private final List<String> neededLibraries = new ArrayList<>();
+    private final Map<String, Set<String>> requiredVersions = new LinkedHashMap<>();
+    private final Set<String> definedVersions = new LinkedHashSet<>();
+    private String soname;
+
+    /* the loadable segments for translating the virtual addresses into file offsets */
+    private final List<long[]> loadSegments = new ArrayList<>();
+
+    private ElfFile(int elfClass, ByteOrder byteOrder, int type, int machine, boolean dynamic) {
+        this.elfClass = elfClass;
+        this.byteOrder = byteOrder;
+        this.type = type;
+        this.machine = machine;
+        this.dynamic = dynamic;
+    }
+
+    /**
+     * Reads the dynamic linking metadata of an ELF binary.
+     *
+     * @param source the source of the binary
+     * @return a new ELF file object, or null if the binary is not an ELF binary
+     * @throws IOException if the binary is malformed, or an I/O error has occurred
+     */
+    public static ElfFile read(BinarySource source) throws IOException {
+        return read(source, true);
+    }
+
+    /**
+     * Reads the ELF header and the program headers of an ELF binary, and optionally its dynamic
+     * linking metadata; the headers are commonly located in the first few kilobytes of the binary.
+     *
+     * @param source the source of the binary
+     * @param readDynamicSection true to read the dynamic linking metadata, false to read the headers only
+     * @return a new ELF file object, or null if the binary is not an ELF binary
+     * @throws IOException if the binary is malformed, or an I/O error has occurred
+     */
+    public static ElfFile read(BinarySource source, boolean readDynamicSection) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(64);
+        try {
+            source.read(0, header);
+        } catch (EOFException e) {
+            return null;
+        }
+        header.flip();
+        if (header.get(0) != 0x7f || header.get(1) != 'E' || header.get(2) != 'L' || header.get(3) != 'F') {
+            return null;
+        }
+        final int elfClass = header.get(4);
+        final int data = header.get(5);
+        if ((elfClass != ELFCLASS32 && elfClass != ELFCLASS64) || (data != 1 && data != 2)) {
+            throw new IOException("Unsupported ELF class " + elfClass + " or data encoding " + data);
+        }
+        final ByteOrder byteOrder = data == 1 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        header.order(byteOrder);
+        final boolean is64 = elfClass == ELFCLASS64;
+        final int type = Short.toUnsignedInt(header.getShort(16));
+        final int machine = Short.toUnsignedInt(header.getShort(18));
+        final long programHeaderOffset = is64 ? header.getLong(32) : Integer.toUnsignedLong(header.getInt(28));
+        final int programHeaderSize = Short.toUnsignedInt(header.getShort(is64 ? 54 : 42));
+        final int programHeaderCount = Short.toUnsignedInt(header.getShort(is64 ? 56 : 44));
+        if (programHeaderCount > MAX_ENTRIES || (programHeaderCount > 0 && programHeaderSize < (is64 ? 56 : 32))) {
+            throw new IOException("Malformed ELF program headers");
+        }
+
+        /* program headers */
+        long dynamicOffset = -1;
+        long dynamicSize = 0;
+        final List<long[]> loadSegments = new ArrayList<>();
+        if (programHeaderCount > 0) {
+            final ByteBuffer programHeaders = ByteBuffer.allocate(programHeaderSize * programHeaderCount).order(byteOrder);
+            source.read(programHeaderOffset, programHeaders);
+            for (int i = 0; i < programHeaderCount; i++) {
+                final int base = i * programHeaderSize;
+                final int segmentType = programHeaders.getInt(base);
+                final long offset = is64 ? programHeaders.getLong(base + 8) : Integer.toUnsignedLong(programHeaders.getInt(base + 4));
+                final long address = is64 ? programHeaders.getLong(base + 16) : Integer.toUnsignedLong(programHeaders.getInt(base + 8));
+                final long fileSize = is64 ? programHeaders.getLong(base + 32) : Integer.toUnsignedLong(programHeaders.getInt(base + 16));
+                if (segmentType == PT_LOAD) {
+                    loadSegments.add(new long[] {address, offset, fileSize});
+                } else if (segmentType == PT_DYNAMIC) {
+                    dynamicOffset = offset;
+                    dynamicSize = fileSize;
+                }
+            }
+        }
+        final ElfFile elfFile = new ElfFile(elfClass, byteOrder, type, machine, dynamicOffset >= 0);
+        elfFile.loadSegments.addAll(loadSegments);
+        if (readDynamicSection && dynamicOffset >= 0 && dynamicSize > 0) {
+            elfFile.readDynamicSection(source, dynamicOffset, dynamicSize);
+        }
+        return elfFile;
+    }
+
+    private void readDynamicSection(BinarySource source, long offset, long size) throws IOException {
+        final boolean is64 = elfClass == ELFCLASS64;
+        final int entrySize = is64 ? 16 : 8;
+        if (size > (long) entrySize * MAX_ENTRIES) {
+            throw new IOException("Malformed ELF dynamic section of " + size + " bytes");
+        }
+        final ByteBuffer dynamicSection = ByteBuffer.allocate((int) size).order(byteOrder);
+        source.read(offset, dynamicSection);
+        dynamicSection.flip();
+
+        final List<Long> needed = new ArrayList<>();
+        long sonameIndex = -1;
+        long stringTable = 0;
+        long stringTableSize = 0;
+        long versionNeeds = 0;
+        long versionNeedCount = 0;
+        long versionDefinitions = 0;
+        long versionDefinitionCount = 0;
+        while (dynamicSection.remaining() >= entrySize) {
+            final long tag = is64 ? dynamicSection.getLong() : dynamicSection.getInt();
+            final long value = is64 ? dynamicSection.getLong() : Integer.toUnsignedLong(dynamicSection.getInt());
+            if (tag == DT_NULL) {
+                break;
+            } else if (tag == DT_NEEDED) {
+                needed.add(value);
+            } else if (tag == DT_SONAME) {
+                sonameIndex = value;
+            } else if (tag == DT_STRTAB) {
+                stringTable = value;
+            } else if (tag == DT_STRSZ) {
+                stringTableSize = value;
+            } else if (tag == DT_VERNEED) {
+                versionNeeds = value;
+            } else if (tag == DT_VERNEEDNUM) {
+                versionNeedCount = value;
+            } else if (tag == DT_VERDEF) {
+                versionDefinitions = value;
+            } else if (tag == DT_VERDEFNUM) {
+                versionDefinitionCount = value;
+            }
+        }
+        if (stringTable == 0 || stringTableSize <= 0 || stringTableSize > Integer.MAX_VALUE) {
+            return;
+        }
+        final ByteBuffer strings = ByteBuffer.allocate((int) stringTableSize);
+        source.read(toFileOffset(stringTable), strings);
+        final byte[] stringBytes = strings.array();
+
+        for (long index : needed) {
+            neededLibraries.add(readString(stringBytes, index));
+        }
+        if (sonameIndex >= 0) {
+            soname = readString(stringBytes, sonameIndex);
+        }
+        if (versionNeeds != 0 && versionNeedCount > 0) {
+            readVersionNeeds(source, toFileOffset(versionNeeds), versionNeedCount, stringBytes);
+        }
+        if (versionDefinitions != 0 && versionDefinitionCount > 0) {
+            readVersionDefinitions(source, toFileOffset(versionDefinitions), versionDefinitionCount, stringBytes);
+        }
+    }
+
+    private void readVersionNeeds(BinarySource source, long offset, long count, byte[] strings) throws IOException {
+        final ByteBuffer entry = ByteBuffer.allocate(16).order(byteOrder);
+        long needOffset = offset;
+        for (long need = 0; need < Math.min(count, MAX_ENTRIES); need++) {
+            entry.clear();
+            source.read(needOffset, entry);
+            // Elf_Verneed: vn_version, vn_cnt, vn_file, vn_aux, vn_next
+            final int auxiliaryCount = Short.toUnsignedInt(entry.getShort(2));
+            final String file = readString(strings, Integer.toUnsignedLong(entry.getInt(4)));
+            final long auxiliary = Integer.toUnsignedLong(entry.getInt(8));
+            final long next = Integer.toUnsignedLong(entry.getInt(12));
+            final Set<String> versions = requiredVersions.computeIfAbsent(file, key -> new LinkedHashSet<>());
+            long auxiliaryOffset = needOffset + auxiliary;
+            for (int i = 0; i < Math.min(auxiliaryCount, MAX_ENTRIES); i++) {
+                entry.clear();
+                source.read(auxiliaryOffset, entry);
+                // Elf_Vernaux: vna_hash, vna_flags, vna_other, vna_name, vna_next
+                versions.add(readString(strings, Integer.toUnsignedLong(entry.getInt(8))));
+                final long auxiliaryNext = Integer.toUnsignedLong(entry.getInt(12));
+                if (auxiliaryNext == 0) {
+                    break;
+                }
+                auxiliaryOffset += auxiliaryNext;
+            }
+            if (next == 0) {
+                break;
+            }
+            needOffset += next;
+        }
+    }
+
+    private void readVersionDefinitions(BinarySource source, long offset, long count, byte[] strings) throws IOException {
+        final ByteBuffer entry = ByteBuffer.allocate(20).order(byteOrder);
+        final ByteBuffer auxiliaryEntry = ByteBuffer.allocate(8).order(byteOrder);
+        long definitionOffset = offset;
+        for (long definition = 0; definition < Math.min(count, MAX_ENTRIES); definition++) {
+            entry.clear();
+            source.read(definitionOffset, entry);
+            // Elf_Verdef: vd_version, vd_flags, vd_ndx, vd_cnt, vd_hash, vd_aux, vd_next
+            final int flags = Short.toUnsignedInt(entry.getShort(2));
+            final long auxiliary = Integer.toUnsignedLong(entry.getInt(12));
+            final long next = Integer.toUnsignedLong(entry.getInt(16));
+            // skip the base definition (VER_FLG_BASE), it names the file itself
+            if ((flags & 0x1) == 0) {
+                auxiliaryEntry.clear();
+                source.read(definitionOffset + auxiliary, auxiliaryEntry);
+                // Elf_Verdaux: vda_name, vda_next
+                definedVersions.add(readString(strings, Integer.toUnsignedLong(auxiliaryEntry.getInt(0))));
+            }
+            if (next == 0) {
+                break;
+            }
+            definitionOffset += next;
+        }
+    }
+
+    private long toFileOffset(long address) throws IOException {
+        for (long[] segment : loadSegments) {
+            if (address >= segment[0] && address < segment[0] + segment[2]) {
+                return address - segment[0] + segment[1];
+            }
+        }
+        throw new IOException("ELF address 0x" + Long.toHexString(address) + " is not mapped by a loadable segment");
+    }
+
+    private static String readString(byte[] strings, long index) throws IOException {
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("ELF string index " + index + " is out of bounds");
+        }
+        int end = (int) index;
+        while (end < strings.length && strings[end] != 0) {
+            end++;
+        }
+        return new String(strings, (int) index, end - (int) index, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieves the ELF class of the binary.
+     *
+     * @return {@link ElfFile#ELFCLASS32} or {@link ElfFile#ELFCLASS64}
+     */
+    public int getElfClass() {
+        return elfClass;
+    }
+
+    /**
+     * Retrieves the byte order of the binary.
+     *
+     * @return the data encoding of the binary
+     */
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * Retrieves the object file type of the binary (e_type).
+     *
+     * @return the object file type, {@link ElfFile#ET_DYN} for the shared objects
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Retrieves the target machine of the binary (e_machine).
+     *
+     * @return the ELF machine code (e.g., 62 for x86-64, and 183 for AArch64)
+     */
+    public int getMachine() {
+        return machine;
+    }
+
+    /**
+     * Tests whether the binary has a dynamic segment (PT_DYNAMIC).
+     *
+     * @return true if the binary is dynamically linked, false otherwise
+     */
+    public boolean isDynamic() {
+        return dynamic;
+    }
+
+    /**
+     * Retrieves the libraries needed by the binary (DT_NEEDED) in their linking order.
+     *
+     * @return an unmodifiable list of the needed library names
+     */
+    public List<String> getNeededLibraries() {
+        return Collections.unmodifiableList(neededLibraries);
+    }
+
+    /**
+     * Retrieves the shared object name of the binary (DT_SONAME).
+     *
+     * @return the shared object name, or null if it's not specified
+     */
+    public String getSoname() {
+        return soname;
+    }
+
+    /**
+     * Retrieves the symbol versions required by the binary (<code>.gnu.version_r</code>) grouped by
+     * the needed libraries, for example, "libc.so.6" requiring "GLIBC_2.34".
+     *
+     * @return an unmodifiable map of the needed library names to their required versions
+     */
+    public Map<String, Set<String>> getRequiredVersions() {
+        return Collections.unmodifiableMap(requiredVersions);
+    }
+
+    /**
+     * Retrieves the symbol versions defined by the binary (<code>.gnu.version_d</code>), for example,
+     * the "GLIBC_2.34" version defined by the GNU C library.
+     *
+     * @return an unmodifiable set of the defined versions
+     */
+    public Set<String> getDefinedVersions() {
+        return Collections.unmodifiableSet(definedVersions);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.binary;
+
+import java.nio.ByteOrder;
+import electrostatic4j.snaploader.platform.util.HostLibc;
+import electrostatic4j.snaploader.platform.util.HostPlatform;
+import electrostatic4j.snaploader.throwable.IncompatibleBinaryError;
+
+/**
+ * Validates the ELF header and the program headers of a native binary against the platform traits,
+ * the validation requires only the headers (see {@link ElfFile#read(BinarySource, boolean)}); so that
+ * a mismatched binary is rejected before it's extracted, and before {@link System#load(String)}.
+ *
+ * @author pavl_g
+ */
+public final class ElfValidator {
+
+    /* ELF machine codes (e_machine) */
+    private static final int EM_SPARC = 2;
+    private static final int EM_386 = 3;
+    private static final int EM_SPARC32PLUS = 18;
+    private static final int EM_PPC = 20;
+    private static final int EM_PPC64 = 21;
+    private static final int EM_S390 = 22;
+    private static final int EM_ARM = 40;
+    private static final int EM_SPARCV9 = 43;
+    private static final int EM_X86_64 = 62;
+    private static final int EM_AARCH64 = 183;
+    private static final int EM_RISCV = 243;
+
+    private ElfValidator() {
+    }
+
+    /**
+     * Tests whether the platform loads ELF binaries, the Android platform is excluded, as the native
+     * libraries are loaded by the Android runtime.
+     *
+     * @param platformTraits a bitmask of the platform traits, see {@link HostPlatform}
+     * @return true if the platform is an ELF platform, false otherwise
+     */
+    public static boolean isElfPlatform(long platformTraits) {
+        return (platformTraits & HostPlatform.OS_LINUX) != 0 && (platformTraits & HostPlatform.OS_ANDROID) == 0;
+    }
+
+    /**
+     * Validates an ELF binary against the platform traits.
+     *
+     * @param binary the path of the binary (used for reporting)
+     * @param elfFile the ELF headers of the binary, null designates a binary that isn't an ELF binary
+     * @param platformTraits a bitmask of the platform traits, see {@link HostPlatform}
+     * @throws IncompatibleBinaryError if the binary is incompatible with the platform
+     */
+    public static void validate(String binary, ElfFile elfFile, long platformTraits) {
+        final String incompatibility = getIncompatibility(elfFile, platformTraits);
+        if (incompatibility != null) {
+            throw new IncompatibleBinaryError(binary, incompatibility);
+        }
+    }
+
+    /**
+     * Tests an ELF binary against the platform traits.
+     *
+     * @param elfFile the ELF headers of the binary, null designates a binary that isn't an ELF binary
+     * @param platformTraits a bitmask of the platform traits, see {@link HostPlatform}
+     * @return null if the binary is compatible, otherwise the precise reason of the incompatibility
+     */
+    public static String getIncompatibility(ElfFile elfFile, long platformTraits) {
+        if (elfFile == null) {
+            return "Not an ELF binary (bad magic number)";
+        }
+        final int expectedClass = (platformTraits & HostPlatform.BITS_64) != 0 ? ElfFile.ELFCLASS64
+                : (platformTraits & HostPlatform.BITS_32) != 0 ? ElfFile.ELFCLASS32 : 0;
+        if (expectedClass != 0 && elfFile.getElfClass() != expectedClass) {
+            return "ELF class is " + bitness(elfFile.getElfClass()) + ", but the host is " + bitness(expectedClass);
+        }
+        final ByteOrder expectedOrder = (platformTraits & HostPlatform.LITTLE_ENDIAN) != 0 ? ByteOrder.LITTLE_ENDIAN
+                : (platformTraits & HostPlatform.BIG_ENDIAN) != 0 ? ByteOrder.BIG_ENDIAN : null;
+        if (expectedOrder != null && !elfFile.getByteOrder().equals(expectedOrder)) {
+            return "ELF data encoding is " + elfFile.getByteOrder() + ", but the host is " + expectedOrder;
+        }
+        final int[] expectedMachines = getMachines(platformTraits);
+        if (expectedMachines.length > 0 && !contains(expectedMachines, elfFile.getMachine())) {
+            return "ELF machine is " + getMachineName(elfFile.getMachine()) + ", but the host is "
+                    + getMachineName(expectedMachines[0]);
+        }
+        if (elfFile.getType() != ElfFile.ET_DYN) {
+            return "ELF type is " + elfFile.getType() + ", but a shared object (ET_DYN) is expected";
+        }
+        if (!elfFile.isDynamic()) {
+            return "ELF binary has no dynamic segment (PT_DYNAMIC)";
+        }
+        return null;
+    }
+
+    /**
+     * Classifies an ELF shared object into the platform traits that it targets (the inverse of
+     * {@link ElfValidator#getIncompatibility(ElfFile, long)}), and the C library that it's linked against
+     * if its dynamic section has been read (see {@link HostLibc#getTraits(ElfFile)}).
+     *
+     * @param elfFile the ELF headers of the binary, including its dynamic section to classify the C library
+     * @return a bitmask of the platform traits (OS + CPU + BITS + byte order + C library), or 0 if the binary
+     *         is not a shared object, or its machine is not recognized
+     */
+    public static long getPlatformTraits(ElfFile elfFile) {
+        if (elfFile.getType() != ElfFile.ET_DYN || !elfFile.isDynamic()) {
+            return 0;
+        }
+        final long cpu;
+        switch (elfFile.getMachine()) {
+            case EM_386:
+            case EM_X86_64:
+                cpu = HostPlatform.CPU_X86;
+                break;
+            case EM_ARM:
+            case EM_AARCH64:
+                cpu = HostPlatform.CPU_ARM;
+                break;
+            case EM_RISCV:
+                cpu = HostPlatform.CPU_RISC_V;
+                break;
+            case EM_PPC:
+            case EM_PPC64:
+                cpu = HostPlatform.CPU_PPC;
+                break;
+            case EM_S390:
+                cpu = HostPlatform.CPU_S390;
+                break;
+            case EM_SPARC:
+            case EM_SPARC32PLUS:
+            case EM_SPARCV9:
+                cpu = HostPlatform.CPU_SPARC;
+                break;
+            default:
+                return 0;
+        }
+        return HostPlatform.OS_LINUX | cpu
+                | (elfFile.getElfClass() == ElfFile.ELFCLASS64 ? HostPlatform.BITS_64 : HostPlatform.BITS_32)
+                | (ByteOrder.LITTLE_ENDIAN.equals(elfFile.getByteOrder()) ? HostPlatform.LITTLE_ENDIAN : HostPlatform.BIG_ENDIAN)
+                | HostLibc.getTraits(elfFile);
+    }
+
+    /**
+     * Retrieves the ELF machine codes accepted by the platform traits.
+     *
+     * @param platformTraits a bitmask of the platform traits, see {@link HostPlatform}
+     * @return the accepted machine codes (the preferred first), or an empty array if the CPU is not recognized
+     */
+    public static int[] getMachines(long platformTraits) {
+        final boolean is64 = (platformTraits & HostPlatform.BITS_64) != 0;
+        if ((platformTraits & HostPlatform.CPU_X86) != 0) {
+            return new int[] {is64 ? EM_X86_64 : EM_386};
+        } else if ((platformTraits & HostPlatform.CPU_ARM) != 0) {
+            return new int[] {is64 ? EM_AARCH64 : EM_ARM};
+        } else if ((platformTraits & HostPlatform.CPU_RISC_V) != 0) {
+            return new int[] {EM_RISCV};
+        } else if ((platformTraits & HostPlatform.CPU_PPC) != 0) {
+            return new int[] {is64 ? EM_PPC64 : EM_PPC};
+        } else if ((platformTraits & HostPlatform.CPU_S390) != 0) {
+            return new int[] {EM_S390};
+        } else if ((platformTraits & HostPlatform.CPU_SPARC) != 0) {
+            return is64 ? new int[] {EM_SPARCV9} : new int[] {EM_SPARC, EM_SPARC32PLUS};
+        }
+        return new int[0];
+    }
+
+    /**
+     * Retrieves a readable name of an ELF machine code.
+     *
+     * @param machine the ELF machine code
+     * @return the name of the machine
+     */
+    public static String getMachineName(int machine) {
+        switch (machine) {
+            case EM_SPARC:
+                return "SPARC";
+            case EM_386:
+                return "x86 (EM_386)";
+            case EM_SPARC32PLUS:
+                return "SPARC32PLUS";
+            case EM_PPC:
+                return "PowerPC (EM_PPC)";
+            case EM_PPC64:
+                return "PowerPC-64 (EM_PPC64)";
+            case EM_S390:
+                return "S390";
+            case EM_ARM:
+                return "ARM (EM_ARM)";
+            case EM_SPARCV9:
+                return "SPARCV9";
+            case EM_X86_64:
+                return "x86-64 (EM_X86_64)";
+            case EM_AARCH64:
+                return "AArch64 (EM_AARCH64)";
+            case EM_RISCV:
+                return "RISC-V (EM_RISCV)";
+            default:
+                return "machine " + machine;
+        }
+    }
+
+    private static String bitness(int elfClass) {
+        return elfClass == ElfFile.ELFCLASS64 ? "64-bit (ELFCLASS64)" : "32-bit (ELFCLASS32)";
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int element : values) {
+            if (element == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.util;
+
+/**
+ * Represents an instruction set extension of the host CPU, that a native dynamic library variant
+ * could require; the features are ranked by tiers within their CPU family, where the higher tier
+ * designates a faster variant.
+ *
+ * @author pavl_g
+ * @see CpuFeatures
+ */
+public enum CpuFeature {
+
+    /**
+     * x86 Streaming SIMD Extensions 4.2.
+     */
+    SSE4_2(1, "sse4_2"),
+
+    /**
+     * x86 Advanced Vector Extensions.
+     */
+    AVX(2, "avx"),
+
+    /**
+     * x86 Advanced Vector Extensions 2.
+     */
+    AVX2(3, "avx2"),
+
+    /**
+     * x86 Fused Multiply-Add (FMA3).
+     */
+    FMA(3, "fma"),
+
+    /**
+     * x86 Bit Manipulation Instruction Set 2.
+     */
+    BMI2(3, "bmi2"),
+
+    /**
+     * x86 AVX-512 Foundation.
+     */
+    AVX512F(4, "avx512f"),
+
+    /**
+     * x86 AVX-512 Byte and Word Instructions.
+     */
+    AVX512BW(4, "avx512bw"),
+
+    /**
+     * x86 AVX-512 Vector Length Extensions.
+     */
+    AVX512VL(4, "avx512vl"),
+
+    /**
+     * ARM Advanced SIMD (i.e., NEON, or ASIMD on AArch64).
+     */
+    NEON(1, "neon", "asimd"),
+
+    /**
+     * ARM Scalable Vector Extension.
+     */
+    SVE(2, "sve"),
+
+    /**
+     * ARM Scalable Vector Extension 2.
+     */
+    SVE2(3, "sve2");
+
+    private final int tier;
+    private final String[] cpuInfoFlags;
+
+    CpuFeature(int tier, String... cpuInfoFlags) {
+        this.tier = tier;
+        this.cpuInfoFlags = cpuInfoFlags;
+    }
+
+    /**
+     * Retrieves the performance tier of this feature within its CPU family.
+     *
+     * @return a positive tier, the higher the faster
+     */
+    public int getTier() {
+        return tier;
+    }
+
+    /**
+     * Retrieves the bitmask of this feature.
+     *
+     * @return a single-bit mask of this feature
+     */
+    public long getMask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Tests whether the host CPU supports this feature.
+     *
+     * @return true if the feature is detected on the host CPU, false otherwise
+     */
+    public boolean isSupported() {
+        return CpuFeatures.isSupported(getMask());
+    }
+
+    /**
+     * Retrieves the bitmask of multiple features.
+     *
+     * @param features the features to combine
+     * @return a bitmask of the features
+     */
+    public static long maskOf(CpuFeature... features) {
+        long mask = 0;
+        for (CpuFeature feature : features) {
+            mask |= feature.getMask();
+        }
+        return mask;
+    }
+
+    /**
+     * Retrieves the highest tier among the features of a bitmask.
+     *
+     * @param mask a bitmask of features
+     * @return the highest tier, or zero for an empty mask
+     */
+    public static int tierOf(long mask) {
+        int tier = 0;
+        for (CpuFeature feature : values()) {
+            if ((mask & feature.getMask()) != 0) {
+                tier = Math.max(tier, feature.tier);
+            }
+        }
+        return tier;
+    }
+
+    /**
+     * Looks up a feature by one of its "/proc/cpuinfo" flags.
+     *
+     * @param cpuInfoFlag a flag of the "flags" (x86) or the "Features" (ARM) line
+     * @return the feature object, or null if the flag isn't recognized
+     */
+    static CpuFeature ofCpuInfoFlag(String cpuInfoFlag) {
+        for (CpuFeature feature : values()) {
+            for (String flag : feature.cpuInfoFlags) {
+                if (flag.equals(cpuInfoFlag)) {
+                    return feature;
+                }
+            }
+        }
+        return null;
+    }
+}
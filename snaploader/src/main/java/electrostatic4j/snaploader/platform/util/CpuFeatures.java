@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+/**
+ * Detects the instruction set extensions of the host CPU once per process, the detection is
+ * cached in a bitmask of {@link CpuFeature}s.
+ * <p>
+ * On Linux (and Android), the features are parsed from the "/proc/cpuinfo" flags, and complemented
+ * by the hardware capabilities (HWCAP and HWCAP2) of the ELF auxiliary vector "/proc/self/auxv" on ARM.
+ * On the other systems, only the features mandated by the architecture are assumed (e.g., NEON on AArch64);
+ * so that a variant requiring an undetected feature is never selected, as loading it could succeed, and
+ * then crash on the first unsupported instruction.
+ *
+ * @author pavl_g
+ */
+public final class CpuFeatures {
+
+    private static final Path CPU_INFO = Paths.get("/proc/cpuinfo");
+    private static final Path AUXILIARY_VECTOR = Paths.get("/proc/self/auxv");
+
+    /* ELF auxiliary vector entry types */
+    private static final long AT_NULL = 0;
+    private static final long AT_HWCAP = 16;
+    private static final long AT_HWCAP2 = 26;
+
+    /* AArch64 hardware capabilities */
+    private static final long AARCH64_HWCAP_ASIMD = 1L << 1;
+    private static final long AARCH64_HWCAP_SVE = 1L << 22;
+    private static final long AARCH64_HWCAP2_SVE2 = 1L << 1;
+
+    /* ARM (32-bit) hardware capabilities */
+    private static final long ARM_HWCAP_NEON = 1L << 12;
+
+    private CpuFeatures() {
+    }
+
+    /**
+     * Retrieves the cached features of the host CPU.
+     *
+     * @return a bitmask of the detected {@link CpuFeature}s
+     */
+    public static long getFeatures() {
+        return Host.FEATURES;
+    }
+
+    /**
+     * Tests whether the host CPU supports all the specified features.
+     *
+     * @param features a bitmask of {@link CpuFeature}s
+     * @return true if all the features are supported, false otherwise
+     */
+    public static boolean isSupported(long features) {
+        return (Host.FEATURES & features) == features;
+    }
+
+    /**
+     * Parses the features from the contents of "/proc/cpuinfo", only the first processor is parsed.
+     *
+     * @param cpuInfo a reader of the cpu info contents
+     * @return a bitmask of the parsed features
+     * @throws IOException if an I/O error has occurred
+     */
+    public static long parseCpuInfo(BufferedReader cpuInfo) throws IOException {
+        String line;
+        while ((line = cpuInfo.readLine()) != null) {
+            final int separator = line.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            final String key = line.substring(0, separator).trim();
+            if (!key.equals("flags") && !key.equals("Features")) {
+                continue;
+            }
+            long features = 0;
+            for (String flag : line.substring(separator + 1).trim().split("\\s+")) {
+                final CpuFeature feature = CpuFeature.ofCpuInfoFlag(flag);
+                if (feature != null) {
+                    features |= feature.getMask();
+                }
+            }
+            return features;
+        }
+        return 0;
+    }
+
+    /**
+     * Parses the ARM features from the hardware capabilities of an ELF auxiliary vector.
+     *
+     * @param auxiliaryVector the contents of the auxiliary vector in the native byte order
+     * @param is64 true if the auxiliary vector entries are 64-bit, false for 32-bit entries
+     * @return a bitmask of the parsed features
+     */
+    public static long parseAuxiliaryVector(ByteBuffer auxiliaryVector, boolean is64) {
+        long hwcap = 0;
+        long hwcap2 = 0;
+        final int entrySize = is64 ? 16 : 8;
+        while (auxiliaryVector.remaining() >= entrySize) {
+            final long type = is64 ? auxiliaryVector.getLong() : Integer.toUnsignedLong(auxiliaryVector.getInt());
+            final long value = is64 ? auxiliaryVector.getLong() : Integer.toUnsignedLong(auxiliaryVector.getInt());
+            if (type == AT_NULL) {
+                break;
+            } else if (type == AT_HWCAP) {
+                hwcap = value;
+            } else if (type == AT_HWCAP2) {
+                hwcap2 = value;
+            }
+        }
+        long features = 0;
+        if (is64) {
+            if ((hwcap & AARCH64_HWCAP_ASIMD) != 0) {
+                features |= CpuFeature.NEON.getMask();
+            }
+            if ((hwcap & AARCH64_HWCAP_SVE) != 0) {
+                features |= CpuFeature.SVE.getMask();
+            }
+            if ((hwcap2 & AARCH64_HWCAP2_SVE2) != 0) {
+                features |= CpuFeature.SVE2.getMask();
+            }
+        } else if ((hwcap & ARM_HWCAP_NEON) != 0) {
+            features |= CpuFeature.NEON.getMask();
+        }
+        return features;
+    }
+
+    private static long detectFeatures() {
+        final long traits = HostPlatform.getTraits();
+        long features = 0;
+        if ((traits & HostPlatform.CPU_ARM) != 0 && (traits & HostPlatform.BITS_64) != 0) {
+            // Advanced SIMD is mandatory on AArch64
+            features |= CpuFeature.NEON.getMask();
+        }
+        if ((traits & HostPlatform.OS_LINUX) == 0) {
+            return features;
+        }
+        try (BufferedReader cpuInfo = Files.newBufferedReader(CPU_INFO, StandardCharsets.US_ASCII)) {
+            features |= parseCpuInfo(cpuInfo);
+        } catch (IOException | RuntimeException e) {
+            SnapLoaderLogger.log(Level.WARNING, CpuFeatures.class.getName(), "detectFeatures",
+                    "Cannot read " + CPU_INFO, e);
+        }
+        if ((traits & HostPlatform.CPU_ARM) != 0) {
+            try {
+                final ByteBuffer auxiliaryVector = ByteBuffer.wrap(Files.readAllBytes(AUXILIARY_VECTOR))
+                        .order(ByteOrder.nativeOrder());
+                features |= parseAuxiliaryVector(auxiliaryVector, (traits & HostPlatform.BITS_64) != 0);
+            } catch (IOException | RuntimeException e) {
+                SnapLoaderLogger.log(Level.WARNING, CpuFeatures.class.getName(), "detectFeatures",
+                        "Cannot read " + AUXILIARY_VECTOR, e);
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Lazily detects the host features once per process (the initialization-on-demand holder idiom).
+     */
+    private static final class Host {
+        private static final long FEATURES = detectFeatures();
+    }
+}
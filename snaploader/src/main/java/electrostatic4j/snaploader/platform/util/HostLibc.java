@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import electrostatic4j.snaploader.platform.binary.BinarySource;
+import electrostatic4j.snaploader.platform.binary.ElfFile;
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+/**
+ * Detects the C library of a Linux host once per process; the C library is detected from the
+ * libraries mapped into the current process ("/proc/self/maps"), and the GNU C library version
+ * is read from the symbol versions defined by the mapped GNU C library binary.
+ * <p>
+ * The versions are encoded into comparable integers (major, minor, patch), for example,
+ * "GLIBC_2.34" is encoded as <code>0x022200</code>.
+ *
+ * @author pavl_g
+ */
+public final class HostLibc {
+
+    /**
+     * The prefix of the GNU C library symbol versions.
+     */
+    public static final String GLIBC_VERSION_PREFIX = "GLIBC_";
+
+    private static final Path PROCESS_MAPS = Paths.get("/proc/self/maps");
+
+    private HostLibc() {
+    }
+
+    /**
+     * Tests whether the host C library is the GNU C library.
+     *
+     * @return true if the GNU C library is detected, false otherwise
+     */
+    public static boolean isGlibc() {
+        return (Host.traits & HostPlatform.LIBC_GLIBC) != 0;
+    }
+
+    /**
+     * Tests whether the host C library is the musl C library (e.g., Alpine Linux).
+     *
+     * @return true if the musl C library is detected, false otherwise
+     */
+    public static boolean isMusl() {
+        return (Host.traits & HostPlatform.LIBC_MUSL) != 0;
+    }
+
+    /**
+     * Retrieves the host C library traits.
+     *
+     * @return {@link HostPlatform#LIBC_GLIBC}, {@link HostPlatform#LIBC_MUSL}, or zero if the
+     *         C library is not detected
+     */
+    public static long getTraits() {
+        return Host.traits;
+    }
+
+    /**
+     * Retrieves the encoded version of the host GNU C library.
+     *
+     * @return the encoded version, or zero if the GNU C library or its version is not detected
+     */
+    public static int getGlibcVersion() {
+        return Host.glibcVersion;
+    }
+
+    /**
+     * Encodes a GNU C library version, for example, "2.34", "2.2.5", or a symbol version "GLIBC_2.34".
+     *
+     * @param version the version to encode
+     * @return the encoded version, or zero if the version is not a numeric version (e.g., "GLIBC_PRIVATE")
+     */
+    public static int encodeGlibcVersion(String version) {
+        if (version.startsWith(GLIBC_VERSION_PREFIX)) {
+            version = version.substring(GLIBC_VERSION_PREFIX.length());
+        }
+        final String[] components = version.split("\\.");
+        int encoded = 0;
+        for (int i = 0; i < 3; i++) {
+            int component = 0;
+            if (i < components.length) {
+                try {
+                    component = Integer.parseInt(components[i]);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+            encoded = (encoded << 8) | Math.min(component, 0xff);
+        }
+        return encoded;
+    }
+
+    /**
+     * Decodes an encoded GNU C library version into a readable version.
+     *
+     * @param encoded the encoded version
+     * @return the readable version (e.g., "2.34")
+     */
+    public static String decodeGlibcVersion(int encoded) {
+        final int patch = encoded & 0xff;
+        return (encoded >>> 16) + "." + ((encoded >>> 8) & 0xff) + (patch == 0 ? "" : "." + patch);
+    }
+
+    /**
+     * Retrieves the highest GNU C library version required by an ELF binary.
+     *
+     * @param elfFile the ELF binary
+     * @return the encoded version, or zero if the binary doesn't require versioned GNU C library symbols
+     */
+    public static int getRequiredGlibcVersion(ElfFile elfFile) {
+        int required = 0;
+        for (Set<String> versions : elfFile.getRequiredVersions().values()) {
+            for (String version : versions) {
+                if (version.startsWith(GLIBC_VERSION_PREFIX)) {
+                    required = Math.max(required, encodeGlibcVersion(version));
+                }
+            }
+        }
+        return required;
+    }
+
+    /**
+     * Classifies the C library targeted by an ELF binary using the markers that detect the host C library;
+     * the musl C library is designated by its loader or its library among the needed libraries, and the GNU C library
+     * by "libc.so.6" or the GLIBC symbol versions.
+     *
+     * @param elfFile the ELF binary, including its dynamic section (see {@link ElfFile#read(BinarySource, boolean)})
+     * @return {@link HostPlatform#LIBC_GLIBC}, {@link HostPlatform#LIBC_MUSL}, or zero if the binary doesn't
+     *         designate a C library
+     */
+    public static long getTraits(ElfFile elfFile) {
+        boolean glibc = getRequiredGlibcVersion(elfFile) != 0;
+        for (String neededLibrary : elfFile.getNeededLibraries()) {
+            if (neededLibrary.startsWith("ld-musl-") || neededLibrary.startsWith("libc.musl-")
+                    || neededLibrary.equals("libc.so")) {
+                return HostPlatform.LIBC_MUSL;
+            }
+            glibc |= neededLibrary.equals("libc.so.6");
+        }
+        return glibc ? HostPlatform.LIBC_GLIBC : 0;
+    }
+
+    /**
+     * Tests whether an ELF binary is compatible with the host C library.
+     *
+     * @param elfFile the ELF binary
+     * @return null if the binary is compatible, or if the host C library is not detected,
+     *         otherwise a message describing the incompatibility
+     */
+    public static String getIncompatibility(ElfFile elfFile) {
+        final int requiredGlibcVersion = getRequiredGlibcVersion(elfFile);
+        if (isMusl()) {
+            if (requiredGlibcVersion != 0) {
+                return "Binary requires GLIBC " + decodeGlibcVersion(requiredGlibcVersion) + ", but the host C library is musl";
+            }
+            return null;
+        }
+        if (isGlibc()) {
+            for (String neededLibrary : elfFile.getNeededLibraries()) {
+                if (neededLibrary.contains("musl")) {
+                    return "Binary requires the musl C library (" + neededLibrary + "), but the host C library is GLIBC";
+                }
+            }
+            if (getGlibcVersion() != 0 && requiredGlibcVersion > getGlibcVersion()) {
+                return "Binary requires GLIBC " + decodeGlibcVersion(requiredGlibcVersion)
+                        + ", but the host GLIBC is " + decodeGlibcVersion(getGlibcVersion());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lazily detects the host C library once per process (the initialization-on-demand holder idiom).
+     */
+    private static final class Host {
+        private static long traits;
+        private static int glibcVersion;
+
+        static {
+            if (NativeVariant.Os.isLinux() && !NativeVariant.Os.isAndroid()) {
+                detect();
+            }
+        }
+
+        private static void detect() {
+            Path glibc = null;
+            try (BufferedReader maps = Files.newBufferedReader(PROCESS_MAPS, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = maps.readLine()) != null) {
+                    final int pathIndex = line.indexOf('/');
+                    if (pathIndex < 0) {
+                        continue;
+                    }
+                    final String path = line.substring(pathIndex);
+                    final String name = path.substring(path.lastIndexOf('/') + 1);
+                    if (name.startsWith("ld-musl-") || name.startsWith("libc.musl-")) {
+                        traits = HostPlatform.LIBC_MUSL;
+                        return;
+                    }
+                    if (name.equals("libc.so.6") || (name.startsWith("libc-") && name.endsWith(".so"))) {
+                        traits = HostPlatform.LIBC_GLIBC;
+                        glibc = Paths.get(path);
+                        break;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                SnapLoaderLogger.log(Level.WARNING, HostLibc.class.getName(), "detect",
+                        "Cannot read " + PROCESS_MAPS, e);
+                return;
+            }
+            if (glibc == null) {
+                return;
+            }
+            try (BinarySource source = BinarySource.of(glibc)) {
+                final ElfFile elfFile = ElfFile.read(source);
+                if (elfFile != null) {
+                    for (String version : elfFile.getDefinedVersions()) {
+                        if (version.startsWith(GLIBC_VERSION_PREFIX)) {
+                            glibcVersion = Math.max(glibcVersion, encodeGlibcVersion(version));
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                SnapLoaderLogger.log(Level.WARNING, HostLibc.class.getName(), "detect",
+                        "Cannot read the GLIBC version of " + glibc, e);
+            }
+            if (glibcVersion == 0) {
+                // e.g., libc-2.31.so
+                final String name = glibc.getFileName().toString();
+                if (name.startsWith("libc-")) {
+                    glibcVersion = encodeGlibcVersion(name.substring("libc-".length(), name.length() - ".so".length()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.util;
+
+import java.util.Locale;
+
+/**
+ * Represents the normalized traits of the host platform (OS + ARCH={CPU + BITNESS} + VM) as
+ * a bitmask, the host is detected once per process and the traits are cached; so that the
+ * platform predicates are evaluated by bitwise operations without re-reading the system properties.
+ * <p>
+ * The architecture is normalized from the many aliases of the "os.arch" property, for example,
+ * "amd64", "x86_64", and "x64" are all normalized into {@link HostPlatform#CPU_X86} and {@link HostPlatform#BITS_64},
+ * and "i386", "i686", and "x86" are normalized into {@link HostPlatform#CPU_X86} and {@link HostPlatform#BITS_32}.
+ *
+ * @author pavl_g
+ */
+public final class HostPlatform {
+
+    /**
+     * Linux operating system trait, also set for Android.
+     */
+    public static final long OS_LINUX = 1L;
+
+    /**
+     * Windows operating system trait.
+     */
+    public static final long OS_WINDOWS = 1L << 1;
+
+    /**
+     * MacOSX operating system trait.
+     */
+    public static final long OS_MAC = 1L << 2;
+
+    /**
+     * Android operating system trait (the Dalvik/ART virtual machine).
+     */
+    public static final long OS_ANDROID = 1L << 3;
+
+    /**
+     * Intel x86 CPU family trait (e.g., i386, i686, x86_64, and amd64).
+     */
+    public static final long CPU_X86 = 1L << 8;
+
+    /**
+     * ARM CPU family trait (e.g., arm, armv7, aarch64, and arm64).
+     */
+    public static final long CPU_ARM = 1L << 9;
+
+    /**
+     * RISC-V CPU family trait (e.g., riscv32 and riscv64).
+     */
+    public static final long CPU_RISC_V = 1L << 10;
+
+    /**
+     * PowerPC CPU family trait (e.g., ppc, ppc64, and ppc64le).
+     */
+    public static final long CPU_PPC = 1L << 11;
+
+    /**
+     * SPARC CPU family trait (e.g., sparc, and sparcv9).
+     */
+    public static final long CPU_SPARC = 1L << 12;
+
+    /**
+     * IBM System/390 CPU family trait (e.g., s390, and s390x).
+     */
+    public static final long CPU_S390 = 1L << 13;
+
+    /**
+     * 32-bit instruction set trait.
+     */
+    public static final long BITS_32 = 1L << 16;
+
+    /**
+     * 64-bit instruction set trait.
+     */
+    public static final long BITS_64 = 1L << 17;
+
+    /**
+     * Little-endian byte order trait.
+     */
+    public static final long LITTLE_ENDIAN = 1L << 18;
+
+    /**
+     * Big-endian byte order trait.
+     */
+    public static final long BIG_ENDIAN = 1L << 19;
+
+    /**
+     * GNU C library trait, see {@link HostLibc}.
+     */
+    public static final long LIBC_GLIBC = 1L << 24;
+
+    /**
+     * musl C library trait, see {@link HostLibc}.
+     */
+    public static final long LIBC_MUSL = 1L << 25;
+
+    /**
+     * The mask of the operating system traits.
+     */
+    public static final long OS_MASK = OS_LINUX | OS_WINDOWS | OS_MAC | OS_ANDROID;
+
+    /**
+     * The mask of the CPU family traits.
+     */
+    public static final long CPU_MASK = CPU_X86 | CPU_ARM | CPU_RISC_V | CPU_PPC | CPU_SPARC | CPU_S390;
+
+    /**
+     * The mask of the bitness traits.
+     */
+    public static final long BITS_MASK = BITS_32 | BITS_64;
+
+    /**
+     * The mask of the C library traits.
+     */
+    public static final long LIBC_MASK = LIBC_GLIBC | LIBC_MUSL;
+
+    /**
+     * The mask of the traits composing the normalized platform key (OS + CPU + BITNESS).
+     */
+    public static final long KEY_MASK = OS_MASK | CPU_MASK | BITS_MASK;
+
+    private HostPlatform() {
+    }
+
+    /**
+     * Retrieves the cached traits of the host platform.
+     *
+     * @return a bitmask of the host platform traits
+     */
+    public static long getTraits() {
+        return Host.TRAITS;
+    }
+
+    /**
+     * Retrieves the normalized key of the host platform (OS + CPU + BITNESS).
+     *
+     * @return a bitmask of the host platform key traits
+     */
+    public static long getKey() {
+        return Host.TRAITS & KEY_MASK;
+    }
+
+    /**
+     * Tests whether the host platform has all the specified traits.
+     *
+     * @param traits a bitmask of the traits to test
+     * @return true if the host has all the traits, false otherwise
+     */
+    public static boolean hasTraits(long traits) {
+        return (Host.TRAITS & traits) == traits;
+    }
+
+    /**
+     * Detects the traits of a platform from its system properties, the C library traits
+     * are not detected by this method.
+     *
+     * @param osName the operating system name (i.e., "os.name")
+     * @param osArch the operating system architecture (i.e., "os.arch")
+     * @param vmName the java virtual machine name (i.e., "java.vm.name")
+     * @return a bitmask of the detected platform traits, the unrecognized constituents are left unset
+     */
+    public static long detectTraits(String osName, String osArch, String vmName) {
+        long traits = 0;
+        final String os = osName == null ? "" : osName.toLowerCase(Locale.ROOT);
+        if (os.contains("linux")) {
+            traits |= OS_LINUX;
+        } else if (os.contains("windows")) {
+            traits |= OS_WINDOWS;
+        } else if (os.contains("mac") || os.contains("darwin")) {
+            traits |= OS_MAC;
+        }
+        if (vmName != null && vmName.contains("Dalvik")) {
+            traits |= OS_ANDROID | OS_LINUX;
+        }
+        return traits | normalizeArch(osArch);
+    }
+
+    /**
+     * Normalizes an architecture alias into the CPU family, the bitness, and the byte order traits.
+     *
+     * @param osArch the operating system architecture (i.e., "os.arch")
+     * @return a bitmask of the architecture traits, or zero if the architecture is unrecognized
+     */
+    public static long normalizeArch(String osArch) {
+        if (osArch == null) {
+            return 0;
+        }
+        final String arch = osArch.toLowerCase(Locale.ROOT).replace('-', '_');
+        switch (arch) {
+            case "amd64":
+            case "x86_64":
+            case "x64":
+            case "em64t":
+                return CPU_X86 | BITS_64 | LITTLE_ENDIAN;
+            case "x86":
+            case "i386":
+            case "i486":
+            case "i586":
+            case "i686":
+            case "ia32":
+                return CPU_X86 | BITS_32 | LITTLE_ENDIAN;
+            case "aarch64":
+            case "arm64":
+                return CPU_ARM | BITS_64 | LITTLE_ENDIAN;
+            case "riscv64":
+                return CPU_RISC_V | BITS_64 | LITTLE_ENDIAN;
+            case "riscv":
+            case "riscv32":
+                return CPU_RISC_V | BITS_32 | LITTLE_ENDIAN;
+            case "ppc64le":
+                return CPU_PPC | BITS_64 | LITTLE_ENDIAN;
+            case "ppc64":
+                return CPU_PPC | BITS_64 | BIG_ENDIAN;
+            case "ppc":
+            case "powerpc":
+                return CPU_PPC | BITS_32 | BIG_ENDIAN;
+            case "sparcv9":
+                return CPU_SPARC | BITS_64 | BIG_ENDIAN;
+            case "sparc":
+                return CPU_SPARC | BITS_32 | BIG_ENDIAN;
+            case "s390x":
+                return CPU_S390 | BITS_64 | BIG_ENDIAN;
+            case "s390":
+                return CPU_S390 | BITS_32 | BIG_ENDIAN;
+            default:
+                // arm, armv7l, armhf, armel, ...etc
+                if (arch.startsWith("arm")) {
+                    return CPU_ARM | BITS_32 | LITTLE_ENDIAN;
+                }
+                return 0;
+        }
+    }
+
+    /**
+     * Lazily detects the host traits once per process (the initialization-on-demand holder idiom).
+     */
+    private static final class Host {
+        private static final long TRAITS = detectTraits(NativeVariant.OS_NAME.getProperty(),
+                NativeVariant.OS_ARCH.getProperty(), NativeVariant.JVM.getProperty()) | HostLibc.getTraits();
+    }
+}
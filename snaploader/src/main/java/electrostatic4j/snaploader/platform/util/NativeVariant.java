@@ -144,7 +144,7 @@ public enum NativeVariant {
          * @return true if the current runtime is operating on a RISC-V
          */
         public static boolean isRiscV() {
-            return JVM.getProperty().contains("riscv");
+            return OS_ARCH.getProperty().contains("riscv");
         }
 
         /**
@@ -155,7 +155,7 @@ public enum NativeVariant {
          * @see Cpu#isSparcV9()
          */
         public static boolean isSparc() {
-            return JVM.getProperty().contains("sparc");
+            return OS_ARCH.getProperty().contains("sparc");
         }
 
         /**
@@ -166,7 +166,7 @@ public enum NativeVariant {
          * @see Cpu#isSparc()
          */
         public static boolean isSparcV9() {
-            return JVM.getProperty().contains("sparcv9");
+            return OS_ARCH.getProperty().contains("sparcv9");
         }
 
         /**
@@ -177,7 +177,7 @@ public enum NativeVariant {
          * @see Cpu#isPpc64le()
          */
         public static boolean isPpc() {
-            return JVM.getProperty().contains("ppc");
+            return OS_ARCH.getProperty().contains("ppc");
         }
 
         /**
@@ -189,7 +189,7 @@ public enum NativeVariant {
          * @see Cpu#isPpc()
          */
         public static boolean isPpc64le() {
-            return JVM.getProperty().contains("ppc64le");
+            return OS_ARCH.getProperty().contains("ppc64le");
         }
 
         /**
@@ -200,7 +200,7 @@ public enum NativeVariant {
          * @see Cpu#isS390x()
          */
         public static boolean isS390() {
-            return JVM.getProperty().contains("s390");
+            return OS_ARCH.getProperty().contains("s390");
         }
 
         /**
@@ -211,7 +211,7 @@ public enum NativeVariant {
          * @see Cpu#isS390()
          */
         public static boolean isS390x() {
-            return JVM.getProperty().contains("s390x");
+            return OS_ARCH.getProperty().contains("s390x");
         }
 
         /**
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+
+/**
+ * Represents a compiled index of registered native dynamic libraries keyed by the traits
+ * required by their platform predicates; so that the platform library is resolved by a
+ * constant number of lookups (the subsets of the host traits) regardless of the number
+ * of the registered libraries.
+ * <p>
+ * The libraries with raw boolean predicates, or composite predicates of disjunctions and negations
+ * can't be keyed; they are evaluated in the registration order.
+ * <p>
+ * The libraries matching a platform are filtered by their required CPU features, and ranked as candidates
+ * by their tiers (see {@link NativeDynamicLibrary#getTier()}), the fastest compatible variant is the first
+ * candidate, while the ties are kept in the registration order; thus without CPU-feature-specific variants,
+ * the first registered library matching the host always wins; the same as a linear search.
+ * <p>
+ * The resolution against the host platform is memoized, including the unsupported host resolution.
+ *
+ * @author pavl_g
+ */
+public final class PlatformIndex {
+
+    private final List<NativeDynamicLibrary> registeredLibraries;
+    private final NativeDynamicLibrary[] libraries;
+    private final Map<Long, int[]> keyedLibraries = new HashMap<>();
+    private final int[] unkeyedLibraries;
+
+    /**
+     * The memoized host candidates, an empty list designates an unsupported host.
+     */
+    private volatile List<NativeDynamicLibrary> hostCandidates;
+
+    /**
+     * Compiles an index of the registered libraries, the index is a snapshot of the list.
+     *
+     * @param registeredLibraries the registered libraries in their precedence order
+     */
+    public PlatformIndex(List<NativeDynamicLibrary> registeredLibraries) {
+        this.registeredLibraries = registeredLibraries;
+        this.libraries = registeredLibraries.toArray(new NativeDynamicLibrary[0]);
+        final Map<Long, List<Integer>> keyed = new HashMap<>();
+        final List<Integer> unkeyed = new ArrayList<>();
+        for (int position = 0; position < libraries.length; position++) {
+            final long traits = libraries[position].getPlatformPredicate().getTraits();
+            if (traits == 0) {
+                unkeyed.add(position);
+            } else {
+                keyed.computeIfAbsent(traits, key -> new ArrayList<>()).add(position);
+            }
+        }
+        keyed.forEach((traits, positions) -> keyedLibraries.put(traits, toArray(positions)));
+        this.unkeyedLibraries = toArray(unkeyed);
+    }
+
+    /**
+     * Resolves the fastest registered library compatible with the host platform and the
+     * host CPU features, the resolution is memoized.
+     *
+     * @return the first candidate for the host platform, or null if the host is not supported
+     */
+    public NativeDynamicLibrary resolve() {
+        final List<NativeDynamicLibrary> candidates = resolveCandidates();
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    /**
+     * Resolves the first registered baseline library for arbitrary platform traits, the resolution is not memoized.
+     *
+     * @param platformTraits a bitmask of the platform traits, see {@link HostPlatform}
+     * @return the first registered library matching the platform traits, and requiring no CPU features,
+     *         or null if the platform is not supported
+     */
+    public NativeDynamicLibrary resolve(long platformTraits) {
+        final List<NativeDynamicLibrary> candidates = resolveCandidates(platformTraits, 0, false);
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    /**
+     * Resolves the registered libraries compatible with the host platform and the host CPU features
+     * ordered from the fastest to the slowest variant, the resolution is memoized.
+     *
+     * @return an unmodifiable list of the candidates, or an empty list if the host is not supported
+     */
+    public List<NativeDynamicLibrary> resolveCandidates() {
+        List<NativeDynamicLibrary> candidates = hostCandidates;
+        if (candidates == null) {
+            candidates = resolveCandidates(HostPlatform.getTraits(), CpuFeatures.getFeatures(), true);
+            hostCandidates = candidates;
+        }
+        return candidates;
+    }
+
+    /**
+     * Resolves the registered libraries compatible with arbitrary platform traits and CPU features
+     * ordered from the fastest to the slowest variant, the resolution is not memoized.
+     *
+     * @param platformTraits a bitmask of the platform traits, see {@link HostPlatform}
+     * @param cpuFeatures a bitmask of the CPU features, see {@link CpuFeature}
+     * @return an unmodifiable list of the candidates, or an empty list if the platform is not supported
+     */
+    public List<NativeDynamicLibrary> resolveCandidates(long platformTraits, long cpuFeatures) {
+        return resolveCandidates(platformTraits, cpuFeatures, false);
+    }
+
+    /**
+     * Tests whether this index is compiled from the specified list of libraries.
+     *
+     * @param registeredLibraries the list of the registered libraries
+     * @return true if the index is compiled from the same list object, false otherwise
+     */
+    public boolean isIndexing(List<NativeDynamicLibrary> registeredLibraries) {
+        return this.registeredLibraries == registeredLibraries;
+    }
+
+    private List<NativeDynamicLibrary> resolveCandidates(long platformTraits, long cpuFeatures, boolean isHost) {
+        final List<Integer> matches = new ArrayList<>();
+        // a keyed predicate matches if its traits are a subset of the platform traits,
+        // enumerate the non-empty subsets of the platform traits (a few bits)
+        for (long subset = platformTraits; subset != 0; subset = (subset - 1) & platformTraits) {
+            final int[] positions = keyedLibraries.get(subset);
+            if (positions != null) {
+                for (int position : positions) {
+                    matches.add(position);
+                }
+            }
+        }
+        for (int position : unkeyedLibraries) {
+            final PlatformPredicate predicate = libraries[position].getPlatformPredicate();
+            if (isHost ? predicate.evaluatePredicate() : predicate.evaluate(platformTraits)) {
+                matches.add(position);
+            }
+        }
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<NativeDynamicLibrary> candidates = new ArrayList<>(matches.size());
+        Collections.sort(matches);
+        for (int position : matches) {
+            final NativeDynamicLibrary library = libraries[position];
+            if ((library.getRequiredFeatures() & ~cpuFeatures) == 0) {
+                candidates.add(library);
+            }
+        }
+        // stable sort, the ties are kept in the registration order
+        candidates.sort((first, second) -> Integer.compare(second.getTier(), first.getTier()));
+        return Collections.unmodifiableList(candidates);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        final int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -36,6 +36,11 @@ package electrostatic4j.snaploader.platform.util;
  * Wraps a platform-specific predicate; that if all of its propositions evaluated
  * as true, the respective platform library will be assigned to be extracted
  * and loaded by the loader object in-command.
+ * <p>
+ * A predicate is either a raw boolean predicate, or a bitmask expression over the
+ * normalized host traits (see {@link HostPlatform}) composed by {@link PlatformPredicate#and(PlatformPredicate)},
+ * {@link PlatformPredicate#or(PlatformPredicate)}, and {@link PlatformPredicate#not()}; the expression
+ * is evaluated lazily against the host on the first evaluation, and the evaluation is cached.
  *
  * @author pavl_g
  */
@@ -44,84 +49,118 @@ public final class PlatformPredicate {
     /**
      * Alias object for Linux on X86 Chipset.
      */
-    public static final PlatformPredicate LINUX_X86 = new PlatformPredicate(NativeVariant.Os.isLinux() && NativeVariant.Cpu.isX86());
+    public static final PlatformPredicate LINUX_X86 = of(HostPlatform.OS_LINUX | HostPlatform.CPU_X86 | HostPlatform.BITS_32);
 
     /**
      * Alias object for Linux on X86-64 Chipset.
      */
-    public static final PlatformPredicate LINUX_X86_64 = new PlatformPredicate(NativeVariant.Os.isLinux() && NativeVariant.Cpu.isAMD() && NativeVariant.Cpu.is64());
+    public static final PlatformPredicate LINUX_X86_64 = of(HostPlatform.OS_LINUX | HostPlatform.CPU_X86 | HostPlatform.BITS_64);
 
     /**
      * Alias object for Linux on arm-32 Chipset.
      */
-    public static final PlatformPredicate LINUX_ARM_32 = new PlatformPredicate(NativeVariant.Os.isLinux() && NativeVariant.Cpu.isARM());
+    public static final PlatformPredicate LINUX_ARM_32 = of(HostPlatform.OS_LINUX | HostPlatform.CPU_ARM | HostPlatform.BITS_32);
 
     /**
      * Alias object for Linux on arm-64 Chipset.
      */
-    public static final PlatformPredicate LINUX_ARM_64 = new PlatformPredicate(NativeVariant.Os.isLinux() && NativeVariant.Cpu.isARM() && NativeVariant.Cpu.is64());
+    public static final PlatformPredicate LINUX_ARM_64 = of(HostPlatform.OS_LINUX | HostPlatform.CPU_ARM | HostPlatform.BITS_64);
 
     /**
      * Alias object for Linux on RiscV-32 Chipset.
      */
-    public static final PlatformPredicate LINUX_RISC_V_32 = new PlatformPredicate(NativeVariant.Os.isLinux() && NativeVariant.Cpu.isRiscV());
+    public static final PlatformPredicate LINUX_RISC_V_32 = of(HostPlatform.OS_LINUX | HostPlatform.CPU_RISC_V | HostPlatform.BITS_32);
 
     /**
      * Alias object for Linux on RiscV-64 Chipset.
      */
-    public static final PlatformPredicate LINUX_RISC_V_64 = new PlatformPredicate(NativeVariant.Os.isLinux() && NativeVariant.Cpu.isRiscV() && NativeVariant.Cpu.is64());
+    public static final PlatformPredicate LINUX_RISC_V_64 = of(HostPlatform.OS_LINUX | HostPlatform.CPU_RISC_V | HostPlatform.BITS_64);
 
     /**
      * Alias object for MacOSX on X86 Chipset.
      */
-    public static final PlatformPredicate MACOS_X86 = new PlatformPredicate(NativeVariant.Os.isMac() && NativeVariant.Cpu.isX86());
+    public static final PlatformPredicate MACOS_X86 = of(HostPlatform.OS_MAC | HostPlatform.CPU_X86 | HostPlatform.BITS_32);
 
     /**
      * Alias object for MacOSX on X86-64 Chipset.
      */
-    public static final PlatformPredicate MACOS_X86_64 = new PlatformPredicate(NativeVariant.Os.isMac() && NativeVariant.Cpu.isX86() && NativeVariant.Cpu.is64());
+    public static final PlatformPredicate MACOS_X86_64 = of(HostPlatform.OS_MAC | HostPlatform.CPU_X86 | HostPlatform.BITS_64);
 
     /**
      * Alias object for MacOSX on arm-32 Chipset.
      */
-    public static final PlatformPredicate MACOS_ARM_32 = new PlatformPredicate(NativeVariant.Os.isMac() && NativeVariant.Cpu.isARM());
+    public static final PlatformPredicate MACOS_ARM_32 = of(HostPlatform.OS_MAC | HostPlatform.CPU_ARM | HostPlatform.BITS_32);
 
     /**
      * Alias object for MacOSX on arm-64 Chipset.
      */
-    public static final PlatformPredicate MACOS_ARM_64 = new PlatformPredicate(NativeVariant.Os.isMac() && NativeVariant.Cpu.isARM() && NativeVariant.Cpu.is64());
+    public static final PlatformPredicate MACOS_ARM_64 = of(HostPlatform.OS_MAC | HostPlatform.CPU_ARM | HostPlatform.BITS_64);
 
     /**
      * Alias object for Windows on X86 Chipset.
      */
-    public static final PlatformPredicate WIN_X86 = new PlatformPredicate(NativeVariant.Os.isWindows() && NativeVariant.Cpu.isX86());
+    public static final PlatformPredicate WIN_X86 = of(HostPlatform.OS_WINDOWS | HostPlatform.CPU_X86 | HostPlatform.BITS_32);
 
     /**
      * Alias object for Windows on X86-64 Chipset.
      */
-    public static final PlatformPredicate WIN_X86_64 = new PlatformPredicate(NativeVariant.Os.isWindows() && NativeVariant.Cpu.isAMD() && NativeVariant.Cpu.is64());
+    public static final PlatformPredicate WIN_X86_64 = of(HostPlatform.OS_WINDOWS | HostPlatform.CPU_X86 | HostPlatform.BITS_64);
 
     /**
      * Alias object for Windows on arm-32 Chipset.
      */
-    public static final PlatformPredicate WIN_ARM_32 = new PlatformPredicate(NativeVariant.Os.isWindows() && NativeVariant.Cpu.isARM());
+    public static final PlatformPredicate WIN_ARM_32 = of(HostPlatform.OS_WINDOWS | HostPlatform.CPU_ARM | HostPlatform.BITS_32);
 
     /**
      * Alias object for Windows on arm-64 Chipset.
      */
-    public static final PlatformPredicate WIN_ARM_64 = new PlatformPredicate(NativeVariant.Os.isWindows() && NativeVariant.Cpu.isARM() && NativeVariant.Cpu.is64());
+    public static final PlatformPredicate WIN_ARM_64 = of(HostPlatform.OS_WINDOWS | HostPlatform.CPU_ARM | HostPlatform.BITS_64);
 
     /**
      * Alias object for Windows on RiscV-32 Chipset.
      */
-    public static final PlatformPredicate WIN_RISC_V_32 = new PlatformPredicate(NativeVariant.Os.isWindows() && NativeVariant.Cpu.isRiscV());
+    public static final PlatformPredicate WIN_RISC_V_32 = of(HostPlatform.OS_WINDOWS | HostPlatform.CPU_RISC_V | HostPlatform.BITS_32);
 
     /**
      * Alias object for Windows on RiscV-64 Chipset.
      */
-    public static final PlatformPredicate WIN_RISC_V_64 = new PlatformPredicate(NativeVariant.Os.isWindows() && NativeVariant.Cpu.isRiscV());
+    public static final PlatformPredicate WIN_RISC_V_64 = of(HostPlatform.OS_WINDOWS | HostPlatform.CPU_RISC_V | HostPlatform.BITS_64);
 
-    private final boolean predicate;
+    /**
+     * Alias object for Linux hosts with the GNU C library.
+     */
+    public static final PlatformPredicate GLIBC = of(HostPlatform.OS_LINUX | HostPlatform.LIBC_GLIBC);
+
+    /**
+     * Alias object for Linux hosts with the musl C library (e.g., Alpine Linux).
+     */
+    public static final PlatformPredicate MUSL = of(HostPlatform.OS_LINUX | HostPlatform.LIBC_MUSL);
+
+    /**
+     * Alias object for Linux with the musl C library on X86-64 Chipset.
+     */
+    public static final PlatformPredicate LINUX_X86_64_MUSL = LINUX_X86_64.and(MUSL);
+
+    /**
+     * Alias object for Linux with the musl C library on arm-64 Chipset.
+     */
+    public static final PlatformPredicate LINUX_ARM_64_MUSL = LINUX_ARM_64.and(MUSL);
+
+    private static final byte UNEVALUATED = 0;
+    private static final byte EVALUATED_TRUE = 1;
+    private static final byte EVALUATED_FALSE = 2;
+
+    private final Expression expression;
+
+    /**
+     * The traits required by this predicate if it's a pure conjunction of traits, zero otherwise.
+     */
+    private final long traits;
+
+    /**
+     * The cached evaluation against the host platform.
+     */
+    private volatile byte evaluation = UNEVALUATED;
 
     /**
      * Instantiates a platform-specific predicate object
@@ -131,15 +170,111 @@ public final class PlatformPredicate {
      * @param predicate a raw boolean predicate to evaluate against
      */
     public PlatformPredicate(boolean predicate) {
-        this.predicate = predicate;
+        this(hostTraits -> predicate, 0);
+    }
+
+    private PlatformPredicate(Expression expression, long traits) {
+        this.expression = expression;
+        this.traits = traits;
+    }
+
+    /**
+     * Creates a predicate requiring all the specified host traits, for example,
+     * <code>PlatformPredicate.of(HostPlatform.OS_LINUX | HostPlatform.CPU_ARM | HostPlatform.BITS_64)</code>.
+     *
+     * @param traits a bitmask of the required traits, see {@link HostPlatform}
+     * @return a new platform predicate object
+     */
+    public static PlatformPredicate of(final long traits) {
+        return new PlatformPredicate(hostTraits -> (hostTraits & traits) == traits, traits);
+    }
+
+    /**
+     * Creates a predicate requiring the GNU C library of a minimum version on the host, for example,
+     * <code>PlatformPredicate.LINUX_X86_64.and(PlatformPredicate.glibc("2.17"))</code>.
+     * <p>
+     * Note: the version is always tested against the host GNU C library version (see {@link HostLibc}).
+     *
+     * @param minimumVersion the minimum GNU C library version (e.g., "2.17")
+     * @return a new platform predicate object
+     */
+    public static PlatformPredicate glibc(String minimumVersion) {
+        final int version = HostLibc.encodeGlibcVersion(minimumVersion);
+        return new PlatformPredicate(hostTraits -> (hostTraits & HostPlatform.LIBC_GLIBC) != 0
+                && HostLibc.getGlibcVersion() >= version, 0);
+    }
+
+    /**
+     * Composes a predicate that evaluates as true if both this and the other predicates evaluate as true.
+     *
+     * @param other the other predicate
+     * @return a new composite platform predicate object
+     */
+    public PlatformPredicate and(final PlatformPredicate other) {
+        if (traits != 0 && other.traits != 0) {
+            // a conjunction of pure conjunctions is still a pure conjunction
+            return of(traits | other.traits);
+        }
+        return new PlatformPredicate(hostTraits -> evaluate(hostTraits) && other.evaluate(hostTraits), 0);
+    }
+
+    /**
+     * Composes a predicate that evaluates as true if either this or the other predicate evaluates as true.
+     *
+     * @param other the other predicate
+     * @return a new composite platform predicate object
+     */
+    public PlatformPredicate or(final PlatformPredicate other) {
+        return new PlatformPredicate(hostTraits -> evaluate(hostTraits) || other.evaluate(hostTraits), 0);
+    }
+
+    /**
+     * Composes a predicate that negates this predicate.
+     *
+     * @return a new composite platform predicate object
+     */
+    public PlatformPredicate not() {
+        return new PlatformPredicate(hostTraits -> !evaluate(hostTraits), 0);
     }
 
     /**
      * Evaluate the propositions of the predefined platform-predicate.
      *
-     * @return true if the
+     * @return true if the propositions evaluate as true for the host platform, false otherwise
      */
     public boolean evaluatePredicate() {
-        return predicate;
+        byte evaluation = this.evaluation;
+        if (evaluation == UNEVALUATED) {
+            evaluation = evaluate(HostPlatform.getTraits()) ? EVALUATED_TRUE : EVALUATED_FALSE;
+            this.evaluation = evaluation;
+        }
+        return evaluation == EVALUATED_TRUE;
+    }
+
+    /**
+     * Evaluates the propositions of this predicate against arbitrary platform traits.
+     *
+     * @param hostTraits a bitmask of the platform traits, see {@link HostPlatform}
+     * @return true if the propositions evaluate as true for the platform traits, false otherwise
+     */
+    public boolean evaluate(long hostTraits) {
+        return expression.test(hostTraits);
+    }
+
+    /**
+     * Retrieves the traits required by this predicate, if it's a pure conjunction of traits.
+     *
+     * @return a bitmask of the required traits, or zero if this predicate is a raw boolean predicate
+     *         or a composite of disjunctions and negations
+     */
+    public long getTraits() {
+        return traits;
+    }
+
+    /**
+     * Represents a predicate expression over the platform traits.
+     */
+    private interface Expression {
+        boolean test(long hostTraits);
     }
 }
@@ -0,0 +1,505 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+/**
+ * Locates the native dynamic libraries provided by the host system to the dynamic linker on Linux;
+ * a library is provided by the system if it's already mapped into the current process (e.g., the
+ * GNU C library, or the JVM libraries), if it's listed in the dynamic linker cache ("/etc/ld.so.cache"),
+ * or if it's present on one of the library search paths.
+ * <p>
+ * The library search paths are composed of "LD_LIBRARY_PATH", "java.library.path", the JDK library
+ * directories, and the default trusted directories including the multi-arch directories of the host.
+ * <p>
+ * The dynamic linker cache is read by a pure-Java parser of the glibc cache formats
+ * ("glibc-ld.so.cache1.1", and the legacy "ld.so-1.7.0" format).
+ *
+ * @author pavl_g
+ */
+public final class SystemLibraries {
+
+    /**
+     * The default path of the dynamic linker cache.
+     */
+    public static final Path LINKER_CACHE = Paths.get("/etc/ld.so.cache");
+
+    private static final Path PROCESS_MAPS = Paths.get("/proc/self/maps");
+    private static final String CACHE_MAGIC = "glibc-ld.so.cache1.1";
+    private static final String LEGACY_CACHE_MAGIC = "ld.so-1.7.0";
+    private static final int CACHE_HEADER_SIZE = 48;
+    private static final int CACHE_ENTRY_SIZE = 24;
+    private static final int LEGACY_CACHE_HEADER_SIZE = 16;
+    private static final int LEGACY_CACHE_ENTRY_SIZE = 12;
+
+    /* the ABI flags of the cache entries, see glibc "dl-cache.h" */
+    private static final int FLAG_ELF = 0x0001;
+    private static final int FLAG_ELF_LIBC6 = 0x0003;
+    private static final int FLAG_SPARC_LIB64 = 0x0100;
+    private static final int FLAG_X8664_LIB64 = 0x0300;
+    private static final int FLAG_S390_LIB64 = 0x0400;
+    private static final int FLAG_POWERPC_LIB64 = 0x0500;
+    private static final int FLAG_ARM_LIBHF = 0x0900;
+    private static final int FLAG_AARCH64_LIB64 = 0x0a00;
+    private static final int FLAG_ARM_LIBSF = 0x0b00;
+    private static final int FLAG_RISCV_FLOAT_ABI_SOFT = 0x0f00;
+    private static final int FLAG_RISCV_FLOAT_ABI_DOUBLE = 0x1000;
+
+    private SystemLibraries() {
+    }
+
+    /**
+     * Retrieves the cached library search paths of the host.
+     *
+     * @return an unmodifiable list of the existing search directories in their search order
+     */
+    public static List<Path> getSearchPaths() {
+        return Host.SEARCH_PATHS;
+    }
+
+    /**
+     * Searches the library search paths for a library file name.
+     *
+     * @param libraryName the library file name or SONAME (e.g., "libz.so.1")
+     * @return the path of the library, or null if it's not found
+     */
+    public static Path find(String libraryName) {
+        for (Path directory : Host.SEARCH_PATHS) {
+            final Path library = directory.resolve(libraryName);
+            if (Files.isRegularFile(library)) {
+                return library;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the file names of the libraries mapped into the current process.
+     *
+     * @return a set of the mapped library file names, or an empty set if the process maps can't be read
+     */
+    public static Set<String> getLoadedLibraries() {
+        final Set<String> libraries = new HashSet<>();
+        try (BufferedReader maps = Files.newBufferedReader(PROCESS_MAPS, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = maps.readLine()) != null) {
+                final int pathIndex = line.indexOf('/');
+                if (pathIndex >= 0) {
+                    libraries.add(line.substring(line.lastIndexOf('/') + 1));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return Collections.emptySet();
+        }
+        return libraries;
+    }
+
+    /**
+     * Tests whether a library is provided by the host system.
+     *
+     * @param libraryName the library file name or SONAME (e.g., "libz.so.1")
+     * @param loadedLibraries the libraries mapped into the current process, see {@link SystemLibraries#getLoadedLibraries()}
+     * @return true if the library is mapped into the current process, or found on the search paths, false otherwise
+     */
+    public static boolean isProvided(String libraryName, Set<String> loadedLibraries) {
+        return loadedLibraries.contains(libraryName) || getLinkerCache().containsKey(libraryName)
+                || find(libraryName) != null;
+    }
+
+    /**
+     * Retrieves the cached entries of the dynamic linker cache of the host.
+     *
+     * @return an unmodifiable map of the library names (SONAMEs and the development names) to their
+     *         paths in the cache order, or an empty map if the cache is not present or cannot be parsed
+     */
+    public static Map<String, List<Path>> getLinkerCache() {
+        return LinkerCache.ENTRIES;
+    }
+
+    /**
+     * Locates the installed libraries matching a library file name and an optional version, the libraries
+     * are searched in "java.library.path" first, then in the dynamic linker cache.
+     * <p>
+     * A library file name matches itself (e.g., "libjmealloc.so"), and its versioned names (e.g., "libjmealloc.so.1.2");
+     * if a version is specified, only the versioned names of that version, or of its sub-versions, are matched
+     * (e.g., the version "1" matches "libjmealloc.so.1", and "libjmealloc.so.1.2").
+     *
+     * @param libraryFile the platform library file name (e.g., "libjmealloc.so")
+     * @param version the required version, or null to match any version
+     * @return the matching installed libraries, the unversioned names are preferred, then the newer versions
+     * @throws IOException if a search directory cannot be read
+     */
+    public static List<Path> findInstalled(String libraryFile, String version) throws IOException {
+        final List<Path> installed = new ArrayList<>();
+        final String javaLibraryPath = System.getProperty("java.library.path");
+        final Set<String> directories = new LinkedHashSet<>();
+        addPaths(directories, javaLibraryPath);
+        for (String directory : directories) {
+            final Path path = Paths.get(directory);
+            if (!Files.isDirectory(path)) {
+                continue;
+            }
+            final List<Path> matches = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, libraryFile + "*")) {
+                for (Path library : stream) {
+                    if (isInstalledVersion(library.getFileName().toString(), libraryFile, version)) {
+                        matches.add(library);
+                    }
+                }
+            }
+            matches.sort((first, second) -> compareVersions(second.getFileName().toString(),
+                    first.getFileName().toString(), libraryFile));
+            installed.addAll(matches);
+        }
+        final List<String> names = new ArrayList<>();
+        for (String name : getLinkerCache().keySet()) {
+            if (isInstalledVersion(name, libraryFile, version)) {
+                names.add(name);
+            }
+        }
+        names.sort((first, second) -> compareVersions(second, first, libraryFile));
+        for (String name : names) {
+            for (Path library : getLinkerCache().get(name)) {
+                if (!installed.contains(library)) {
+                    installed.add(library);
+                }
+            }
+        }
+        return installed;
+    }
+
+    private static boolean isInstalledVersion(String name, String libraryFile, String version) {
+        if (version == null) {
+            return name.equals(libraryFile) || (name.startsWith(libraryFile + ".")
+                    && name.length() > libraryFile.length() + 1
+                    && Character.isDigit(name.charAt(libraryFile.length() + 1)));
+        }
+        final String versionedName = libraryFile + "." + version;
+        return name.equals(versionedName) || name.startsWith(versionedName + ".");
+    }
+
+    /**
+     * Compares the versioned names of a library file by their numeric version components, the unversioned
+     * name is greater than any versioned name.
+     */
+    private static int compareVersions(String first, String second, String libraryFile) {
+        if (first.length() == libraryFile.length() || second.length() == libraryFile.length()) {
+            return Integer.compare(-first.length(), -second.length());
+        }
+        final String[] firstVersion = first.substring(libraryFile.length() + 1).split("\\.");
+        final String[] secondVersion = second.substring(libraryFile.length() + 1).split("\\.");
+        for (int i = 0; i < Math.min(firstVersion.length, secondVersion.length); i++) {
+            final int comparison = Long.compare(parseVersion(firstVersion[i]), parseVersion(secondVersion[i]));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(firstVersion.length, secondVersion.length);
+    }
+
+    private static long parseVersion(String component) {
+        try {
+            return Long.parseLong(component);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a dynamic linker cache, only the entries of the host ABI are retained
+     * (see {@link SystemLibraries#parseLinkerCache(ByteBuffer, long)}).
+     *
+     * @param cache the content of the cache in the host byte order
+     * @return a map of the library names to their paths in the cache order
+     * @throws IOException if the cache format is not recognized, or the cache is malformed
+     */
+    public static Map<String, List<Path>> parseLinkerCache(ByteBuffer cache) throws IOException {
+        return parseLinkerCache(cache, HostPlatform.getTraits());
+    }
+
+    /**
+     * Parses a dynamic linker cache, only the entries of the platform ABI are retained as the dynamic
+     * linker does; the ABI is designated by the flags of each entry (e.g., the "/lib32" libraries of
+     * a multilib host are skipped for a 64-bit platform).
+     *
+     * @param cache the content of the cache in the host byte order
+     * @param platformTraits a bitmask of the platform traits, see {@link HostPlatform}; the entries of all
+     *                       the ABIs are retained if the platform ABI has no well-known flags
+     * @return a map of the library names to their paths in the cache order
+     * @throws IOException if the cache format is not recognized, or the cache is malformed
+     */
+    public static Map<String, List<Path>> parseLinkerCache(ByteBuffer cache, long platformTraits) throws IOException {
+        final int[] abiFlags = getCacheFlags(platformTraits);
+        int cacheStart = 0;
+        if (startsWith(cache, 0, LEGACY_CACHE_MAGIC)) {
+            if (cache.limit() < LEGACY_CACHE_HEADER_SIZE) {
+                throw new IOException("Truncated dynamic linker cache header");
+            }
+            // the legacy format may be followed by the new format
+            final int libraries = cache.getInt(LEGACY_CACHE_MAGIC.length() + 1);
+            if (libraries < 0 || libraries > (cache.limit() - LEGACY_CACHE_HEADER_SIZE) / LEGACY_CACHE_ENTRY_SIZE) {
+                throw new IOException("Malformed dynamic linker cache entries");
+            }
+            final int legacyEnd = LEGACY_CACHE_HEADER_SIZE + libraries * LEGACY_CACHE_ENTRY_SIZE;
+            cacheStart = -1;
+            for (int alignment : new int[] {8, 4}) {
+                final int start = (legacyEnd + alignment - 1) & -alignment;
+                if (startsWith(cache, start, CACHE_MAGIC)) {
+                    cacheStart = start;
+                    break;
+                }
+            }
+            if (cacheStart < 0) {
+                return parseEntries(cache, LEGACY_CACHE_HEADER_SIZE, libraries, LEGACY_CACHE_ENTRY_SIZE, legacyEnd,
+                        abiFlags);
+            }
+        } else if (!startsWith(cache, 0, CACHE_MAGIC)) {
+            throw new IOException("Unrecognized dynamic linker cache format");
+        }
+        if (cacheStart + CACHE_HEADER_SIZE > cache.limit()) {
+            throw new IOException("Truncated dynamic linker cache header");
+        }
+        final int libraries = cache.getInt(cacheStart + CACHE_MAGIC.length());
+        return parseEntries(cache, cacheStart + CACHE_HEADER_SIZE, libraries, CACHE_ENTRY_SIZE, cacheStart, abiFlags);
+    }
+
+    private static Map<String, List<Path>> parseEntries(ByteBuffer cache, int entriesStart, int libraries,
+                                                        int entrySize, int stringsStart, int[] abiFlags)
+            throws IOException {
+        if (libraries < 0 || (long) entriesStart + (long) libraries * entrySize > cache.limit()) {
+            throw new IOException("Malformed dynamic linker cache entries");
+        }
+        final Map<String, List<Path>> entries = new LinkedHashMap<>();
+        for (int i = 0; i < libraries; i++) {
+            final int entry = entriesStart + i * entrySize;
+            if (!isCompatible(cache.getInt(entry), abiFlags)) {
+                continue;
+            }
+            final String name = readString(cache, stringsStart + cache.getInt(entry + 4));
+            final String path = readString(cache, stringsStart + cache.getInt(entry + 8));
+            List<Path> paths = entries.get(name);
+            if (paths == null) {
+                paths = new ArrayList<>(1);
+                entries.put(name, paths);
+            }
+            paths.add(Paths.get(path));
+        }
+        return entries;
+    }
+
+    /**
+     * Retrieves the cache entry flags accepted by the dynamic linker of a platform, the arch-independent
+     * entries ({@link SystemLibraries#FLAG_ELF}) are always accepted.
+     *
+     * @return the accepted flags, or null if the platform ABI has no well-known flags
+     */
+    private static int[] getCacheFlags(long platformTraits) {
+        if ((platformTraits & HostPlatform.OS_LINUX) == 0) {
+            return null;
+        }
+        final boolean is64 = (platformTraits & HostPlatform.BITS_64) != 0;
+        if ((platformTraits & HostPlatform.CPU_X86) != 0) {
+            return new int[] {FLAG_ELF_LIBC6 | (is64 ? FLAG_X8664_LIB64 : 0)};
+        } else if ((platformTraits & HostPlatform.CPU_ARM) != 0) {
+            // the float ABI of the 32-bit ARM hosts isn't designated by the platform traits
+            return is64 ? new int[] {FLAG_ELF_LIBC6 | FLAG_AARCH64_LIB64}
+                    : new int[] {FLAG_ELF_LIBC6, FLAG_ELF_LIBC6 | FLAG_ARM_LIBHF, FLAG_ELF_LIBC6 | FLAG_ARM_LIBSF};
+        } else if ((platformTraits & HostPlatform.CPU_RISC_V) != 0) {
+            return new int[] {FLAG_ELF_LIBC6 | FLAG_RISCV_FLOAT_ABI_DOUBLE, FLAG_ELF_LIBC6 | FLAG_RISCV_FLOAT_ABI_SOFT};
+        } else if ((platformTraits & HostPlatform.CPU_PPC) != 0) {
+            return new int[] {FLAG_ELF_LIBC6 | (is64 ? FLAG_POWERPC_LIB64 : 0)};
+        } else if ((platformTraits & HostPlatform.CPU_S390) != 0) {
+            return new int[] {FLAG_ELF_LIBC6 | (is64 ? FLAG_S390_LIB64 : 0)};
+        } else if ((platformTraits & HostPlatform.CPU_SPARC) != 0) {
+            return new int[] {FLAG_ELF_LIBC6 | (is64 ? FLAG_SPARC_LIB64 : 0)};
+        }
+        return null;
+    }
+
+    private static boolean isCompatible(int flags, int[] abiFlags) {
+        if (abiFlags == null || flags == FLAG_ELF) {
+            return true;
+        }
+        for (int abiFlag : abiFlags) {
+            if (flags == abiFlag) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String readString(ByteBuffer cache, int offset) throws IOException {
+        if (offset < 0 || offset >= cache.limit()) {
+            throw new IOException("Malformed dynamic linker cache string at " + offset);
+        }
+        int end = offset;
+        while (end < cache.limit() && cache.get(end) != 0) {
+            end++;
+        }
+        if (cache.hasArray()) {
+            return new String(cache.array(), cache.arrayOffset() + offset, end - offset, StandardCharsets.UTF_8);
+        }
+        final byte[] string = new byte[end - offset];
+        ((ByteBuffer) cache.duplicate().position(offset)).get(string);
+        return new String(string, StandardCharsets.UTF_8);
+    }
+
+    private static boolean startsWith(ByteBuffer cache, int offset, String magic) {
+        if (offset + magic.length() > cache.limit()) {
+            return false;
+        }
+        for (int i = 0; i < magic.length(); i++) {
+            if (cache.get(offset + i) != magic.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, List<Path>> readLinkerCache() {
+        if ((HostPlatform.getTraits() & HostPlatform.OS_LINUX) == 0 || !Files.isRegularFile(LINKER_CACHE)) {
+            return Collections.emptyMap();
+        }
+        try {
+            final ByteBuffer cache = ByteBuffer.wrap(Files.readAllBytes(LINKER_CACHE)).order(ByteOrder.nativeOrder());
+            return Collections.unmodifiableMap(parseLinkerCache(cache));
+        } catch (IOException | RuntimeException e) {
+            SnapLoaderLogger.log(Level.WARNING, SystemLibraries.class.getName(), "readLinkerCache",
+                    "Cannot parse the dynamic linker cache " + LINKER_CACHE, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private static List<Path> computeSearchPaths() {
+        final Set<String> directories = new LinkedHashSet<>();
+        addPaths(directories, System.getenv("LD_LIBRARY_PATH"));
+        addPaths(directories, System.getProperty("java.library.path"));
+        final String bootLibraryPath = System.getProperty("sun.boot.library.path");
+        addPaths(directories, bootLibraryPath);
+        if (bootLibraryPath != null) {
+            // the JVM libraries (e.g., libjvm.so)
+            for (String path : bootLibraryPath.split(File.pathSeparator)) {
+                directories.add(path + "/server");
+            }
+        }
+        final String multiArch = getMultiArchTuple(HostPlatform.getTraits());
+        if (multiArch != null) {
+            directories.add("/lib/" + multiArch);
+            directories.add("/usr/lib/" + multiArch);
+            directories.add("/usr/local/lib/" + multiArch);
+        }
+        if ((HostPlatform.getTraits() & HostPlatform.BITS_64) != 0) {
+            directories.add("/lib64");
+            directories.add("/usr/lib64");
+        }
+        directories.add("/lib");
+        directories.add("/usr/lib");
+        directories.add("/usr/local/lib");
+        final List<Path> searchPaths = new ArrayList<>();
+        for (String directory : directories) {
+            final Path path = Paths.get(directory);
+            if (Files.isDirectory(path)) {
+                searchPaths.add(path);
+            }
+        }
+        return Collections.unmodifiableList(searchPaths);
+    }
+
+    private static void addPaths(Set<String> directories, String paths) {
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths.split(File.pathSeparator)) {
+            if (!path.isEmpty()) {
+                directories.add(path);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the Debian multi-arch tuple of a platform (e.g., "x86_64-linux-gnu").
+     *
+     * @param platformTraits a bitmask of the platform traits, see {@link HostPlatform}
+     * @return the multi-arch tuple, or null if the platform has no well-known tuple
+     */
+    public static String getMultiArchTuple(long platformTraits) {
+        final boolean is64 = (platformTraits & HostPlatform.BITS_64) != 0;
+        if ((platformTraits & HostPlatform.CPU_X86) != 0) {
+            return is64 ? "x86_64-linux-gnu" : "i386-linux-gnu";
+        } else if ((platformTraits & HostPlatform.CPU_ARM) != 0) {
+            return is64 ? "aarch64-linux-gnu" : "arm-linux-gnueabihf";
+        } else if ((platformTraits & HostPlatform.CPU_RISC_V) != 0) {
+            return is64 ? "riscv64-linux-gnu" : null;
+        } else if ((platformTraits & HostPlatform.CPU_PPC) != 0) {
+            return is64 ? ((platformTraits & HostPlatform.LITTLE_ENDIAN) != 0 ? "powerpc64le-linux-gnu"
+                    : "powerpc64-linux-gnu") : "powerpc-linux-gnu";
+        } else if ((platformTraits & HostPlatform.CPU_S390) != 0) {
+            return is64 ? "s390x-linux-gnu" : null;
+        }
+        return null;
+    }
+
+    /**
+     * Lazily computes the search paths once per process (the initialization-on-demand holder idiom).
+     */
+    private static final class Host {
+        private static final List<Path> SEARCH_PATHS = computeSearchPaths();
+    }
+
+    /**
+     * Lazily reads the dynamic linker cache once per process (the initialization-on-demand holder idiom).
+     */
+    private static final class LinkerCache {
+        private static final Map<String, List<Path>> ENTRIES = readLinkerCache();
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.platform.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import electrostatic4j.snaploader.filesystem.DirectoryPath;
+import electrostatic4j.snaploader.platform.NativeDynamicLibrary;
+import electrostatic4j.snaploader.platform.binary.BinaryClassifier;
+import electrostatic4j.snaploader.platform.binary.BinarySource;
+import electrostatic4j.snaploader.util.SnapLoaderLogger;
+
+/**
+ * Discovers the platform variants of a native library inside a jar filesystem; the entries of a root directory
+ * (e.g., "lib/**") named after the library are classified by reading their binary headers in place
+ * (see {@link BinaryClassifier}), and each classified variant is registered with a platform predicate
+ * of its platform traits; thus without registering the variants manually.
+ * <p>
+ * The discovered variants are cached per jar fingerprint in memory and in the shared cache directory;
+ * the fingerprint is a checksum of the central directory records (name + size + CRC-32) of the scanned entries,
+ * so the binaries are classified once per jar version, rather than once per startup.
+ *
+ * @author pavl_g
+ */
+public final class VariantDiscovery {
+
+    /**
+     * The default root directory of the native libraries inside the jar filesystems.
+     */
+    public static final String DEFAULT_ROOT = "lib";
+
+    private static final String INDEX_HEADER = "jsnaploader-variants-2";
+    private static final String INDEX_EXTENSION = ".variants";
+    private static final Map<String, List<Variant>> DISCOVERED_VARIANTS = new ConcurrentHashMap<>();
+
+    private VariantDiscovery() {
+    }
+
+    /**
+     * Discovers the platform variants of a native library inside a jar filesystem.
+     *
+     * @param compression the jar filesystem to scan (not closed by this method)
+     * @param root the root directory of the native libraries inside the jar filesystem (e.g., "lib")
+     * @param baseName the library basename without the platform prefixes and extensions (e.g., "jmealloc")
+     * @return a new list of the discovered libraries in the entries order, or an empty list if no variant is found
+     * @throws IOException if the jar filesystem cannot be read
+     */
+    public static List<NativeDynamicLibrary> discover(ZipFile compression, String root, String baseName) throws IOException {
+        final List<ZipEntry> entries = collectEntries(compression, root, baseName);
+        if (entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final String fingerprint = fingerprint(root, baseName, entries);
+        List<Variant> variants = DISCOVERED_VARIANTS.get(fingerprint);
+        if (variants == null) {
+            final Path index = getIndex(fingerprint);
+            variants = readIndex(index);
+            if (variants == null) {
+                variants = classify(compression, entries);
+                writeIndex(index, variants);
+            }
+            DISCOVERED_VARIANTS.putIfAbsent(fingerprint, variants);
+        }
+        final List<NativeDynamicLibrary> libraries = new ArrayList<>(variants.size());
+        for (Variant variant : variants) {
+            final int separator = variant.entryName.lastIndexOf('/');
+            libraries.add(new NativeDynamicLibrary(variant.entryName.substring(0, separator),
+                    variant.entryName.substring(separator + 1), PlatformPredicate.of(variant.traits)));
+        }
+        return libraries;
+    }
+
+    /**
+     * Tests whether a file name is a platform file name of a library (e.g., "libjmealloc.so",
+     * "jmealloc.dll", or "libjmealloc.dylib" for the basename "jmealloc").
+     *
+     * @param fileName the file name to test
+     * @param baseName the library basename
+     * @return true if the file name designates the library on any platform, false otherwise
+     */
+    public static boolean isLibraryFile(String fileName, String baseName) {
+        return hasLibraryExtension(fileName, baseName)
+                || (fileName.startsWith("lib") && hasLibraryExtension(fileName.substring(3), baseName));
+    }
+
+    private static boolean hasLibraryExtension(String name, String baseName) {
+        if (!name.startsWith(baseName)) {
+            return false;
+        }
+        final String extension = name.substring(baseName.length());
+        return extension.equals(".so") || extension.equals(".dll")
+                || extension.equals(".dylib") || extension.equals(".jnilib");
+    }
+
+    private static List<ZipEntry> collectEntries(ZipFile compression, String root, String baseName) {
+        final String prefix = root.endsWith("/") ? root : root + "/";
+        final List<ZipEntry> entries = new ArrayList<>();
+        final Enumeration<? extends ZipEntry> enumeration = compression.entries();
+        while (enumeration.hasMoreElements()) {
+            final ZipEntry zipEntry = enumeration.nextElement();
+            final String name = zipEntry.getName();
+            if (!zipEntry.isDirectory() && name.startsWith(prefix)
+                    && isLibraryFile(name.substring(name.lastIndexOf('/') + 1), baseName)) {
+                entries.add(zipEntry);
+            }
+        }
+        return entries;
+    }
+
+    private static List<Variant> classify(ZipFile compression, List<ZipEntry> entries) {
+        final List<Variant> variants = new ArrayList<>();
+        for (ZipEntry zipEntry : entries) {
+            try (BinarySource source = BinarySource.of(compression, zipEntry)) {
+                for (long traits : BinaryClassifier.classify(source)) {
+                    variants.add(new Variant(zipEntry.getName(), traits));
+                }
+            } catch (IOException | RuntimeException e) {
+                SnapLoaderLogger.log(Level.WARNING, VariantDiscovery.class.getName(), "classify",
+                        "Cannot classify the binary " + zipEntry.getName(), e);
+            }
+        }
+        return Collections.unmodifiableList(variants);
+    }
+
+    /**
+     * Computes a 64-bit checksum (CRC-32 + Adler-32) of the central directory records of the scanned entries,
+     * the records are already in memory; thus no entry is inflated, and no message digest provider is initialized.
+     */
+    private static String fingerprint(String root, String baseName, List<ZipEntry> entries) {
+        final CRC32 crc = new CRC32();
+        final Adler32 adler = new Adler32();
+        final StringBuilder records = new StringBuilder(root).append('\n').append(baseName).append('\n');
+        for (ZipEntry zipEntry : entries) {
+            records.append(zipEntry.getName()).append(' ').append(zipEntry.getSize())
+                    .append(' ').append(Long.toHexString(zipEntry.getCrc())).append('\n');
+        }
+        final byte[] bytes = records.toString().getBytes(StandardCharsets.UTF_8);
+        crc.update(bytes, 0, bytes.length);
+        adler.update(bytes, 0, bytes.length);
+        return Long.toHexString(crc.getValue() << 32 | adler.getValue()) + "-" + entries.size();
+    }
+
+    private static Path getIndex(String fingerprint) {
+        return Paths.get(DirectoryPath.SHARED_CACHE.getPath(), "variants", fingerprint + INDEX_EXTENSION);
+    }
+
+    private static List<Variant> readIndex(Path index) {
+        final List<String> records;
+        try {
+            records = Files.readAllLines(index, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            SnapLoaderLogger.log(Level.WARNING, VariantDiscovery.class.getName(), "readIndex",
+                    "Cannot read the variants index " + index, e);
+            return null;
+        }
+        if (records.isEmpty() || !INDEX_HEADER.equals(records.get(0))) {
+            return null;
+        }
+        final List<Variant> variants = new ArrayList<>();
+        for (String record : records.subList(1, records.size())) {
+            final int separator = record.indexOf(' ');
+            if (separator < 0) {
+                return null;
+            }
+            try {
+                variants.add(new Variant(record.substring(separator + 1), Long.parseLong(record.substring(0, separator), 16)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return Collections.unmodifiableList(variants);
+    }
+
+    /**
+     * Records the variants index atomically, failing to record the index is not fatal; it only leads
+     * to classifying the binaries again on the next startup.
+     */
+    private static void writeIndex(Path index, List<Variant> variants) {
+        final StringBuilder records = new StringBuilder(INDEX_HEADER).append('\n');
+        for (Variant variant : variants) {
+            records.append(Long.toHexString(variant.traits)).append(' ').append(variant.entryName).append('\n');
+        }
+        try {
+            Files.createDirectories(index.getParent());
+            final Path staging = index.resolveSibling("." + index.getFileName() + "."
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX) + ".tmp");
+            try {
+                Files.write(staging, records.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE_NEW);
+                try {
+                    Files.move(staging, index, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(staging, index, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(staging);
+            }
+        } catch (IOException e) {
+            SnapLoaderLogger.log(Level.WARNING, VariantDiscovery.class.getName(), "writeIndex",
+                    "Cannot record the variants index " + index, e);
+        }
+    }
+
+    /**
+     * A classified binary entry, and one of its targeted platforms.
+     */
+    private static final class Variant {
+        private final String entryName;
+        private final long traits;
+
+        private Variant(String entryName, long traits) {
+            this.entryName = entryName;
+            this.traits = traits;
+        }
+    }
+}
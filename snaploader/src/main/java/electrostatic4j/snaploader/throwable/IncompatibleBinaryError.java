@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.throwable;
+
+/**
+ * A business error of type {@link UnsatisfiedLinkError} to indicate a native binary that is incompatible
+ * with the host platform (e.g., a wrong machine, ELF class, or byte order).
+ * <p>
+ * This error is thrown before extracting and loading the binary; so that the misconfigured binaries
+ * fail fast without an extraction, and without the retry criterion.
+ *
+ * @author pavl_g
+ */
+public class IncompatibleBinaryError extends UnsatisfiedLinkError {
+
+    private final String binary;
+    private final String reason;
+
+    /**
+     * Thrown if a native binary is detected to be incompatible with the host platform.
+     *
+     * @param binary the path of the incompatible binary
+     * @param reason the precise reason of the incompatibility
+     */
+    public IncompatibleBinaryError(final String binary, final String reason) {
+        super("Binary (" + binary + ") is incompatible with the host: " + reason);
+        this.binary = binary;
+        this.reason = reason;
+    }
+
+    /**
+     * Retrieves the path of the incompatible binary.
+     *
+     * @return the path of the binary
+     */
+    public String getBinary() {
+        return binary;
+    }
+
+    /**
+     * Retrieves the precise reason of the incompatibility.
+     *
+     * @return the reason of the incompatibility
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the executors of the parallel extractions and the asynchronous loads.
+ * <p>
+ * This implementation creates pools of platform daemon threads; the Java 21 implementation
+ * is packaged into the multi-release jar under <code>META-INF/versions/21</code>, and it creates
+ * the executors on virtual threads.
+ *
+ * @author pavl_g
+ */
+public final class LoaderExecutors {
+
+    private LoaderExecutors() {
+    }
+
+    /**
+     * Tests whether the executors run their tasks on virtual threads.
+     *
+     * @return false, the executors run on platform threads
+     */
+    public static boolean isVirtual() {
+        return false;
+    }
+
+    /**
+     * Creates an executor bounded by a number of threads.
+     *
+     * @param name the name of the threads
+     * @param threads the maximum number of the concurrently running tasks
+     * @return a new executor, that must be shut down by the caller
+     */
+    public static ExecutorService newBoundedExecutor(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, newThreadFactory(name));
+    }
+
+    /**
+     * Creates an unbounded executor, that runs every task as soon as it's submitted.
+     *
+     * @param name the name of the threads
+     * @return a new executor
+     */
+    public static ExecutorService newExecutor(String name) {
+        return Executors.newCachedThreadPool(newThreadFactory(name));
+    }
+
+    private static ThreadFactory newThreadFactory(final String name) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.filesystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates a {@link ZipEntry#DEFLATED} entry straight from its data region inside the compression
+ * into a destination channel using direct buffers, bypassing the zip input streams and their heap buffers.
+ * <p>
+ * The data region is read by positional reads into a per-thread input buffer, and the entry is inflated
+ * into a per-thread direct buffer (see {@link StreamTransfer#getBufferSize()}), which is written to the
+ * destination channel; thus the inflated bytes are never copied into the Java heap. The data region isn't
+ * memory-mapped, since the mappings are released only by the garbage collector, which keeps the compression
+ * locked on Windows. The inflated entry is verified against the size and the CRC-32 recorded by
+ * the central directory.
+ * <p>
+ * This is the Java 11 implementation of the multi-release jar (<code>META-INF/versions/11</code>).
+ *
+ * @author pavl_g
+ */
+public final class EntryInflater {
+
+    private static final ThreadLocal<ByteBuffer> INPUT_BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<ByteBuffer> INFLATION_BUFFER = new ThreadLocal<>();
+
+    /* the raw inflation (i.e., "nowrap") may require an extra input byte past the deflated data */
+    private static final byte[] DUMMY_INPUT = new byte[1];
+
+    private EntryInflater() {
+    }
+
+    /**
+     * Tests whether the running Java runtime supports the direct-buffer inflation.
+     *
+     * @return true, the Java 11+ runtimes support the direct-buffer inflation
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Inflates a deflated entry into a destination channel.
+     *
+     * @param compression a readable channel of the zip compression filesystem
+     * @param region the located data region of the entry
+     * @param zipEntry the deflated zip entry
+     * @param target the destination channel
+     * @return true if the entry has been inflated, the direct-buffer inflation never declines an entry
+     * @throws IOException if the entry is corrupted, or an I/O error has occurred
+     */
+    public static boolean inflate(FileChannel compression, ZipEntryRegion region, ZipEntry zipEntry,
+                                  FileChannel target) throws IOException {
+        final ByteBuffer input = getBuffer(INPUT_BUFFER, false);
+        final ByteBuffer output = getBuffer(INFLATION_BUFFER, true);
+        final Inflater inflater = new Inflater(true);
+        final CRC32 crc = new CRC32();
+        long position = region.getOffset();
+        final long end = region.getOffset() + region.getLength();
+        long inflated = 0;
+        try {
+            boolean dummyInput = false;
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (position < end) {
+                        input.clear();
+                        input.limit((int) Math.min(input.capacity(), end - position));
+                        final int read = compression.read(input, position);
+                        if (read <= 0) {
+                            throw new ZipException("Compression channel has been truncated at position " + position);
+                        }
+                        position += read;
+                        input.flip();
+                        inflater.setInput(input);
+                    } else if (!dummyInput) {
+                        dummyInput = true;
+                        inflater.setInput(DUMMY_INPUT);
+                    } else {
+                        throw new ZipException("Truncated deflated entry " + zipEntry.getName());
+                    }
+                }
+                output.clear();
+                final int bytes = inflater.inflate(output);
+                if (bytes == 0) {
+                    if (!inflater.needsInput() && !inflater.finished()) {
+                        throw new ZipException("Unsupported deflated entry " + zipEntry.getName());
+                    }
+                    continue;
+                }
+                output.flip();
+                crc.update(output);
+                output.rewind();
+                while (output.hasRemaining()) {
+                    target.write(output);
+                }
+                inflated += bytes;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("Corrupted deflated entry " + zipEntry.getName() + ": " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        if ((zipEntry.getSize() >= 0 && inflated != zipEntry.getSize())
+                || (zipEntry.getCrc() >= 0 && crc.getValue() != zipEntry.getCrc())) {
+            throw new ZipException("Inflated entry " + zipEntry.getName() + " mismatches its size or CRC-32");
+        }
+        return true;
+    }
+
+    private static ByteBuffer getBuffer(ThreadLocal<ByteBuffer> buffers, boolean direct) {
+        ByteBuffer buffer = buffers.get();
+        if (buffer == null || buffer.capacity() != StreamTransfer.getBufferSize()) {
+            buffer = direct ? ByteBuffer.allocateDirect(StreamTransfer.getBufferSize())
+                    : ByteBuffer.allocate(StreamTransfer.getBufferSize());
+            buffers.set(buffer);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023-2024, The Electrostatic-Sandbox Distributed Simulation Framework, jSnapLoader
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'Electrostatic-Sandbox' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package electrostatic4j.snaploader.library;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * A loading backend that loads the libraries by the foreign function and memory API
+ * (i.e., <code>SymbolLookup.libraryLookup(Path, Arena)</code>), each library is loaded into its own
+ * shared arena, and closing its handle closes the arena, and unloads the library; so that long-running
+ * applications could unload and reload native plugins without restarting the JVM.
+ * <p>
+ * The libraries loaded by this backend are not bound to a class loader; thus their JNI native methods are
+ * not linked, and they are intended to be called through their symbols (i.e., the foreign downcalls).
+ * <p>
+ * This is the Java 22 implementation of the multi-release jar (<code>META-INF/versions/22</code>).
+ *
+ * @author pavl_g
+ */
+public final class ArenaLoadingBackend implements LibraryLoadingBackend {
+
+    /**
+     * The singleton instance of the arena loading backend.
+     */
+    public static final ArenaLoadingBackend INSTANCE = new ArenaLoadingBackend();
+
+    private static final String SCOPE = "arena";
+
+    private ArenaLoadingBackend() {
+    }
+
+    @Override
+    public LibraryHandle load(String library) {
+        final long start = System.nanoTime();
+        final Arena arena = Arena.ofShared();
+        final SymbolLookup symbolLookup;
+        try {
+            symbolLookup = SymbolLookup.libraryLookup(Paths.get(library), arena);
+        } catch (IllegalArgumentException e) {
+            arena.close();
+            final UnsatisfiedLinkError error = new UnsatisfiedLinkError("Cannot load the dynamic library: " + library);
+            error.initCause(e);
+            throw error;
+        }
+        return new ArenaLibraryHandle(library, this, System.nanoTime() - start, arena, symbolLookup);
+    }
+
+    /**
+     * Tests whether the running Java runtime supports the foreign function and memory API.
+     *
+     * @return true, the Java 22 runtime supports the foreign function and memory API
+     */
+    @Override
+    public boolean isSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isUnloadable() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "SymbolLookup.libraryLookup";
+    }
+
+    /**
+     * Retrieves the scope of the arena libraries, the arena libraries are distinct from the same libraries
+     * loaded by {@link System#load(String)} (i.e., their JNI native methods are not linked, and they are unloadable).
+     *
+     * @return the arena scope
+     */
+    @Override
+    public String getScope() {
+        return SCOPE;
+    }
+
+    private static final class ArenaLibraryHandle extends LibraryHandle {
+
+        private final Arena arena;
+        private final SymbolLookup symbolLookup;
+
+        private ArenaLibraryHandle(String library, LibraryLoadingBackend backend, long loadingNanos,
+                                   Arena arena, SymbolLookup symbolLookup) {
+            super(library, backend, loadingNanos);
+            this.arena = arena;
+            this.symbolLookup = symbolLookup;
+        }
+
+        @Override
+        public boolean isSymbolLookupSupported() {
+            return true;
+        }
+
+        @Override
+        protected long lookupSymbol(String symbol) {
+            final Optional<MemorySegment> address = symbolLookup.find(symbol);
+            return address.isPresent() ? address.get().address() : 0L;
+        }
+
+        @Override
+        protected void unload() {
+            // closing the arena releases the library (i.e., dlclose() or FreeLibrary())
+            arena.close();
+        }
+    }
+}